@@ -0,0 +1,57 @@
+package PaooGame.Bench;
+
+import PaooGame.Graphics.GameCamera;
+import PaooGame.Input.KeyManager;
+import PaooGame.RefLinks;
+
+/*! \class public class BenchRefLinks extends RefLinks
+    \brief Obiect "shortcut" pentru benchmark-uri: dimensiuni de viewport, camera si tastatura proprii, fara Game.
+
+    Harta, camera si eroii pot fi astfel construiti si masurati fara fereastra si fara initializarea intregului joc.
+ */
+public class BenchRefLinks extends RefLinks
+{
+    private final int width;                /*!< Latimea viewport-ului.*/
+    private final int height;               /*!< Inaltimea viewport-ului.*/
+    private final KeyManager keyManager;    /*!< Tastatura controlata din benchmark.*/
+    private final GameCamera camera;        /*!< Camera controlata din benchmark.*/
+
+    /*! \fn public BenchRefLinks(int width, int height)
+        \brief Constructorul clasei.
+
+        \param width Latimea viewport-ului in pixeli.
+        \param height Inaltimea viewport-ului in pixeli.
+     */
+    public BenchRefLinks(int width, int height)
+    {
+        super(null);
+        this.width = width;
+        this.height = height;
+        keyManager = new KeyManager();
+        camera = new GameCamera(this, 0, 0);
+    }
+
+    @Override
+    public KeyManager GetKeyManager()
+    {
+        return keyManager;
+    }
+
+    @Override
+    public GameCamera GetGameCamera()
+    {
+        return camera;
+    }
+
+    @Override
+    public int GetWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int GetHeight()
+    {
+        return height;
+    }
+}
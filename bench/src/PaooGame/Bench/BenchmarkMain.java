@@ -0,0 +1,78 @@
+package PaooGame.Bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/*! \class public class BenchmarkMain
+    \brief Lanseaza benchmark-urile JMH si scrie rezultatele in format JSON in bench/results/.
+
+    Fisierul de rezultate este numit dupa commit-ul curent si momentul rularii
+    (de exemplu bench/results/1a2b3c4-20250101-120000.json), ca rezultatele a doua commit-uri
+    sa poata fi comparate direct (de exemplu cu jmh.morethan.io).
+
+    Rulare din directorul proiectului (caile hartilor sunt relative la el):
+        java -cp &lt;clase JOC + bench + jar-uri JMH&gt; PaooGame.Bench.BenchmarkMain [regex benchmark-uri]
+ */
+public class BenchmarkMain
+{
+    public static void main(String[] args) throws RunnerException
+    {
+        File resultsDirectory = new File("bench/results");
+        if (!resultsDirectory.isDirectory() && !resultsDirectory.mkdirs())
+        {
+            System.err.println("✗ Directorul de rezultate nu a putut fi creat: " + resultsDirectory.getPath());
+            return;
+        }
+
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File results = new File(resultsDirectory, CurrentCommit() + "-" + stamp + ".json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.getPath());
+        if (args.length == 0)
+        {
+            options.include("PaooGame\\..*Benchmark");
+        }
+        for (String include : args)
+        {
+            options.include(include);
+        }
+
+        new Runner(options.build()).run();
+        System.out.println("✓ Rezultate scrise in " + results.getPath());
+    }
+
+    /*! \fn private static String CurrentCommit()
+        \brief Returneaza hash-ul scurt al commit-ului curent sau "local" daca git nu este disponibil.
+     */
+    private static String CurrentCommit()
+    {
+        try
+        {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(git.getInputStream())))
+            {
+                String line = reader.readLine();
+                if (git.waitFor() == 0 && line != null && !line.isEmpty())
+                {
+                    return line.trim();
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            /// Fara git rezultatele sunt identificate doar dupa data.
+        }
+        return "local";
+    }
+}
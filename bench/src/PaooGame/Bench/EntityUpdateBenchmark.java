@@ -0,0 +1,92 @@
+package PaooGame.Bench;
+
+import PaooGame.Items.EntityStore;
+import PaooGame.Items.EntityUpdateStage;
+import PaooGame.Maps.CollisionMap;
+import PaooGame.Maps.Map;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*! \class public class EntityUpdateBenchmark
+    \brief Masoara EntityUpdateStage.Update (deplasare cu coliziuni pe harta livrata) secvential si impartit pe
+    toate nucleele disponibile.
+
+    Entitatile au dreptunghiul de coliziune al eroului si viteze aleatoare, inversate la fiecare 64 de apeluri.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityUpdateBenchmark
+{
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private EntityStore store;
+    private CollisionMap collision;
+    private EntityUpdateStage stage;
+    private float[] velocityX;
+    private float[] velocityY;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void Setup()
+    {
+        BenchRefLinks refLinks = new BenchRefLinks(1280, 720);
+        Map map = new Map(refLinks);
+        if (!map.isMapLoaded())
+        {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + Map.DEFAULT_MAP_PATH);
+        }
+        collision = map.GetCollisionMap();
+        stage = new EntityUpdateStage(ForkJoinPool.commonPool(), parallel ? 0 : Integer.MAX_VALUE);
+
+        store = new EntityStore(entities);
+        velocityX = new float[entities];
+        velocityY = new float[entities];
+        Random random = new Random(42);
+        for (int i = 0; i < entities; i++)
+        {
+            int handle = store.Add(EntityStore.KIND_ENEMY, random.nextFloat() * map.GetWidth() * Tile.TILE_WIDTH,
+                    random.nextFloat() * map.GetHeight() * Tile.TILE_HEIGHT, 48, 48, EntityStore.NO_SPRITE);
+            store.SetBounds(handle, 16, 16, 16, 32);
+            velocityX[i] = random.nextFloat() * 6 - 3;
+            velocityY[i] = random.nextFloat() * 6 - 3;
+        }
+    }
+
+    @Benchmark
+    public EntityStore Update()
+    {
+        if ((invocation++ & 63) == 0)
+        {
+            float sign = (invocation & 64) != 0 ? -1f : 1f;
+            for (int i = 0; i < store.GetCount(); i++)
+            {
+                store.SetVelocity(store.GetHandle(i), sign * velocityX[i], sign * velocityY[i]);
+            }
+        }
+        stage.Update(store, collision);
+        return store;
+    }
+}
@@ -0,0 +1,104 @@
+package PaooGame.Bench;
+
+import PaooGame.Input.KeyManager;
+import PaooGame.Items.EntityMovement;
+import PaooGame.Items.EntityStore;
+import PaooGame.Items.Hero;
+import PaooGame.Maps.CollisionMap;
+import PaooGame.Maps.Map;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.event.KeyEvent;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class public class HeroUpdateBenchmark
+    \brief Masoara Hero.Update (input, imagine) urmat de EntityMovement.Update (deplasare cu coliziuni) pentru un
+    numar dat de eroi, toti in acelasi EntityStore (ca in PlayState).
+
+    Eroii sunt asezati pe celule libere ale hartii livrate. Tastele apasate se schimba la fiecare 64 de
+    apeluri (dreapta, jos, stanga, sus), astfel incat eroii se deplaseaza si se lovesc de zone solide.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeroUpdateBenchmark
+{
+    private static final int[] DIRECTION_KEYS = {KeyEvent.VK_D, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_W};
+
+    @Param({"1", "100", "1000"})
+    public int heroes;
+
+    private BenchRefLinks refLinks;
+    private Hero[] heroArray;
+    private EntityStore store;
+    private CollisionMap collision;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void Setup()
+    {
+        refLinks = new BenchRefLinks(1280, 720);
+        Map map = new Map(refLinks);
+        refLinks.SetMap(map);
+        if (!map.isMapLoaded())
+        {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + Map.DEFAULT_MAP_PATH);
+        }
+
+        collision = map.GetCollisionMap();
+        store = new EntityStore(heroes);
+        Random random = new Random(42);
+        heroArray = new Hero[heroes];
+        for (int i = 0; i < heroes; i++)
+        {
+            int tx;
+            int ty;
+            do
+            {
+                tx = random.nextInt(map.GetWidth());
+                ty = random.nextInt(map.GetHeight() - 1);
+            }
+            while (collision.IsSolid(tx, ty) || collision.IsSolid(tx, ty + 1));
+            /// Dreptunghiul de coliziune al eroului incepe la (16, 16) fata de pozitia lui.
+            heroArray[i] = new Hero(refLinks, store, tx * Tile.TILE_WIDTH - 16, ty * Tile.TILE_HEIGHT - 16);
+        }
+    }
+
+    @Benchmark
+    public Hero[] Update()
+    {
+        if ((invocation++ & 63) == 0)
+        {
+            KeyManager keyManager = refLinks.GetKeyManager();
+            for (int key : DIRECTION_KEYS)
+            {
+                keyManager.Post(key, false);
+            }
+            keyManager.Post(DIRECTION_KEYS[(invocation >> 6) & 3], true);
+            keyManager.Update();
+        }
+
+        for (Hero hero : heroArray)
+        {
+            hero.Update();
+        }
+        EntityMovement.Update(store, collision);
+        return heroArray;
+    }
+}
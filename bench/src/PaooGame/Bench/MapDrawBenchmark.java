@@ -0,0 +1,89 @@
+package PaooGame.Bench;
+
+import PaooGame.Maps.Map;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class public class MapDrawBenchmark
+    \brief Masoara Map.Draw intr-un Graphics2D din memorie pentru mai multe dimensiuni de viewport.
+
+    DrawStatic deseneaza mereu aceeasi zona (chunk-urile sunt deja coapte), iar DrawPanning muta camera
+    cu 4 pixeli la fiecare apel, traversand harta, astfel incat sunt masurate si coacerile de chunk-uri noi.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapDrawBenchmark
+{
+    @Param({"640x360", "1280x720", "1920x1080"})
+    public String viewport;
+
+    private BenchRefLinks refLinks;
+    private Map map;
+    private BufferedImage target;
+    private Graphics2D g;
+    private float maxX;
+
+    @Setup(Level.Trial)
+    public void Setup()
+    {
+        String[] size = viewport.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+
+        refLinks = new BenchRefLinks(width, height);
+        map = new Map(refLinks);
+        refLinks.SetMap(map);
+        if (!map.isMapLoaded())
+        {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + Map.DEFAULT_MAP_PATH);
+        }
+
+        target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+        maxX = Math.max(0, map.GetWidth() * Tile.TILE_WIDTH - width);
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown()
+    {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage DrawStatic()
+    {
+        refLinks.GetGameCamera().SetXOffset(0);
+        refLinks.GetGameCamera().SetYOffset(0);
+        map.Draw(g);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage DrawPanning()
+    {
+        float x = refLinks.GetGameCamera().GetXOffset() + 4;
+        refLinks.GetGameCamera().SetXOffset(x > maxX ? 0 : x);
+        map.Draw(g);
+        return target;
+    }
+}
@@ -0,0 +1,67 @@
+package PaooGame.Bench;
+
+import PaooGame.Maps.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class public class MapTileLookupBenchmark
+    \brief Masoara Map.GetTile pentru pozitii aleatoare (fixe intre rulari) pe toate layer-ele hartii livrate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapTileLookupBenchmark
+{
+    private static final int LOOKUPS = 4096;    /*!< Numarul de citiri dintr-un apel (puterea lui 2).*/
+
+    private Map map;
+    private final int[] xs = new int[LOOKUPS];
+    private final int[] ys = new int[LOOKUPS];
+    private final int[] layers = new int[LOOKUPS];
+
+    @Setup(Level.Trial)
+    public void Setup()
+    {
+        BenchRefLinks refLinks = new BenchRefLinks(1280, 720);
+        map = new Map(refLinks);
+        if (!map.isMapLoaded())
+        {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + Map.DEFAULT_MAP_PATH);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            xs[i] = random.nextInt(map.GetWidth());
+            ys[i] = random.nextInt(map.GetHeight());
+            layers[i] = random.nextInt(map.getLayerCount());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void GetTile(Blackhole blackhole)
+    {
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            blackhole.consume(map.GetTile(xs[i], ys[i], layers[i]));
+        }
+    }
+}
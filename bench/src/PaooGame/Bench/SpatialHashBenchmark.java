@@ -0,0 +1,91 @@
+package PaooGame.Bench;
+
+import PaooGame.Items.EntityMovement;
+import PaooGame.Items.EntityStore;
+import PaooGame.Items.SpatialHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class public class SpatialHashBenchmark
+    \brief Masoara un tick de coliziuni intre entitati: deplasare, actualizarea grilei si cate o interogare
+    QueryOverlaps pentru fiecare entitate.
+
+    Entitatile (32 x 32) sunt raspandite uniform pe o suprafata proportionala cu numarul lor (densitate constanta),
+    deci un cost liniar in numarul de entitati inseamna un cost constant per entitate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialHashBenchmark
+{
+    @Param({"100", "1000", "10000"})
+    public int entities;
+
+    private EntityStore store;
+    private SpatialHash spatialHash;
+    private float[] velocityX;
+    private float[] velocityY;
+    private int[] results;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void Setup()
+    {
+        store = new EntityStore(entities);
+        spatialHash = new SpatialHash(store);
+        velocityX = new float[entities];
+        velocityY = new float[entities];
+        results = new int[64];
+        Random random = new Random(42);
+        /// Aproximativ o entitate la 64 x 64 pixeli.
+        float side = (float)Math.sqrt(entities) * 64;
+        for (int i = 0; i < entities; i++)
+        {
+            int handle = store.Add(EntityStore.KIND_ENEMY, random.nextFloat() * side, random.nextFloat() * side,
+                    32, 32, EntityStore.NO_SPRITE);
+            velocityX[i] = random.nextFloat() * 4 - 2;
+            velocityY[i] = random.nextFloat() * 4 - 2;
+            store.SetVelocity(handle, velocityX[i], velocityY[i]);
+            spatialHash.Insert(handle);
+        }
+    }
+
+    @Benchmark
+    public int Tick()
+    {
+        /// Directia se inverseaza la fiecare 128 de tick-uri, ca entitatile sa ramana in zona initiala.
+        if ((++invocation & 127) == 0)
+        {
+            float sign = (invocation & 128) != 0 ? -1f : 1f;
+            for (int i = 0; i < store.GetCount(); i++)
+            {
+                store.SetVelocity(store.GetHandle(i), sign * velocityX[i], sign * velocityY[i]);
+            }
+        }
+        EntityMovement.Update(store, null);
+        spatialHash.UpdateAll();
+
+        int hits = 0;
+        for (int i = 0; i < store.GetCount(); i++)
+        {
+            hits += spatialHash.QueryOverlaps(store.GetHandle(i), results);
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,55 @@
+package PaooGame.Maps;
+
+import PaooGame.Bench.BenchRefLinks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Măsoară încărcarea completă a hărții livrate (LoadWorldFromTMX prin constructorul Map): datele hărții,
+ * registrul de dale cu imaginile tileset-urilor, harta de coliziuni și cache-ul de chunk-uri.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadWorldBenchmark {
+    @Param({"tmx", "cache"})
+    public String source;
+
+    private BenchRefLinks refLinks;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        refLinks = new BenchRefLinks(1280, 720);
+        Map.SetUseBinaryCache("cache".equals(source));
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        Map.SetUseBinaryCache(true);
+    }
+
+    @Benchmark
+    public Map LoadWorld() {
+        Map map = new Map(refLinks, Map.DEFAULT_MAP_PATH);
+        if (!map.isMapLoaded()) {
+            throw new IllegalStateException("Harta nu s-a încărcat: " + Map.DEFAULT_MAP_PATH);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,77 @@
+package PaooGame.Maps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Măsoară citirea datelor hărții (layer-e, tileset-uri, obiecte) din TMX sau din cache-ul binar,
+ * pentru harta livrată și pentru hărți generate (vezi TmxLoadReport.WriteGeneratedMap).
+ *
+ * Valorile parametrului map: "shipped" sau "&lt;latură&gt;-&lt;encoding&gt;[-&lt;compresie&gt;]".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapLoadBenchmark {
+    private static final int GENERATED_LAYERS = 3;
+
+    @Param({"shipped", "512-csv", "512-base64-zlib", "2048-csv", "2048-base64", "2048-base64-zlib", "2048-base64-gzip"})
+    public String map;
+
+    @Param({"tmx", "cache"})
+    public String source;
+
+    private File file;
+    private File generatedDirectory;
+
+    @Setup(Level.Trial)
+    public void Setup() throws Exception {
+        if ("shipped".equals(map)) {
+            file = new File(Map.DEFAULT_MAP_PATH);
+        } else {
+            String[] parts = map.split("-");
+            int size = Integer.parseInt(parts[0]);
+            generatedDirectory = Files.createTempDirectory("paoo-bench-").toFile();
+            file = new File(generatedDirectory, map + ".tmx");
+            TmxLoadReport.WriteGeneratedMap(file, size, size, GENERATED_LAYERS, parts[1], parts.length > 2 ? parts[2] : "");
+        }
+
+        Map.SetUseBinaryCache("cache".equals(source));
+        // Prima citire (re)construiește cache-ul, ca măsurătorile să îl citească doar.
+        Map.ReadMapData(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        Map.SetUseBinaryCache(true);
+        if (generatedDirectory != null) {
+            MapCache.CacheFileFor(file).delete();
+            MapCache.CacheFileFor(file).getParentFile().delete();
+            file.delete();
+            generatedDirectory.delete();
+        }
+    }
+
+    @Benchmark
+    public MapData ReadMapData() throws Exception {
+        return Map.ReadMapData(file);
+    }
+}
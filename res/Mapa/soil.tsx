@@ -1,4 +1,14 @@
 <?xml version="1.0" encoding="UTF-8"?>
 <tileset version="1.10" tiledversion="1.11.2" name="soil" tilewidth="16" tileheight="16" tilecount="256" columns="16">
  <image source="19.07a - Gentle Forest 3.0a ($0 palettes)/gentle sheets/gentle forest v01.png" width="256" height="256"/>
+ <tile id="145">
+  <properties>
+   <property name="solid" type="bool" value="true"/>
+  </properties>
+ </tile>
+ <tile id="180">
+  <properties>
+   <property name="solid" type="bool" value="true"/>
+  </properties>
+ </tile>
 </tileset>
@@ -2,31 +2,64 @@ package PaooGame;
 
 import PaooGame.GameWindow.GameWindow;
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.CompatibleImages;
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Graphics.GameCamera;
+import PaooGame.Input.Action;
+import PaooGame.Input.InputRecorder;
+import PaooGame.Input.InputReplay;
 import PaooGame.Input.KeyManager;
+import PaooGame.Items.Hero;
+import PaooGame.Profiling.Profiler;
+import PaooGame.Profiling.ProfilerOverlay;
 import PaooGame.States.*;
 import PaooGame.Tiles.Tile;
+import PaooGame.Timing.FrameScheduler;
+import PaooGame.Timing.GameClock;
 
 import java.awt.*;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 
 /*! \class Game
     \brief Clasa principala a intregului proiect. Implementeaza Game - Loop (Update -> Draw)
  */
 public class Game implements Runnable
 {
+    /*! \enum HeadlessRender
+        \brief Modul de desenare in rularea fara fereastra (headless).
+     */
+    public enum HeadlessRender
+    {
+        OFFSCREEN,  /*!< Fiecare tick este urmat de o desenare intr-un BufferedImage.*/
+        NONE        /*!< Se executa doar actualizarile, fara desenare.*/
+    }
+
     private GameWindow      wnd;        /*!< Fereastra in care se va desena tabla jocului*/
-    private boolean         runState;   /*!< Flag ce starea firului de executie.*/
+    private volatile boolean runState;  /*!< Flag ce starea firului de executie.*/
     private Thread          gameThread; /*!< Referinta catre thread-ul de update si draw al ferestrei*/
     private BufferStrategy  bs;         /*!< Referinta catre un mecanism cu care se organizeaza memoria complexa pentru un canvas.*/
     private Graphics        g;          /*!< Referinta catre un context grafic.*/
-
-    ///Available states
-    private State playState;            /*!< Referinta catre joc.*/
-    private State menuState;            /*!< Referinta catre menu.*/
-    private State settingsState;        /*!< Referinta catre setari.*/
-    private State aboutState;           /*!< Referinta catre about.*/
+    private FrameScheduler  scheduler;  /*!< Planificatorul buclei de joc (pas fix de actualizare, desenare separata).*/
+    private final int       width;      /*!< Latimea suprafetei de desenare.*/
+    private final int       height;     /*!< Inaltimea suprafetei de desenare.*/
+    private final boolean   headless;   /*!< Jocul ruleaza fara fereastra (GameWindow nu este construita).*/
+    private HeadlessRender  headlessRender; /*!< Modul de desenare in rularea headless.*/
+    private final long      createdNanos;   /*!< Momentul construirii jocului (pentru timpul pana la primul frame).*/
+    private boolean         firstFrameShown;    /*!< Primul frame a fost afisat.*/
+    private boolean         threadedRender = true;  /*!< Desenarea ruleaza pe un thread separat de actualizare.*/
+    private volatile boolean accelerationReportRequested;   /*!< Raportul de accelerare se afiseaza la urmatoarea desenare.*/
+
+    private StateManager stateManager;  /*!< Registrul starilor (joc, meniu, setari, about), construite o singura data.*/
     private KeyManager keyManager;      /*!< Referinta catre obiectul care gestioneaza intrarile din partea utilizatorului.*/
     private RefLinks refLink;            /*!< Referinta catre un obiect a carui sarcina este doar de a retine diverse referinte pentru a fi usor accesibile.*/
+    private GameCamera gameCamera;      /*!< Referinta catre camera jocului.*/
+    private ProfilerOverlay profilerOverlay;    /*!< Afiseaza duratele fazelor unui frame (comutat cu F3).*/
+    private final DrawCommandBuffer drawBuffer = new DrawCommandBuffer();  /*!< Comenzile de desenare ale frame-ului curent.*/
+    private InputReplay inputReplay;            /*!< Inregistrarea de input redata in locul tastaturii (sau null).*/
+    private boolean recordingInput;             /*!< Input-ul sesiunii este inregistrat (vezi RecordInput).*/
 
     /*! \fn public Game(String title, int width, int height)
         \brief Constructor de initializare al clasei Game.
@@ -40,9 +73,38 @@ public class Game implements Runnable
      */
     public Game(String title, int width, int height)
     {
+        this(width, height, false);
         wnd = new GameWindow(title, width, height);
+    }
+
+    /*! \fn public Game(int width, int height, HeadlessRender render)
+        \brief Constructor pentru rularea fara fereastra (de exemplu in CI, unde nu exista display).
+
+        Starile jocului sunt actualizate si, optional, desenate intr-o imagine din memorie de dimensiunea data.
+        Rularea se face sincron, cu RunHeadless().
+
+        \param width Latimea suprafetei de desenare in pixeli.
+        \param height Inaltimea suprafetei de desenare in pixeli.
+        \param render Modul de desenare (in imagine din memorie sau deloc).
+     */
+    public Game(int width, int height, HeadlessRender render)
+    {
+        this(width, height, true);
+        headlessRender = render;
+    }
+
+    private Game(int width, int height, boolean headless)
+    {
+        this.width = width;
+        this.height = height;
+        this.headless = headless;
+        createdNanos = System.nanoTime();
         runState = false;
         keyManager = new KeyManager();
+        scheduler = new FrameScheduler(FrameScheduler.DEFAULT_UPDATE_RATE, FrameScheduler.DEFAULT_RENDER_RATE);
+        profilerOverlay = new ProfilerOverlay();
+        ///La iesirea din program (inclusiv System.exit) se afiseaza statisticile profiler-ului pentru intreaga sesiune.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> Profiler.Dump(System.out)));
         System.out.println("✓ Joc creat cu dimensiuni: " + width + "x" + height);
     }
 
@@ -51,43 +113,79 @@ public class Game implements Runnable
      */
     private void InitGame()
     {
-        /// Este construita fereastra grafica.
-        wnd.BuildGameWindow();
+        ///Tick-urile se numara de la pornire (necesar pentru inregistrarea/redarea input-ului)
+        GameClock.Reset();
 
-        // Focus si key listener setup imbunatatit
-        wnd.GetWndFrame().addKeyListener(keyManager);
-        wnd.GetCanvas().addKeyListener(keyManager);
-
-        // Asigura-te ca fereastra poate primi focus
-        wnd.GetWndFrame().setFocusable(true);
-        wnd.GetCanvas().setFocusable(true);
-        wnd.GetWndFrame().requestFocus();
-        wnd.GetCanvas().requestFocus();
-
-        System.out.println("✓ Fereastra construita si focus setat");
+        if(!headless)
+        {
+            InitWindow();
+        }
 
-        ///Se incarca toate elementele grafice (dale)
+        ///Elementele grafice sunt decodificate in paralel, in fundal; meniul nu asteapta dalele hartii.
         Assets.Init();
-        System.out.println("✓ Assets incarcate");
+        System.out.println("✓ Incarcarea assets pornita");
 
         ///Se construieste obiectul de tip shortcut ce va retine o serie de referinte catre elementele importante din program.
         refLink = new RefLinks(this);
         System.out.println("✓ RefLinks construit");
 
-        ///Definirea starilor programului
-        playState       = new PlayState(refLink);
-        menuState       = new MenuState(refLink);
-        settingsState   = new SettingsState(refLink);
-        aboutState      = new AboutState(refLink);
+        ///Camera porneste din coltul stanga-sus al hartii si va urmari eroul.
+        gameCamera = new GameCamera(refLink, 0, 0);
+
+        ///Definirea starilor programului. Fiecare stare este construita la prima folosire si apoi refolosita.
+        stateManager = new StateManager(refLink);
+        stateManager.Register(PlayState.class, PlayState::new);
+        stateManager.Register(MenuState.class, MenuState::new);
+        stateManager.Register(SettingsState.class, SettingsState::new);
+        stateManager.Register(AboutState.class, AboutState::new);
+        ///Fara fereastra (simulare) si cand input-ul este inregistrat sau redat, trecerile au loc in tick-ul in care
+        ///sunt cerute; altfel tick-ul trecerii ar depinde de cat dureaza construirea starii pe aceasta masina, iar
+        ///redarea ar aplica tastele eroului un alt numar de tick-uri decat sesiunea inregistrata.
+        stateManager.SetBlocking(headless || inputReplay != null || recordingInput);
+
+        System.out.println("✓ Starile inregistrate");
 
-        System.out.println("✓ Toate starile create");
+        if(headless && inputReplay == null)
+        {
+            ///Fara fereastra nu exista cine sa aleaga din meniu, asa ca simularea porneste direct jocul.
+            ///O inregistrare porneste insa din meniu, exact ca sesiunea inregistrata.
+            stateManager.Switch(PlayState.class);
+            System.out.println("✓ Stare initiala setata la PlayState (headless)");
+            return;
+        }
 
         ///Seteaza starea implicita cu care va fi lansat programul in executie (SCHIMBAT LA MENIU)
-        State.SetState(menuState);
+        stateManager.Switch(MenuState.class);
         System.out.println("✓ Stare initiala setata la MenuState");
 
-        // Focus final pe canvas dupa initializare
+        if(!headless)
+        {
+            ///Harta jocului este construita in fundal cat timp jucatorul sta in meniu.
+            stateManager.Preload(PlayState.class);
+            // Focus final pe canvas dupa initializare
+            wnd.GetCanvas().requestFocus();
+        }
+    }
+
+    /*! \fn private void InitWindow()
+        \brief Construieste fereastra jocului si leaga listenerul de tastatura.
+     */
+    private void InitWindow()
+    {
+        /// Este construita fereastra grafica.
+        wnd.BuildGameWindow();
+
+        // Focus si key listener setup imbunatatit
+        wnd.GetWndFrame().addKeyListener(keyManager);
+        wnd.GetCanvas().addKeyListener(keyManager);
+
+        // Asigura-te ca fereastra poate primi focus
+        wnd.GetWndFrame().setFocusable(true);
+        wnd.GetCanvas().setFocusable(true);
+        wnd.GetWndFrame().requestFocus();
         wnd.GetCanvas().requestFocus();
+
+        System.out.println("✓ Fereastra construita si focus setat");
     }
 
     /*! \fn public void run()
@@ -99,32 +197,110 @@ public class Game implements Runnable
     {
         /// Initializeaza obiectul game
         InitGame();
-        long oldTime = System.nanoTime();   /*!< Retine timpul in nanosecunde aferent frame-ului anterior.*/
-        long curentTime;                    /*!< Retine timpul curent de executie.*/
 
-        /// Apelul functiilor Update() & Draw() trebuie realizat la fiecare 16.7 ms
-        /// sau mai bine spus de 60 ori pe secunda.
+        /// Update() este apelat cu un pas fix (implicit de 60 ori pe secunda), iar Draw() cu propria frecventa.
+        /// Intre doua termene thread-urile sunt parcate, nu mai ocupa un nucleu la 100%.
+        if(threadedRender)
+        {
+            /// Draw() ruleaza pe thread-ul "render" si citeste doar instantaneele publicate de Update().
+            System.out.println("✓ Game loop pornit (actualizare si desenare pe thread-uri separate)");
+            scheduler.RunThreaded(() -> runState, this::Update, this::Draw);
+        }
+        else
+        {
+            System.out.println("✓ Game loop pornit");
+            scheduler.Run(() -> runState, this::Update, this::Draw);
+        }
+    }
 
-        final int framesPerSecond   = 60; /*!< Constanta intreaga initializata cu numarul de frame-uri pe secunda.*/
-        final double timeFrame      = 1000000000 / framesPerSecond; /*!< Durata unui frame in nanosecunde.*/
+    /*! \fn public double RunHeadless(int ticks)
+        \brief Ruleaza sincron, cat de repede se poate, numarul dat de tick-uri si raporteaza tick-urile pe secunda.
 
-        System.out.println("✓ Game loop pornit");
+        Fiecare tick este o actualizare urmata (in modul OFFSCREEN) de o desenare intr-o imagine din memorie.
+        Timpul de initializare (assets, harta) nu este inclus in masuratoare.
 
-        /// Atat timp timp cat threadul este pornit Update() & Draw()
-        while (runState == true)
+        \param ticks Numarul de tick-uri de simulat.
+        \return Tick-urile pe secunda obtinute.
+     */
+    public double RunHeadless(int ticks)
+    {
+        if(!headless)
         {
-            /// Se obtine timpul curent
-            curentTime = System.nanoTime();
-            /// Daca diferenta de timp dintre curentTime si oldTime mai mare decat 16.6 ms
-            if((curentTime - oldTime) > timeFrame)
+            throw new IllegalStateException("RunHeadless poate fi apelat doar pentru un joc construit in modul headless");
+        }
+
+        InitGame();
+
+        Graphics2D offscreenGraphics = null;
+        if(headlessRender == HeadlessRender.OFFSCREEN)
+        {
+            BufferedImage offscreen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            offscreenGraphics = offscreen.createGraphics();
+        }
+
+        System.out.println("✓ Simulare headless pornita: " + ticks + " tick-uri, desenare " + headlessRender);
+        long start = System.nanoTime();
+        for(int tick = 0; tick < ticks; tick++)
+        {
+            Update();
+            if(offscreenGraphics != null)
+            {
+                DrawFrame(offscreenGraphics);
+                ReportFirstFrame();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if(offscreenGraphics != null)
+        {
+            offscreenGraphics.dispose();
+        }
+
+        double ticksPerSecond = ticks / (Math.max(elapsed, 1) / 1e9);
+        System.out.printf("✓ Simulare headless: %d tick-uri in %.1f ms (%.1f tick-uri/s)%n", ticks, elapsed / 1e6, ticksPerSecond);
+        ///Pozitia finala a eroului permite compararea a doua rulari ale aceleiasi inregistrari.
+        if(State.GetState() instanceof PlayState)
+        {
+            Hero hero = ((PlayState)State.GetState()).GetHero();
+            System.out.printf("✓ Pozitia finala a eroului: (%.3f, %.3f)%n", hero.GetX(), hero.GetY());
+        }
+        return ticksPerSecond;
+    }
+
+    /*! \fn public void RecordInput(File file)
+        \brief Inregistreaza input-ul sesiunii (vezi InputRecorder); fisierul este scris la iesirea din program.
+
+        Trebuie apelata inainte de pornirea jocului.
+     */
+    public void RecordInput(File file)
+    {
+        InputRecorder recorder = new InputRecorder(file, scheduler.GetUpdateStep());
+        keyManager.SetRecorder(recorder);
+        recordingInput = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try
+            {
+                recorder.Save();
+            }
+            catch(IOException e)
             {
-                /// Actualizeaza pozitiile elementelor
-                Update();
-                /// Deseneaza elementele grafica in fereastra.
-                Draw();
-                oldTime = curentTime;
+                System.err.println("✗ Inregistrarea de input nu a putut fi salvata: " + e.getMessage());
             }
+        }));
+    }
+
+    /*! \fn public void SetInputReplay(InputReplay replay)
+        \brief Reda inregistrarea data in locul tastaturii (care este dezactivata). Se apeleaza inainte de pornire.
+     */
+    public void SetInputReplay(InputReplay replay)
+    {
+        if(replay.GetStepNanos() != scheduler.GetUpdateStep())
+        {
+            System.out.println("⚠️ Inregistrarea a fost facuta cu alt pas de actualizare (" + replay.GetStepNanos()
+                    + " ns); redarea nu va fi identica");
         }
+        inputReplay = replay;
+        keyManager.SetLiveInput(false);
     }
 
     /*! \fn public synchronized void start()
@@ -189,14 +365,37 @@ public class Game implements Runnable
      */
     private void Update()
     {
+        Profiler.Begin(Profiler.Phase.GAME_UPDATE);
+        ///Ceasul comun (folosit de animatii) avanseaza cu pasul fix al simularii
+        GameClock.Advance(scheduler.GetUpdateStep());
+        ///La redarea unei inregistrari, evenimentele acestui tick intra in coada inainte de a fi citite
+        if(inputReplay != null)
+        {
+            inputReplay.Feed(keyManager, GameClock.GetTick());
+        }
         ///Determina starea tastelor
         keyManager.Update();
+        ///F3 afiseaza/ascunde overlay-ul profiler-ului
+        if(keyManager.IsPressed(Action.TOGGLE_PROFILER))
+        {
+            profilerOverlay.Toggle();
+            if(profilerOverlay.IsVisible())
+            {
+                ///Raportul citeste chunk-urile hartii, care apartin thread-ului de desenare
+                accelerationReportRequested = true;
+            }
+        }
+        ///O trecere amanata (starea ceruta se incarca in fundal) are loc in primul tick in care starea este gata
+        stateManager.Update();
         ///Trebuie obtinuta starea curenta pentru care urmeaza a se actualiza starea, atentie trebuie sa fie diferita de null.
         if(State.GetState() != null)
         {
             ///Actualizez starea curenta a jocului daca exista.
+            Profiler.Begin(Profiler.Phase.STATE_UPDATE);
             State.GetState().Update();
+            Profiler.End(Profiler.Phase.STATE_UPDATE);
         }
+        Profiler.End(Profiler.Phase.GAME_UPDATE);
     }
 
     /*! \fn private void Draw()
@@ -226,32 +425,88 @@ public class Game implements Runnable
         }
         /// Se obtine contextul grafic curent in care se poate desena.
         g = bs.getDrawGraphics();
-        /// Se sterge ce era
-        g.clearRect(0, 0, wnd.GetWndWidth(), wnd.GetWndHeight());
 
         /// operatie de desenare
-        ///Trebuie obtinuta starea curenta pentru care urmeaza a se actualiza starea, atentie trebuie sa fie diferita de null.
-        if(State.GetState() != null)
-        {
-            ///Actualizez starea curenta a jocului daca exista.
-            State.GetState().Draw(g);
-        }
+        DrawFrame(g);
         /// end operatie de desenare
 
         /// Se afiseaza pe ecran
+        Profiler.Begin(Profiler.Phase.BUFFER_SHOW);
         bs.show();
+        Profiler.End(Profiler.Phase.BUFFER_SHOW);
+        ReportFirstFrame();
 
         /// Elibereaza resursele de memorie aferente contextului grafic curent (zonele de memorie ocupate de
         /// elementele grafice ce au fost desenate pe canvas).
         g.dispose();
     }
 
+    /*! \fn private void PrintAccelerationReport()
+        \brief Afiseaza care dintre imaginile desenate frecvent sunt accelerate (tinute de Java2D in memoria video).
+     */
+    private void PrintAccelerationReport()
+    {
+        System.out.println("=== Imagini accelerate ===");
+        System.out.println("  fundal meniu: " + CompatibleImages.IsAccelerated(Assets.backgroundMenu));
+        System.out.println("  erou (W/A/S/D): " + CompatibleImages.IsAccelerated(Assets.heroBack) + " "
+                + CompatibleImages.IsAccelerated(Assets.heroLeft) + " " + CompatibleImages.IsAccelerated(Assets.heroFront)
+                + " " + CompatibleImages.IsAccelerated(Assets.heroRight));
+        if(refLink != null && refLink.GetMap() != null)
+        {
+            System.out.println("  harta: " + refLink.GetMap().GetAccelerationReport());
+        }
+        System.out.println("  comenzi de desenare: " + drawBuffer.GetCommandCount() + ", schimbari de stare: "
+                + drawBuffer.GetLastStateChanges() + ", schimbari de imagine: " + drawBuffer.GetLastImageSwitches());
+    }
+
+    /*! \fn private void ReportFirstFrame()
+        \brief La primul frame afisat, raporteaza timpul scurs de la construirea jocului.
+     */
+    private void ReportFirstFrame()
+    {
+        if(!firstFrameShown)
+        {
+            firstFrameShown = true;
+            System.out.printf("⏱ Primul frame afisat dupa %.1f ms%n", (System.nanoTime() - createdNanos) / 1e6);
+        }
+    }
+
+    /*! \fn private void DrawFrame(Graphics g)
+        \brief Deseneaza starea curenta si overlay-ul profiler-ului in contextul grafic dat (fereastra sau imagine din memorie).
+     */
+    private void DrawFrame(Graphics g)
+    {
+        if(accelerationReportRequested)
+        {
+            accelerationReportRequested = false;
+            PrintAccelerationReport();
+        }
+
+        /// Se sterge ce era
+        g.clearRect(0, 0, width, height);
+
+        Profiler.Begin(Profiler.Phase.FRAME_DRAW);
+        ///Trebuie obtinuta starea curenta pentru care urmeaza a se actualiza starea, atentie trebuie sa fie diferita de null.
+        State state = State.GetState();
+        if(state != null)
+        {
+            ///Starea inregistreaza comenzile frame-ului, care sunt apoi redate sortate, intr-un singur pas.
+            drawBuffer.Clear();
+            state.Draw(drawBuffer);
+            Profiler.Begin(Profiler.Phase.DRAW_REPLAY);
+            drawBuffer.Replay(g);
+            Profiler.End(Profiler.Phase.DRAW_REPLAY);
+        }
+        Profiler.End(Profiler.Phase.FRAME_DRAW);
+        profilerOverlay.Draw(g, 10, 10);
+    }
+
     /*! \fn public int GetWidth()
         \brief Returneaza latimea ferestrei
      */
     public int GetWidth()
     {
-        return wnd.GetWndWidth();
+        return width;
     }
 
     /*! \fn public int GetHeight()
@@ -259,7 +514,81 @@ public class Game implements Runnable
      */
     public int GetHeight()
     {
-        return wnd.GetWndHeight();
+        return height;
+    }
+
+    /*! \fn public void SetUpdateRate(int updateRate)
+        \brief Seteaza numarul de actualizari (tick-uri) pe secunda.
+     */
+    public void SetUpdateRate(int updateRate)
+    {
+        scheduler.SetUpdateRate(updateRate);
+    }
+
+    /*! \fn public void SetRenderRate(int renderRate)
+        \brief Seteaza numarul de desenari pe secunda; o valoare <= 0 elimina limita.
+     */
+    public void SetRenderRate(int renderRate)
+    {
+        scheduler.SetRenderRate(renderRate);
+    }
+
+    /*! \fn public void SetThreadedRender(boolean threadedRender)
+        \brief Alege daca desenarea ruleaza pe un thread separat (implicit) sau pe acelasi thread cu actualizarea.
+
+        Trebuie apelata inainte de pornirea jocului; rularea headless este intotdeauna pe un singur thread.
+     */
+    public void SetThreadedRender(boolean threadedRender)
+    {
+        this.threadedRender = threadedRender;
+    }
+
+    /*! \fn public boolean IsRenderThreaded()
+        \brief Returneaza true daca desenarea ruleaza acum pe thread-ul separat de randare.
+     */
+    public boolean IsRenderThreaded()
+    {
+        return scheduler.IsThreaded();
+    }
+
+    /*! \fn public long GetUpdateStep()
+        \brief Returneaza durata unui pas de actualizare in nanosecunde.
+     */
+    public long GetUpdateStep()
+    {
+        return scheduler.GetUpdateStep();
+    }
+
+    /*! \fn public int GetTicksPerSecond()
+        \brief Returneaza numarul de actualizari masurate in ultima secunda.
+     */
+    public int GetTicksPerSecond()
+    {
+        return scheduler.GetTicksPerSecond();
+    }
+
+    /*! \fn public int GetFramesPerSecond()
+        \brief Returneaza numarul de desenari masurate in ultima secunda.
+     */
+    public int GetFramesPerSecond()
+    {
+        return scheduler.GetFramesPerSecond();
+    }
+
+    /*! \fn public GameCamera GetGameCamera()
+        \brief Returneaza camera jocului.
+     */
+    public GameCamera GetGameCamera()
+    {
+        return gameCamera;
+    }
+
+    /*! \fn public StateManager GetStateManager()
+        \brief Returneaza registrul starilor jocului.
+     */
+    public StateManager GetStateManager()
+    {
+        return stateManager;
     }
 
     /*! \fn public KeyManager GetKeyManager()
@@ -0,0 +1,109 @@
+package PaooGame.Graphics;
+
+import PaooGame.Timing.GameClock;
+
+/*! \class public class Animation
+    \brief O secventa de regiuni dintr-un TextureAtlas, afisate fiecare pentru aceeasi durata.
+
+    Animatia nu are stare proprie de timp: cadrul curent se calculeaza din timpul ceasului comun (GameClock) si
+    momentul in care entitatea a pornit animatia. O singura instanta poate fi deci partajata de oricate entitati,
+    iar alegerea cadrului este doar aritmetica pe long/int, fara alocari.
+ */
+public class Animation
+{
+    private final TextureAtlas atlas;   /*!< Atlasul in care se afla cadrele.*/
+    private final int[] regions;        /*!< Regiunile din atlas, in ordinea redarii.*/
+    private final long frameMillis;     /*!< Durata unui cadru, in milisecunde.*/
+    private final boolean loop;         /*!< Animatia se reia de la capat (altfel ramane pe ultimul cadru).*/
+
+    /*! \fn public Animation(TextureAtlas atlas, int[] regions, long frameMillis, boolean loop)
+        \brief Constructorul de initializare al clasei.
+
+        \param atlas Atlasul in care se afla cadrele.
+        \param regions Regiunile din atlas, in ordinea redarii.
+        \param frameMillis Durata unui cadru, in milisecunde.
+        \param loop true daca animatia se repeta.
+     */
+    public Animation(TextureAtlas atlas, int[] regions, long frameMillis, boolean loop)
+    {
+        if (regions.length == 0 || frameMillis <= 0)
+        {
+            throw new IllegalArgumentException("Animatia trebuie sa aiba cel putin un cadru si o durata pozitiva");
+        }
+        this.atlas = atlas;
+        this.regions = regions.clone();
+        this.frameMillis = frameMillis;
+        this.loop = loop;
+    }
+
+    /*! \fn public int GetFrame(long elapsedMillis)
+        \brief Returneaza indicele cadrului afisat dupa elapsedMillis milisecunde de la pornirea animatiei.
+     */
+    public int GetFrame(long elapsedMillis)
+    {
+        long frame = Math.max(0, elapsedMillis) / frameMillis;
+        if (loop)
+        {
+            return (int)(frame % regions.length);
+        }
+        return (int)Math.min(frame, regions.length - 1);
+    }
+
+    /*! \fn public int GetRegion(long startMillis)
+        \brief Returneaza regiunea din atlas a cadrului curent pentru o animatie pornita la momentul startMillis
+        (timp GameClock).
+     */
+    public int GetRegion(long startMillis)
+    {
+        return regions[GetFrame(GameClock.GetTimeMillis() - startMillis)];
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer, int centerX, int bottomY, long startMillis)
+        \brief Deseneaza cadrul curent, centrat pe orizontala in centerX si cu baza (picioarele) in bottomY.
+
+        Cadrele pot avea dimensiuni diferite; ancorarea la mijlocul bazei le pastreaza aliniate pe sol.
+
+        \param buffer Lista de comenzi de desenare a frame-ului.
+        \param centerX Coordonata x a mijlocului cadrului, pe ecran.
+        \param bottomY Coordonata y a bazei cadrului, pe ecran.
+        \param startMillis Momentul (timp GameClock) la care entitatea a pornit animatia.
+     */
+    public void Draw(DrawCommandBuffer buffer, int centerX, int bottomY, long startMillis)
+    {
+        Draw(buffer, centerX, bottomY, startMillis, GameClock.GetTimeMillis());
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer, int centerX, int bottomY, long startMillis, long timeMillis)
+        \brief Ca Draw(buffer, centerX, bottomY, startMillis), dar cadrul este ales pentru momentul timeMillis (timp
+        GameClock) in loc de timpul curent; folosita la desenarea unui instantaneu interpolat.
+     */
+    public void Draw(DrawCommandBuffer buffer, int centerX, int bottomY, long startMillis, long timeMillis)
+    {
+        int region = regions[GetFrame(timeMillis - startMillis)];
+        atlas.Draw(buffer, region, centerX - atlas.GetRegionWidth(region) / 2, bottomY - atlas.GetRegionHeight(region));
+    }
+
+    /*! \fn public boolean IsFinished(long startMillis)
+        \brief Returneaza true daca o animatie fara repetare, pornita la startMillis, a ajuns la ultimul cadru.
+     */
+    public boolean IsFinished(long startMillis)
+    {
+        return !loop && GameClock.GetTimeMillis() - startMillis >= GetDurationMillis();
+    }
+
+    /*! \fn public long GetDurationMillis()
+        \brief Returneaza durata unei treceri complete prin animatie, in milisecunde.
+     */
+    public long GetDurationMillis()
+    {
+        return frameMillis * regions.length;
+    }
+
+    /*! \fn public int GetFrameCount()
+        \brief Returneaza numarul de cadre.
+     */
+    public int GetFrameCount()
+    {
+        return regions.length;
+    }
+}
@@ -1,9 +1,14 @@
 package PaooGame.Graphics;
 
+import PaooGame.Maps.Map;
+
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /*! \class public class Assets
     \brief Clasa incarca fiecare element grafic necesar jocului.
@@ -12,59 +17,82 @@ import java.awt.image.BufferedImage;
  */
 public class Assets
 {
-    /// Referinte catre elementele grafice (dale) utilizate in joc.
-    public static BufferedImage grass;
-    public static BufferedImage grass2;
-    public static BufferedImage water;
-    public static BufferedImage deepWater;
-    public static BufferedImage soil;
-    public static BufferedImage rigthMarginSoil;
-    public static BufferedImage rigthMarginSoil2;
-    public static BufferedImage leftTopCornerSoil;
-    public static BufferedImage heroLeft;
-    public static BufferedImage heroRight;
-    public static BufferedImage heroFront;  /*!< Sprite pentru fata eroului (S) */
-    public static BufferedImage heroBack;   /*!< Sprite pentru spatele eroului (W) */
-    public static BufferedImage backgroundMenu; /*!< Imaginea de fundal pentru meniu*/
-
-    /*! \fn public static void Init()
-        \brief Functia initializeza referintele catre elementele grafice utilizate.
+    /// Referinte catre elementele grafice utilizate in joc.
+    /// Dalele hartii sunt incarcate din tileset-urile .tsx (vezi Tiles.TilesetRegistry).
+    /// Referintele sunt volatile deoarece sunt setate de thread-urile de incarcare.
+    public static volatile BufferedImage heroLeft;
+    public static volatile BufferedImage heroRight;
+    public static volatile BufferedImage heroFront;  /*!< Sprite pentru fata eroului (S) */
+    public static volatile BufferedImage heroBack;   /*!< Sprite pentru spatele eroului (W) */
+    public static volatile BufferedImage backgroundMenu; /*!< Imaginea de fundal pentru meniu*/
+
+    /// Animatiile eroului, cu toate cadrele (si copiile lor oglindite) impachetate intr-un singur atlas.
+    public static volatile TextureAtlas heroAtlas;
+    public static volatile Animation heroWalkRight;
+    public static volatile Animation heroWalkLeft;
+    public static volatile Animation heroJumpRight;
+    public static volatile Animation heroJumpLeft;
+
+    private static final String WALK_FRAMES = "res/Mapa/Walking/%d.png";     /*!< Cadrele de mers (privesc spre dreapta).*/
+    private static final int WALK_FIRST = 4;                                /*!< Cadrele 1-3 sunt pozitii statice, ciclul de mers este 4-15.*/
+    private static final int WALK_LAST = 15;
+    private static final String JUMP_FRAMES = "res/Mapa/Jumping/jump (%d).png";
+    private static final int JUMP_FIRST = 1;
+    private static final int JUMP_LAST = 11;
+    private static final long WALK_FRAME_MILLIS = 70;
+    private static final long JUMP_FRAME_MILLIS = 60;
+    private static final int ATLAS_MAX_WIDTH = 512;
+
+    private static volatile CompletableFuture<Void> loaded = CompletableFuture.completedFuture(null); /*!< Se completeaza cand toate elementele sunt incarcate.*/
+
+    /*! \fn public static CompletableFuture<Void> Init()
+        \brief Porneste incarcarea elementelor grafice utilizate, in paralel, si revine imediat.
+
+        Fundalul meniului, sprite sheet-ul personajelor si imaginile tileset-urilor hartii implicite sunt
+        decodificate pe pool-ul ImageLoader. Meniul poate fi afisat inainte ca dalele hartii sa fie gata;
+        starile care au nevoie de toate elementele asteapta rezultatul intors (sau Loaded()).
 
         Aceasta functie poate fi rescrisa astfel incat elementele grafice incarcate/utilizate
         sa fie parametrizate. Din acest motiv referintele nu sunt finale.
      */
-    public static void Init()
+    public static CompletableFuture<Void> Init()
     {
         System.out.println("Initializare Assets...");
+        long start = System.nanoTime();
 
         // Incarca fundalul pentru meniu
-        System.out.println("Incarcarea fundalului pentru meniu...");
-        backgroundMenu = ImageLoader.LoadImage("res/textures/FUNDAL.jpg");
-        if (backgroundMenu != null) {
-            System.out.println("✓ Fundal incarcat cu succes: " + backgroundMenu.getWidth() + "x" + backgroundMenu.getHeight());
-        } else {
-            System.err.println("✗ EROARE: Nu s-a putut incarca fundalul din res/textures/FUNDAL.jpg");
-        }
+        CompletableFuture<Void> background = ImageLoader.LoadImageAsync("res/textures/FUNDAL.jpg").thenAccept(image -> {
+            backgroundMenu = CompatibleImages.Copy(image);
+            System.out.println("✓ Fundal incarcat cu succes: " + image.getWidth() + "x" + image.getHeight());
+        });
 
         // Incarca sprite sheet-ul pentru personaje
-        loadCharacterSprites();
+        CompletableFuture<Void> characters = ImageLoader.LoadImageAsync("res/textures/characters.png").thenAccept(Assets::loadCharacterSprites);
 
-        // Incarca dalele pentru harta
-        loadMapTiles();
+        // Cadrele animatiilor eroului, impachetate intr-un atlas dupa ce sunt toate decodificate
+        CompletableFuture<Void> animations = loadHeroAnimations();
 
-        System.out.println("✓ Assets initializate complet");
+        // Decodifica dalele hartii implicite (folosite la intrarea in joc)
+        CompletableFuture<Void> mapTiles = Map.PrefetchTilesets(Map.DEFAULT_MAP_PATH);
+
+        loaded = CompletableFuture.allOf(background, characters, animations, mapTiles).thenRun(() ->
+                System.out.printf("✓ Assets initializate complet in %.1f ms%n", (System.nanoTime() - start) / 1e6));
+        return loaded;
     }
 
-    /*! \fn private static void loadCharacterSprites()
-        \brief Incarca sprite-urile pentru personaje din sprite sheet
+    /*! \fn public static CompletableFuture<Void> Loaded()
+        \brief Returneaza rezultatul viitor al ultimei initializari (completat cand toate elementele sunt incarcate).
      */
-    private static void loadCharacterSprites()
+    public static CompletableFuture<Void> Loaded()
     {
-        System.out.println("Incarcarea sprite-urilor pentru personaje...");
-
-        // Incarca sprite sheet-ul cu personaje
-        BufferedImage characterSheet = ImageLoader.LoadImage("res/textures/characters.png");
+        return loaded;
+    }
 
+    /*! \fn private static void loadCharacterSprites(BufferedImage characterSheet)
+        \brief Decupeaza sprite-urile pentru personaje din sprite sheet
+     */
+    private static void loadCharacterSprites(BufferedImage characterSheet)
+    {
         if (characterSheet != null && characterSheet.getWidth() > 32 && characterSheet.getHeight() > 32) {
             System.out.println("✓ Character sprite sheet gasit: " + characterSheet.getWidth() + "x" + characterSheet.getHeight());
 
@@ -76,10 +104,10 @@ public class Assets
 
             try {
                 // Extrage sprite-urile pentru fiecare directie
-                heroBack = characterSheet.getSubimage(0, 0, spriteWidth, spriteHeight);                    // Randul 0 - W (spate)
-                heroLeft = characterSheet.getSubimage(0, spriteHeight * 1, spriteWidth, spriteHeight);     // Randul 1 - A (stanga)
-                heroFront = characterSheet.getSubimage(0, spriteHeight * 2, spriteWidth, spriteHeight);    // Randul 2 - S (fata)
-                heroRight = characterSheet.getSubimage(0, spriteHeight * 3, spriteWidth, spriteHeight);    // Randul 3 - D (dreapta)
+                heroBack = CompatibleImages.Copy(characterSheet.getSubimage(0, 0, spriteWidth, spriteHeight));                    // Randul 0 - W (spate)
+                heroLeft = CompatibleImages.Copy(characterSheet.getSubimage(0, spriteHeight * 1, spriteWidth, spriteHeight));     // Randul 1 - A (stanga)
+                heroFront = CompatibleImages.Copy(characterSheet.getSubimage(0, spriteHeight * 2, spriteWidth, spriteHeight));    // Randul 2 - S (fata)
+                heroRight = CompatibleImages.Copy(characterSheet.getSubimage(0, spriteHeight * 3, spriteWidth, spriteHeight));    // Randul 3 - D (dreapta)
 
                 System.out.println("✓ Sprite-uri pentru personaj incarcate cu succes:");
                 System.out.println("  heroBack (W): " + heroBack.getWidth() + "x" + heroBack.getHeight());
@@ -97,46 +125,65 @@ public class Assets
         }
     }
 
-    /*! \fn private static void loadMapTiles()
-        \brief Incarca dalele pentru harta din sprite sheet
+    /*! \fn private static CompletableFuture<Void> loadHeroAnimations()
+        \brief Decodifica in paralel cadrele de mers si de saritura si le impacheteaza intr-un singur atlas.
+
+        Cadrele spre stanga sunt copii oglindite ale celor spre dreapta, pregatite aici o singura data, astfel
+        incat desenarea sa fie o simpla copiere dintr-o regiune a atlasului.
      */
-    private static void loadMapTiles()
+    private static CompletableFuture<Void> loadHeroAnimations()
     {
-        System.out.println("Incarcarea dalelor pentru harta...");
-
-        // Incarca sprite sheet-ul pentru harta (dale)
-        BufferedImage mapSheetImage = ImageLoader.LoadImage("res/textures/gentle forest v01.png");
-
-        if (mapSheetImage != null && mapSheetImage.getWidth() > 32 && mapSheetImage.getHeight() > 16) {
-            System.out.println("✓ Map sprite sheet gasit: " + mapSheetImage.getWidth() + "x" + mapSheetImage.getHeight());
+        List<CompletableFuture<BufferedImage>> walk = loadFrames(WALK_FRAMES, WALK_FIRST, WALK_LAST);
+        List<CompletableFuture<BufferedImage>> jump = loadFrames(JUMP_FRAMES, JUMP_FIRST, JUMP_LAST);
+
+        List<CompletableFuture<BufferedImage>> all = new ArrayList<>(walk);
+        all.addAll(jump);
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+            // Ordinea regiunilor in atlas: mers dreapta, mers stanga, saritura dreapta, saritura stanga
+            List<BufferedImage> frames = new ArrayList<>();
+            for (CompletableFuture<BufferedImage> frame : walk) frames.add(frame.join());
+            for (CompletableFuture<BufferedImage> frame : walk) frames.add(flipImageHorizontally(frame.join()));
+            for (CompletableFuture<BufferedImage> frame : jump) frames.add(frame.join());
+            for (CompletableFuture<BufferedImage> frame : jump) frames.add(flipImageHorizontally(frame.join()));
+
+            TextureAtlas atlas = TextureAtlas.Pack(frames, ATLAS_MAX_WIDTH);
+            int walkCount = walk.size();
+            int jumpCount = jump.size();
+            heroWalkRight = new Animation(atlas, regionRange(0, walkCount), WALK_FRAME_MILLIS, true);
+            heroWalkLeft = new Animation(atlas, regionRange(walkCount, walkCount), WALK_FRAME_MILLIS, true);
+            heroJumpRight = new Animation(atlas, regionRange(2 * walkCount, jumpCount), JUMP_FRAME_MILLIS, false);
+            heroJumpLeft = new Animation(atlas, regionRange(2 * walkCount + jumpCount, jumpCount), JUMP_FRAME_MILLIS, false);
+            heroAtlas = atlas;
+
+            System.out.println("✓ Atlas animatii erou: " + atlas.GetRegionCount() + " cadre in "
+                    + atlas.GetImage().getWidth() + "x" + atlas.GetImage().getHeight());
+        }, ImageLoader.GetExecutor());
+    }
 
-            SpriteSheet mapSheet = new SpriteSheet(mapSheetImage);
-            try {
-                // Incarca doar dalele pe care le-am definit explicit
-//                public static BufferedImage grass;
-//                public static BufferedImage water;
-//                public static BufferedImage deepWater;
-//                public static BufferedImage soil;
-                grass = mapSheet.crop(1, 5);
-                grass2 = mapSheet.crop(3,7);
-                water = mapSheet.crop(1, 9);
-                deepWater = mapSheet.crop(4, 11);
-                soil = mapSheet.crop(1, 1);
-                rigthMarginSoil = mapSheet.crop(3,6);
-                rigthMarginSoil2 = mapSheet.crop(3,7);
-                leftTopCornerSoil = mapSheet.crop(0,0);
-
-                System.out.println("✓ Dale incarcate cu succes:");
-                System.out.println("  grass: " + grass.getWidth() + "x" + grass.getHeight() + " de la pozitia (0,0)");
+    /*! \fn private static List<CompletableFuture<BufferedImage>> loadFrames(String pattern, int first, int last)
+        \brief Porneste decodificarea cadrelor numerotate first..last (pattern contine %d pentru numar).
+     */
+    private static List<CompletableFuture<BufferedImage>> loadFrames(String pattern, int first, int last)
+    {
+        List<CompletableFuture<BufferedImage>> frames = new ArrayList<>();
+        for (int i = first; i <= last; i++)
+        {
+            frames.add(ImageLoader.LoadImageAsync(String.format(pattern, i)));
+        }
+        return frames;
+    }
 
-            } catch (Exception e) {
-                System.err.println("✗ EROARE la extragerea dalelor din sprite sheet: " + e.getMessage());
-                // Nu cream dale temporare - lasam null pentru a forta debugging
-            }
-        } else {
-            System.err.println("✗ EROARE: Nu s-a putut incarca map sprite sheet din res/textures/gentle forest v01.png");
-            // Nu cream dale temporare - lasam null pentru a forta debugging
+    /*! \fn private static int[] regionRange(int first, int count)
+        \brief Returneaza regiunile consecutive first, first + 1, ..., first + count - 1.
+     */
+    private static int[] regionRange(int first, int count)
+    {
+        int[] regions = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            regions[i] = first + i;
         }
+        return regions;
     }
 
     /*! \fn private static BufferedImage flipImageHorizontally(BufferedImage image)
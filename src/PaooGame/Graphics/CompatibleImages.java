@@ -0,0 +1,111 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/*! \class public class CompatibleImages
+    \brief Creeaza imagini in formatul ecranului (compatibile), care pot fi retinute de Java2D in memoria video.
+
+    O subimagine obtinuta cu getSubimage() imparte raster-ul cu intreaga imagine sursa, iar Java2D nu o poate
+    accelera; in plus, modelul de culoare al fisierului (de exemplu PNG indexat) poate diferi de cel al ecranului,
+    ceea ce forteaza o conversie la fiecare desenare. Copy() copiaza pixelii intr-o imagine proprie, creata cu
+    GraphicsConfiguration.createCompatibleImage si cu transparenta minima necesara (opaca, masca sau translucida).
+    Fara ecran (headless) se folosesc imagini INT_RGB / INT_ARGB obisnuite.
+ */
+public class CompatibleImages
+{
+    private CompatibleImages()
+    {
+    }
+
+    /*! \fn public static GraphicsConfiguration GetConfiguration()
+        \brief Returneaza configuratia grafica a ecranului implicit sau null daca nu exista ecran.
+     */
+    public static GraphicsConfiguration GetConfiguration()
+    {
+        if (GraphicsEnvironment.isHeadless())
+        {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /*! \fn public static BufferedImage Create(int width, int height, int transparency)
+        \brief Creeaza o imagine goala compatibila cu ecranul.
+
+        \param transparency Transparency.OPAQUE, BITMASK sau TRANSLUCENT.
+     */
+    public static BufferedImage Create(int width, int height, int transparency)
+    {
+        GraphicsConfiguration gc = GetConfiguration();
+        if (gc == null)
+        {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+
+    /*! \fn public static BufferedImage Copy(BufferedImage source)
+        \brief Returneaza o copie compatibila si neimpartita a imaginii (sau a subimaginii) date.
+     */
+    public static BufferedImage Copy(BufferedImage source)
+    {
+        BufferedImage copy = Create(source.getWidth(), source.getHeight(), DetectTransparency(source));
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    /*! \fn public static int DetectTransparency(BufferedImage image)
+        \brief Determina transparenta reala a pixelilor: OPAQUE daca toti sunt opaci, BITMASK daca sunt doar
+        opaci sau complet transparenti, altfel TRANSLUCENT.
+     */
+    public static int DetectTransparency(BufferedImage image)
+    {
+        if (image.getColorModel().getTransparency() == Transparency.OPAQUE)
+        {
+            return Transparency.OPAQUE;
+        }
+
+        int width = image.getWidth();
+        int[] row = new int[width];
+        boolean transparentPixels = false;
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int argb : row)
+            {
+                int alpha = argb >>> 24;
+                if (alpha == 0)
+                {
+                    transparentPixels = true;
+                }
+                else if (alpha != 255)
+                {
+                    return Transparency.TRANSLUCENT;
+                }
+            }
+        }
+        return transparentPixels ? Transparency.BITMASK : Transparency.OPAQUE;
+    }
+
+    /*! \fn public static boolean IsAccelerated(Image image)
+        \brief Returneaza true daca Java2D pastreaza imaginea in memoria video pentru ecranul implicit.
+
+        Java2D copiaza o imagine in memoria video abia dupa ce a fost desenata de cateva ori, deci verificarea
+        este relevanta in timpul jocului, nu imediat dupa incarcare.
+     */
+    public static boolean IsAccelerated(Image image)
+    {
+        GraphicsConfiguration gc = GetConfiguration();
+        if (gc == null || image == null)
+        {
+            return false;
+        }
+        ImageCapabilities capabilities = image.getCapabilities(gc);
+        return capabilities != null && capabilities.isAccelerated();
+    }
+}
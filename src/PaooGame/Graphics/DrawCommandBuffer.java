@@ -0,0 +1,410 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/*! \class public class DrawCommandBuffer
+    \brief Inregistreaza comenzile de desenare ale unui frame si le reda, sortate, intr-un singur pas.
+
+    Starile, harta si entitatile nu mai deseneaza direct in Graphics: apeleaza metodele acestei clase (aceleasi
+    ca ale lui Graphics: SetColor, SetFont, DrawImage, FillRect, DrawString ...), care doar adauga comanda in
+    tablouri de primitive. Replay() sorteaza comenzile dupa strat (layer), apoi dupa imaginea sursa, font si
+    culoare, si le executa, apeland setColor/setFont doar cand valoarea chiar se schimba.
+
+    Ordinea de desenare este garantata doar intre straturi: in interiorul aceluiasi strat comenzile pot fi
+    reordonate (dupa imagine si stare), deci cele care se suprapun trebuie puse in straturi diferite. Comenzile
+    identice ca strat, imagine si stare pastreaza ordinea in care au fost inregistrate.
+
+    Lista inregistrata ramane valabila pana la Clear(), deci poate fi redata de mai multe ori (in fereastra, intr-o
+    imagine din memorie, sub profiler). O instanta este folosita de un singur thread.
+ */
+public class DrawCommandBuffer
+{
+    public static final int LAYER_BACKGROUND    = 0;    /*!< Fundaluri (imaginea meniului, culoarea de umplere).*/
+    public static final int LAYER_MAP           = 16;   /*!< Dalele hartii.*/
+    public static final int LAYER_ITEMS         = 32;   /*!< Entitatile (eroul etc.).*/
+    public static final int LAYER_UI            = 64;   /*!< Butoane si texte.*/
+    public static final int MAX_LAYER           = 127;
+
+    private static final byte IMAGE         = 0;    /*!< drawImage(img, x, y, null).*/
+    private static final byte IMAGE_REGION  = 1;    /*!< drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null).*/
+    private static final byte FILL_RECT     = 2;
+    private static final byte DRAW_RECT     = 3;
+    private static final byte FILL_OVAL     = 4;
+    private static final byte FILL_POLYGON  = 5;    /*!< Punctele sunt in points, de la data[0], data[1] perechi.*/
+    private static final byte TEXT          = 6;
+
+    private static final int STRIDE         = 8;    /*!< Numarul de int-uri din data rezervate unei comenzi.*/
+    private static final int MAX_IDS        = 255;  /*!< Numarul maxim de fonturi / culori distincte intr-un frame.*/
+    private static final int MAX_IMAGES     = 65535;
+    private static final int MAX_COMMANDS   = 1 << 24;
+
+    private byte[] kinds = new byte[256];           /*!< Tipul fiecarei comenzi.*/
+    private int[] data = new int[256 * STRIDE];     /*!< Coordonatele fiecarei comenzi (STRIDE int-uri).*/
+    private long[] keys = new long[256];            /*!< Cheia de sortare: strat | imagine | font | culoare | indice.*/
+    private String[] texts = new String[256];       /*!< Textul comenzilor TEXT (null pentru celelalte).*/
+    private int[] points = new int[64];             /*!< Coordonatele poligoanelor (x0, y0, x1, y1 ...).*/
+    private int count;
+    private int pointCount;
+    private boolean sorted;
+
+    ///Tabelele de identificatori ale frame-ului curent (id 0 = fara imagine / font / culoare).
+    private final IdentityHashMap<Image, Integer> imageIds = new IdentityHashMap<>();
+    private final ArrayList<Image> images = new ArrayList<>();
+    private final HashMap<Font, Integer> fontIds = new HashMap<>();
+    private final ArrayList<Font> fonts = new ArrayList<>();
+    private final HashMap<Color, Integer> colorIds = new HashMap<>();
+    private final ArrayList<Color> colors = new ArrayList<>();
+
+    private int layer;      /*!< Stratul comenzilor urmatoare.*/
+    private int fontId;     /*!< Fontul comenzilor de text urmatoare.*/
+    private int colorId;    /*!< Culoarea comenzilor urmatoare (forme si text).*/
+
+    private Graphics2D metricsGraphics;     /*!< Context din memorie folosit doar pentru FontMetrics.*/
+    private int[] polygonX = new int[8];    /*!< Tablouri refolosite la redarea poligoanelor.*/
+    private int[] polygonY = new int[8];
+
+    private int lastStateChanges;           /*!< Apelurile setColor/setFont la ultima redare.*/
+    private int lastImageSwitches;          /*!< Schimbarile de imagine sursa la ultima redare.*/
+
+    /*! \fn public DrawCommandBuffer()
+        \brief Constructorul clasei.
+     */
+    public DrawCommandBuffer()
+    {
+        Clear();
+    }
+
+    /*! \fn public void Clear()
+        \brief Sterge comenzile inregistrate si readuce stratul, fontul si culoarea la valorile implicite.
+     */
+    public void Clear()
+    {
+        Arrays.fill(texts, 0, count, null);
+        count = 0;
+        pointCount = 0;
+        sorted = true;
+        imageIds.clear();
+        images.clear();
+        images.add(null);
+        fontIds.clear();
+        fonts.clear();
+        fonts.add(null);
+        colorIds.clear();
+        colors.clear();
+        colors.add(null);
+        layer = 0;
+        fontId = 0;
+        colorId = 0;
+    }
+
+    /*! \fn public void SetLayer(int layer)
+        \brief Seteaza stratul comenzilor urmatoare; straturile mai mari se deseneaza peste cele mai mici.
+     */
+    public void SetLayer(int layer)
+    {
+        if (layer < 0 || layer > MAX_LAYER)
+        {
+            throw new IllegalArgumentException("Strat invalid: " + layer);
+        }
+        this.layer = layer;
+    }
+
+    /*! \fn public void SetColor(Color color)
+        \brief Seteaza culoarea formelor si textelor urmatoare.
+     */
+    public void SetColor(Color color)
+    {
+        colorId = Intern(colorIds, colors, color, MAX_IDS);
+    }
+
+    /*! \fn public void SetFont(Font font)
+        \brief Seteaza fontul textelor urmatoare.
+     */
+    public void SetFont(Font font)
+    {
+        fontId = Intern(fontIds, fonts, font, MAX_IDS);
+    }
+
+    /*! \fn public FontMetrics GetFontMetrics()
+        \brief Returneaza dimensiunile fontului curent (pentru centrarea textelor inainte de desenare).
+     */
+    public FontMetrics GetFontMetrics()
+    {
+        if (metricsGraphics == null)
+        {
+            metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        }
+        return metricsGraphics.getFontMetrics(fonts.get(fontId));
+    }
+
+    /*! \fn public void DrawImage(Image image, int x, int y)
+        \brief Inregistreaza desenarea 1:1 a imaginii cu coltul stanga-sus in (x, y).
+     */
+    public void DrawImage(Image image, int x, int y)
+    {
+        int c = Add(IMAGE, ImageId(image), 0, 0);
+        data[c] = x;
+        data[c + 1] = y;
+    }
+
+    /*! \fn public void DrawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2)
+        \brief Inregistreaza desenarea regiunii [sx1, sx2) x [sy1, sy2) a imaginii in [dx1, dx2) x [dy1, dy2).
+     */
+    public void DrawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2)
+    {
+        int c = Add(IMAGE_REGION, ImageId(image), 0, 0);
+        data[c] = dx1;
+        data[c + 1] = dy1;
+        data[c + 2] = dx2;
+        data[c + 3] = dy2;
+        data[c + 4] = sx1;
+        data[c + 5] = sy1;
+        data[c + 6] = sx2;
+        data[c + 7] = sy2;
+    }
+
+    /*! \fn public void FillRect(int x, int y, int width, int height)
+        \brief Inregistreaza un dreptunghi plin in culoarea curenta.
+     */
+    public void FillRect(int x, int y, int width, int height)
+    {
+        AddShape(FILL_RECT, x, y, width, height);
+    }
+
+    /*! \fn public void DrawRect(int x, int y, int width, int height)
+        \brief Inregistreaza conturul unui dreptunghi in culoarea curenta.
+     */
+    public void DrawRect(int x, int y, int width, int height)
+    {
+        AddShape(DRAW_RECT, x, y, width, height);
+    }
+
+    /*! \fn public void FillOval(int x, int y, int width, int height)
+        \brief Inregistreaza o elipsa plina in culoarea curenta.
+     */
+    public void FillOval(int x, int y, int width, int height)
+    {
+        AddShape(FILL_OVAL, x, y, width, height);
+    }
+
+    /*! \fn public void FillPolygon(int[] xPoints, int[] yPoints, int nPoints)
+        \brief Inregistreaza un poligon plin in culoarea curenta (punctele sunt copiate).
+     */
+    public void FillPolygon(int[] xPoints, int[] yPoints, int nPoints)
+    {
+        if (pointCount + nPoints * 2 > points.length)
+        {
+            points = Arrays.copyOf(points, Math.max(points.length * 2, pointCount + nPoints * 2));
+        }
+        int c = Add(FILL_POLYGON, 0, 0, colorId);
+        data[c] = pointCount;
+        data[c + 1] = nPoints;
+        for (int i = 0; i < nPoints; i++)
+        {
+            points[pointCount++] = xPoints[i];
+            points[pointCount++] = yPoints[i];
+        }
+    }
+
+    /*! \fn public void DrawString(String text, int x, int y)
+        \brief Inregistreaza un text cu fontul si culoarea curente; (x, y) este originea liniei de baza.
+     */
+    public void DrawString(String text, int x, int y)
+    {
+        int c = Add(TEXT, 0, fontId, colorId);
+        data[c] = x;
+        data[c + 1] = y;
+        texts[c / STRIDE] = text;
+    }
+
+    /*! \fn public void Replay(Graphics g)
+        \brief Deseneaza in g toate comenzile inregistrate, in ordinea stratului, imaginii si starii.
+
+        Lista nu este golita; poate fi redata din nou, de exemplu intr-o imagine din memorie.
+     */
+    public void Replay(Graphics g)
+    {
+        if (!sorted)
+        {
+            Arrays.sort(keys, 0, count);
+            sorted = true;
+        }
+
+        int currentColor = -1;
+        int currentFont = -1;
+        int currentImage = -1;
+        int stateChanges = 0;
+        int imageSwitches = 0;
+        for (int i = 0; i < count; i++)
+        {
+            long key = keys[i];
+            int index = (int)(key & (MAX_COMMANDS - 1));
+            int image = (int)(key >>> 40) & 0xFFFF;
+            int font = (int)(key >>> 32) & 0xFF;
+            int color = (int)(key >>> 24) & 0xFF;
+            int c = index * STRIDE;
+
+            if (image != 0 && image != currentImage)
+            {
+                currentImage = image;
+                ++imageSwitches;
+            }
+            if (color != 0 && color != currentColor)
+            {
+                g.setColor(colors.get(color));
+                currentColor = color;
+                ++stateChanges;
+            }
+            if (font != 0 && font != currentFont)
+            {
+                g.setFont(fonts.get(font));
+                currentFont = font;
+                ++stateChanges;
+            }
+
+            switch (kinds[index])
+            {
+                case IMAGE:
+                    g.drawImage(images.get(image), data[c], data[c + 1], null);
+                    break;
+                case IMAGE_REGION:
+                    g.drawImage(images.get(image), data[c], data[c + 1], data[c + 2], data[c + 3],
+                            data[c + 4], data[c + 5], data[c + 6], data[c + 7], null);
+                    break;
+                case FILL_RECT:
+                    g.fillRect(data[c], data[c + 1], data[c + 2], data[c + 3]);
+                    break;
+                case DRAW_RECT:
+                    g.drawRect(data[c], data[c + 1], data[c + 2], data[c + 3]);
+                    break;
+                case FILL_OVAL:
+                    g.fillOval(data[c], data[c + 1], data[c + 2], data[c + 3]);
+                    break;
+                case FILL_POLYGON:
+                    FillPolygon(g, data[c], data[c + 1]);
+                    break;
+                case TEXT:
+                    g.drawString(texts[index], data[c], data[c + 1]);
+                    break;
+            }
+        }
+        lastStateChanges = stateChanges;
+        lastImageSwitches = imageSwitches;
+    }
+
+    /*! \fn public int GetCommandCount()
+        \brief Returneaza numarul de comenzi inregistrate.
+     */
+    public int GetCommandCount()
+    {
+        return count;
+    }
+
+    /*! \fn public int GetLastStateChanges()
+        \brief Returneaza numarul de apeluri setColor/setFont facute la ultima redare.
+     */
+    public int GetLastStateChanges()
+    {
+        return lastStateChanges;
+    }
+
+    /*! \fn public int GetLastImageSwitches()
+        \brief Returneaza de cate ori s-a schimbat imaginea sursa la ultima redare.
+     */
+    public int GetLastImageSwitches()
+    {
+        return lastImageSwitches;
+    }
+
+    private void AddShape(byte kind, int x, int y, int width, int height)
+    {
+        int c = Add(kind, 0, 0, colorId);
+        data[c] = x;
+        data[c + 1] = y;
+        data[c + 2] = width;
+        data[c + 3] = height;
+    }
+
+    /*! \fn private int Add(byte kind, int image, int font, int color)
+        \brief Rezerva o comanda noua si ii calculeaza cheia de sortare; intoarce pozitia ei in data.
+
+        Cheia (64 de biti): strat (8) | imagine (16) | font (8) | culoare (8) | indicele comenzii (24). Indicele
+        pastreaza ordinea de inregistrare intre comenzile cu aceeasi stare si permite gasirea datelor dupa sortare.
+     */
+    private int Add(byte kind, int image, int font, int color)
+    {
+        if (count == MAX_COMMANDS)
+        {
+            throw new IllegalStateException("Prea multe comenzi de desenare intr-un frame: " + count);
+        }
+        if (count == kinds.length)
+        {
+            int capacity = count * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            data = Arrays.copyOf(data, capacity * STRIDE);
+            keys = Arrays.copyOf(keys, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        int index = count++;
+        kinds[index] = kind;
+        keys[index] = (long)layer << 56 | (long)image << 40 | (long)font << 32 | (long)color << 24 | index;
+        sorted = false;
+        return index * STRIDE;
+    }
+
+    private int ImageId(Image image)
+    {
+        Integer id = imageIds.get(image);
+        if (id == null)
+        {
+            if (images.size() > MAX_IMAGES)
+            {
+                throw new IllegalStateException("Prea multe imagini distincte intr-un frame");
+            }
+            id = images.size();
+            images.add(image);
+            imageIds.put(image, id);
+        }
+        return id;
+    }
+
+    private static <T> int Intern(HashMap<T, Integer> ids, ArrayList<T> values, T value, int max)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+        Integer id = ids.get(value);
+        if (id == null)
+        {
+            if (values.size() > max)
+            {
+                throw new IllegalStateException("Prea multe valori distincte intr-un frame: " + value);
+            }
+            id = values.size();
+            values.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private void FillPolygon(Graphics g, int offset, int nPoints)
+    {
+        if (nPoints > polygonX.length)
+        {
+            polygonX = new int[nPoints];
+            polygonY = new int[nPoints];
+        }
+        for (int i = 0; i < nPoints; i++)
+        {
+            polygonX[i] = points[offset + 2 * i];
+            polygonY[i] = points[offset + 2 * i + 1];
+        }
+        g.fillPolygon(polygonX, polygonY, nPoints);
+    }
+}
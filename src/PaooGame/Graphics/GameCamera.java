@@ -0,0 +1,107 @@
+package PaooGame.Graphics;
+
+import PaooGame.Items.Item;
+import PaooGame.Maps.Map;
+import PaooGame.RefLinks;
+import PaooGame.Tiles.Tile;
+
+/*! \class public class GameCamera
+    \brief Implementeaza notiunea de camera a jocului (fereastra de vizualizare peste harta).
+
+    Camera retine deplasamentul (offset-ul) in pixeli al colturilor stanga-sus ale ferestrei fata de harta.
+    Toate elementele care apartin lumii jocului (dale, entitati) se deseneaza la pozitia lor minus acest offset.
+ */
+public class GameCamera
+{
+    private RefLinks refLink;   /*!< Referinta catre obiectul shortcut.*/
+    private float xOffset;      /*!< Deplasamentul pe axa X al camerei, in pixeli.*/
+    private float yOffset;      /*!< Deplasamentul pe axa Y al camerei, in pixeli.*/
+
+    /*! \fn public GameCamera(RefLinks refLink, float xOffset, float yOffset)
+        \brief Constructorul de initializare al clasei.
+
+        \param refLink Referinta catre obiectul shortcut.
+        \param xOffset Deplasamentul initial pe axa X.
+        \param yOffset Deplasamentul initial pe axa Y.
+     */
+    public GameCamera(RefLinks refLink, float xOffset, float yOffset)
+    {
+        this.refLink = refLink;
+        this.xOffset = xOffset;
+        this.yOffset = yOffset;
+    }
+
+    /*! \fn public void CenterOnItem(Item item)
+        \brief Centreaza camera pe o entitate (de exemplu pe erou).
+
+        \param item Entitatea urmarita de camera.
+     */
+    public void CenterOnItem(Item item)
+    {
+        xOffset = item.GetX() - refLink.GetWidth() / 2f + item.GetWidth() / 2f;
+        yOffset = item.GetY() - refLink.GetHeight() / 2f + item.GetHeight() / 2f;
+        CheckBlankSpace();
+    }
+
+    /*! \fn public void Move(float xAmt, float yAmt)
+        \brief Deplaseaza camera cu un numar de pixeli pe fiecare axa.
+     */
+    public void Move(float xAmt, float yAmt)
+    {
+        xOffset += xAmt;
+        yOffset += yAmt;
+        CheckBlankSpace();
+    }
+
+    /*! \fn private void CheckBlankSpace()
+        \brief Limiteaza camera la marginile hartii, astfel incat sa nu se vada spatiu gol in afara ei.
+
+        Daca harta este mai mica decat fereastra pe o axa, camera ramane la 0 pe axa respectiva.
+     */
+    private void CheckBlankSpace()
+    {
+        Map map = refLink.GetMap();
+        if (map == null)
+        {
+            return;
+        }
+
+        float maxX = map.GetWidth() * Tile.TILE_WIDTH - refLink.GetWidth();
+        float maxY = map.GetHeight() * Tile.TILE_HEIGHT - refLink.GetHeight();
+
+        xOffset = Math.max(0, Math.min(xOffset, maxX));
+        yOffset = Math.max(0, Math.min(yOffset, maxY));
+    }
+
+    /*! \fn public float GetXOffset()
+        \brief Returneaza deplasamentul camerei pe axa X.
+     */
+    public float GetXOffset()
+    {
+        return xOffset;
+    }
+
+    /*! \fn public float GetYOffset()
+        \brief Returneaza deplasamentul camerei pe axa Y.
+     */
+    public float GetYOffset()
+    {
+        return yOffset;
+    }
+
+    /*! \fn public void SetXOffset(float xOffset)
+        \brief Seteaza deplasamentul camerei pe axa X.
+     */
+    public void SetXOffset(float xOffset)
+    {
+        this.xOffset = xOffset;
+    }
+
+    /*! \fn public void SetYOffset(float yOffset)
+        \brief Seteaza deplasamentul camerei pe axa Y.
+     */
+    public void SetYOffset(float yOffset)
+    {
+        this.yOffset = yOffset;
+    }
+}
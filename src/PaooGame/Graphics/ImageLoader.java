@@ -2,86 +2,191 @@ package PaooGame.Graphics;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.io.File;
-import java.io.InputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*! \class public class ImageLoader
-    \brief Clasa ce contine o metoda statica pentru incarcarea unei imagini in memorie.
+    \brief Clasa ce contine metode statice pentru incarcarea imaginilor in memorie.
+
+    Fiecare cale este rezolvata (classpath cu "/", fisier, classpath fara "/") si decodificata o singura data;
+    rezultatul este retinut ca CompletableFuture, astfel incat cererile ulterioare pentru aceeasi cale primesc
+    aceeasi imagine. Decodificarea poate rula in paralel pe un pool mic de thread-uri (LoadImageAsync).
  */
 public class ImageLoader
 {
-    /*! \fn  public static BufferedImage loadImage(String path)
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /// Imaginile cerute, dupa cale (decodificate sau in curs de decodificare).
+    private static final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+
+    /// Pool-ul de decodificare; thread-urile sunt daemon pentru a nu impiedica inchiderea programului.
+    private static final ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE, new ThreadFactory()
+    {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task)
+        {
+            Thread thread = new Thread(task, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static
+    {
+        /// Imaginile sunt citite din memorie, fara fisierele temporare pe care ImageIO le foloseste implicit pentru fluxuri.
+        ImageIO.setUseCache(false);
+    }
+
+    /*! \fn  public static BufferedImage LoadImage(String path)
         \brief Incarca o imagine intr-un obiect BufferedImage si returneaza o referinta catre acesta.
 
+        Daca imaginea este deja incarcata (sau in curs de incarcare) se asteapta rezultatul existent;
+        altfel este decodificata pe thread-ul apelant.
+
         \param path Calea relativa pentru localizarea fisierul imagine.
      */
     public static BufferedImage LoadImage(String path)
     {
-        System.out.println("incercare incarcare: " + path);
+        CompletableFuture<BufferedImage> created = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = images.putIfAbsent(path, created);
+        if (existing != null)
+        {
+            return existing.join();
+        }
+        Complete(created, path);
+        return created.join();
+    }
 
-        try
+    /*! \fn  public static CompletableFuture<BufferedImage> LoadImageAsync(String path)
+        \brief Porneste (o singura data) decodificarea imaginii pe pool-ul de incarcare si returneaza rezultatul viitor.
+
+        \param path Calea relativa pentru localizarea fisierul imagine.
+     */
+    public static CompletableFuture<BufferedImage> LoadImageAsync(String path)
+    {
+        CompletableFuture<BufferedImage> created = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = images.putIfAbsent(path, created);
+        if (existing != null)
         {
-            // incearca mai intai sa incarce resursa din classpath
-            InputStream inputStream = ImageLoader.class.getResourceAsStream("/" + path);
-
-            if (inputStream != null) {
-                BufferedImage img = ImageIO.read(inputStream);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata din classpath: " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                }
-            }
+            return existing;
+        }
+        executor.execute(() -> Complete(created, path));
+        return created;
+    }
 
-            // Daca resursa nu exista in classpath, incarca ca fisier
-            File file = new File(path);
-            System.out.println("Verificare fisier: " + file.getAbsolutePath());
-            System.out.println("Fisierul exista: " + file.exists());
-
-            if (file.exists()) {
-                BufferedImage img = ImageIO.read(file);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata ca fisier: " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                } else {
-                    System.out.println("Fisierul exista dar nu se poate citi ca imagine: " + path);
-                }
-            } else {
-                System.out.println("Fisierul nu exista: " + file.getAbsolutePath());
-            }
+    /*! \fn  private static void Complete(CompletableFuture<BufferedImage> target, String path)
+        \brief Decodifica imaginea si completeaza rezultatul viitor; orice eroare neprevazuta il completeaza exceptional.
 
-            // incearca si fara slash-ul de la inceput pentru classpath
-            inputStream = ImageLoader.class.getResourceAsStream(path);
-            if (inputStream != null) {
-                BufferedImage img = ImageIO.read(inputStream);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata din classpath (fara /): " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                }
-            }
+        Rezultatul ramane in cache, deci nu trebuie sa ramana niciodata necompletat: toate cererile ulterioare
+        pentru aceeasi cale (si toate join()-urile) l-ar astepta la nesfarsit.
+     */
+    private static void Complete(CompletableFuture<BufferedImage> target, String path)
+    {
+        try
+        {
+            target.complete(Decode(path));
+        }
+        catch (Throwable t)
+        {
+            System.err.println("✗ Eroare fatala la decodificarea imaginii: " + path + " (" + t + ")");
+            target.completeExceptionally(t);
+        }
+    }
+
+    /*! \fn  public static ExecutorService GetExecutor()
+        \brief Returneaza pool-ul de thread-uri folosit pentru incarcarea resurselor.
+     */
+    public static ExecutorService GetExecutor()
+    {
+        return executor;
+    }
 
+    /*! \fn  private static BufferedImage Decode(String path)
+        \brief Rezolva calea si decodifica imaginea; intoarce o imagine de rezerva daca nu reuseste.
+     */
+    private static BufferedImage Decode(String path)
+    {
+        long start = System.nanoTime();
+        URL source = Resolve(path);
+        if (source == null)
+        {
             System.out.println("⚠ Imagine lipsa, se creeaza temporara: " + path);
+            /// Culoare vizibila pentru debugging
+            return Placeholder(java.awt.Color.MAGENTA);
+        }
 
-            // Returneaza o imagine temporara pentru a evita crash-ul
-            BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
-            java.awt.Graphics2D g2d = tempImage.createGraphics();
-            g2d.setColor(java.awt.Color.MAGENTA); // Culoare vizibila pentru debugging
-            g2d.fillRect(0, 0, 16, 16);
-            g2d.dispose();
-            return tempImage;
+        try
+        {
+            BufferedImage img = ImageIO.read(source);
+            if (img == null)
+            {
+                System.out.println("Fisierul exista dar nu se poate citi ca imagine: " + path);
+                return Placeholder(java.awt.Color.MAGENTA);
+            }
+            System.out.printf("✓ Imagine incarcata: %s (%dx%d) in %.1f ms [%s]%n", path, img.getWidth(), img.getHeight(),
+                    (System.nanoTime() - start) / 1e6, Thread.currentThread().getName());
+            return img;
         }
-        catch(IOException e)
+        catch (IOException | RuntimeException e)
         {
+            /// Fisierele corupte pot produce si exceptii neverificate in decodorul ImageIO.
             System.err.println("✗ Eroare la incarcarea imaginii: " + path);
             e.printStackTrace();
+            /// Culoare diferita pentru erori
+            return Placeholder(java.awt.Color.RED);
+        }
+    }
 
-            // Returneaza o imagine temporara si in caz de eroare
-            BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
-            java.awt.Graphics2D g2d = tempImage.createGraphics();
-            g2d.setColor(java.awt.Color.RED); // Culoare diferita pentru erori
-            g2d.fillRect(0, 0, 16, 16);
-            g2d.dispose();
-            return tempImage;
+    /*! \fn  private static URL Resolve(String path)
+        \brief Cauta imaginea in classpath (cu si fara "/" la inceput) si ca fisier; null daca nu exista.
+     */
+    private static URL Resolve(String path)
+    {
+        /// incearca mai intai sa incarce resursa din classpath
+        URL url = ImageLoader.class.getResource("/" + path);
+        if (url != null)
+        {
+            return url;
         }
+
+        /// Daca resursa nu exista in classpath, incarca ca fisier
+        File file = new File(path);
+        if (file.isFile())
+        {
+            try
+            {
+                return file.toURI().toURL();
+            }
+            catch (MalformedURLException e)
+            {
+                System.err.println("✗ Cale invalida: " + file.getAbsolutePath());
+            }
+        }
+
+        /// incearca si fara slash-ul de la inceput pentru classpath
+        return ImageLoader.class.getResource(path);
+    }
+
+    /*! \fn  private static BufferedImage Placeholder(java.awt.Color color)
+        \brief Returneaza o imagine temporara de 16x16 pentru a evita crash-ul.
+     */
+    private static BufferedImage Placeholder(java.awt.Color color)
+    {
+        BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        java.awt.Graphics2D g2d = tempImage.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, 16, 16);
+        g2d.dispose();
+        return tempImage;
     }
 }
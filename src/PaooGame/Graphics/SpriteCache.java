@@ -0,0 +1,159 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*! \class public class SpriteCache
+    \brief Retine copii pre-scalate ale imaginilor, astfel incat desenarea sa fie o copiere 1:1.
+
+    drawImage(img, x, y, w, h, null) cu o dimensiune diferita de cea a imaginii trece prin calea de scalare a
+    Java2D la fiecare frame. Get() scaleaza imaginea o singura data, cu interpolarea aleasa, si intoarce aceeasi
+    copie pentru aceeasi cheie (imaginea sursa, latimea, inaltimea, interpolarea). Imaginea sursa este comparata
+    dupa identitate, nu dupa continut. Daca dimensiunea ceruta coincide cu a sursei, se intoarce chiar sursa.
+
+    Get() aloca o cheie la fiecare apel; cei care deseneaza la fiecare frame retin rezultatul si il cer din nou
+    doar cand se schimba imaginea sau dimensiunea (vezi Hero.Draw si MenuState.Draw).
+ */
+public class SpriteCache
+{
+    /*! \enum Interpolation
+        \brief Modul de interpolare folosit la scalare.
+     */
+    public enum Interpolation
+    {
+        NEAREST(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR),   /*!< Pixel art: marginile raman clare.*/
+        BILINEAR(RenderingHints.VALUE_INTERPOLATION_BILINEAR),          /*!< Fotografii / fundaluri.*/
+        BICUBIC(RenderingHints.VALUE_INTERPOLATION_BICUBIC);            /*!< Calitate maxima, cost mai mare la scalare.*/
+
+        private final Object hint;
+
+        Interpolation(Object hint)
+        {
+            this.hint = hint;
+        }
+    }
+
+    private static final int MAX_ENTRIES = 256;     /*!< Peste aceasta dimensiune cache-ul este golit (ex. redimensionari repetate).*/
+
+    private static final ConcurrentHashMap<Key, BufferedImage> cache = new ConcurrentHashMap<>();
+
+    private SpriteCache()
+    {
+    }
+
+    /*! \fn public static BufferedImage Get(BufferedImage source, int width, int height, Interpolation interpolation)
+        \brief Returneaza imaginea sursa scalata la width x height (creata la prima cerere, apoi refolosita).
+
+        \param source Imaginea originala; null intoarce null.
+        \param width Latimea dorita, in pixeli.
+        \param height Inaltimea dorita, in pixeli.
+        \param interpolation Interpolarea folosita la scalare.
+     */
+    public static BufferedImage Get(BufferedImage source, int width, int height, Interpolation interpolation)
+    {
+        if (source == null || (source.getWidth() == width && source.getHeight() == height))
+        {
+            return source;
+        }
+        if (width <= 0 || height <= 0)
+        {
+            throw new IllegalArgumentException("Dimensiune invalida pentru sprite: " + width + "x" + height);
+        }
+        if (cache.size() >= MAX_ENTRIES)
+        {
+            cache.clear();
+        }
+        return cache.computeIfAbsent(new Key(source, width, height, interpolation),
+                key -> Scale(source, width, height, interpolation));
+    }
+
+    /*! \fn public static void Clear()
+        \brief Elimina toate copiile scalate (de exemplu dupa reincarcarea elementelor grafice).
+     */
+    public static void Clear()
+    {
+        cache.clear();
+    }
+
+    /*! \fn public static int Size()
+        \brief Returneaza numarul de copii scalate retinute.
+     */
+    public static int Size()
+    {
+        return cache.size();
+    }
+
+    /*! \fn private static BufferedImage Scale(BufferedImage source, int width, int height, Interpolation interpolation)
+        \brief Scaleaza imaginea intr-o imagine compatibila cu ecranul.
+
+        La micsorari mai mari de 2x cu BILINEAR/BICUBIC imaginea este injumatatita treptat, altfel o singura
+        trecere ar sari peste pixeli si rezultatul ar avea zgomot (aliasing).
+     */
+    private static BufferedImage Scale(BufferedImage source, int width, int height, Interpolation interpolation)
+    {
+        int transparency = CompatibleImages.DetectTransparency(source);
+        if (transparency == Transparency.BITMASK && interpolation != Interpolation.NEAREST)
+        {
+            // Interpolarea amesteca marginile opace cu cele transparente => apar pixeli semi-transparenti
+            transparency = Transparency.TRANSLUCENT;
+        }
+        BufferedImage current = source;
+        if (interpolation != Interpolation.NEAREST)
+        {
+            while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height)
+            {
+                current = Draw(current, current.getWidth() / 2, current.getHeight() / 2, transparency, interpolation);
+            }
+        }
+        return Draw(current, width, height, transparency, interpolation);
+    }
+
+    private static BufferedImage Draw(BufferedImage source, int width, int height, int transparency, Interpolation interpolation)
+    {
+        BufferedImage scaled = CompatibleImages.Create(width, height, transparency);
+        Graphics2D g = scaled.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation.hint);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    /*! \class private static final class Key
+        \brief Cheia cache-ului: imaginea sursa (dupa identitate), dimensiunea si interpolarea.
+     */
+    private static final class Key
+    {
+        private final BufferedImage source;
+        private final int width;
+        private final int height;
+        private final Interpolation interpolation;
+
+        Key(BufferedImage source, int width, int height, Interpolation interpolation)
+        {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+            this.interpolation = interpolation;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return source == other.source && width == other.width && height == other.height
+                    && interpolation == other.interpolation;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return ((System.identityHashCode(source) * 31 + width) * 31 + height) * 31 + interpolation.ordinal();
+        }
+    }
+}
@@ -26,18 +26,22 @@ public class SpriteSheet
     }
 
     /*! \fn public BufferedImage crop(int x, int y)
-        \brief Returneaza un obiect BufferedImage ce contine o subimage (dala).
+        \brief Returneaza un obiect BufferedImage ce contine o copie a unei subimagini (dala).
 
-        Subimaginea este localizata avand ca referinta punctul din stanga sus.
+        Subimaginea este localizata avand ca referinta punctul din stanga sus. Copia este o imagine proprie,
+        compatibila cu ecranul (vezi CompatibleImages), nu o vedere in raster-ul sprite sheet-ului.
 
         \param x numarul dalei din sprite sheet pe axa x.
         \param y numarul dalei din sprite sheet pe axa y.
      */
     public BufferedImage crop(int x, int y) {
-        return this.spriteSheet.getSubimage(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
+        return crop(x * tileWidth, y * tileHeight, tileWidth, tileHeight);
     }
 
+    /*! \fn public BufferedImage crop(int x, int y, int width, int height)
+        \brief Returneaza o copie compatibila cu ecranul a zonei date, in pixeli.
+     */
     public BufferedImage crop(int x, int y, int width, int height) {
-        return this.spriteSheet.getSubimage(x, y, width, height);
+        return CompatibleImages.Copy(this.spriteSheet.getSubimage(x, y, width, height));
     }
 }
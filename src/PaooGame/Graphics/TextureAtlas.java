@@ -0,0 +1,136 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+/*! \class public class TextureAtlas
+    \brief Imagine unica in care sunt impachetate mai multe cadre (de exemplu cadrele animatiilor eroului).
+
+    Cadrele sunt asezate pe "rafturi" (shelf packing): sortate descrescator dupa inaltime, puse de la stanga la
+    dreapta pana la latimea maxima, apoi pe un raft nou. Intre cadre se lasa un pixel liber, ca interpolarea sa
+    nu preia pixeli de la vecini. Fiecare cadru devine o regiune identificata prin indicele sau din lista data la
+    impachetare; coordonatele regiunilor sunt retinute in tablouri de int, deci desenarea nu aloca nimic.
+ */
+public class TextureAtlas
+{
+    private static final int PADDING = 1;   /*!< Spatiul liber dintre doua regiuni, in pixeli.*/
+
+    private final BufferedImage image;      /*!< Imaginea atlasului.*/
+    private final int[] regionX;            /*!< Coordonata x a fiecarei regiuni in atlas.*/
+    private final int[] regionY;            /*!< Coordonata y a fiecarei regiuni in atlas.*/
+    private final int[] regionW;            /*!< Latimea fiecarei regiuni.*/
+    private final int[] regionH;            /*!< Inaltimea fiecarei regiuni.*/
+
+    private TextureAtlas(BufferedImage image, int[] regionX, int[] regionY, int[] regionW, int[] regionH)
+    {
+        this.image = image;
+        this.regionX = regionX;
+        this.regionY = regionY;
+        this.regionW = regionW;
+        this.regionH = regionH;
+    }
+
+    /*! \fn public static TextureAtlas Pack(List<BufferedImage> frames, int maxWidth)
+        \brief Impacheteaza cadrele date intr-un atlas; regiunea i corespunde cadrului frames.get(i).
+
+        \param frames Cadrele de impachetat.
+        \param maxWidth Latimea maxima a atlasului, in pixeli (marita daca un cadru este mai lat).
+     */
+    public static TextureAtlas Pack(List<BufferedImage> frames, int maxWidth)
+    {
+        int count = frames.size();
+        int[] regionX = new int[count];
+        int[] regionY = new int[count];
+        int[] regionW = new int[count];
+        int[] regionH = new int[count];
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++)
+        {
+            order[i] = i;
+            regionW[i] = frames.get(i).getWidth();
+            regionH[i] = frames.get(i).getHeight();
+            maxWidth = Math.max(maxWidth, regionW[i]);
+        }
+        Arrays.sort(order, (a, b) -> regionH[b] - regionH[a]);
+
+        /// Asezarea pe rafturi
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int usedWidth = 0;
+        for (int index : order)
+        {
+            if (x + regionW[index] > maxWidth)
+            {
+                y += shelfHeight + PADDING;
+                x = 0;
+                shelfHeight = 0;
+            }
+            regionX[index] = x;
+            regionY[index] = y;
+            x += regionW[index] + PADDING;
+            shelfHeight = Math.max(shelfHeight, regionH[index]);
+            usedWidth = Math.max(usedWidth, x - PADDING);
+        }
+        int height = Math.max(1, y + shelfHeight);
+
+        /// Copierea cadrelor in imaginea atlasului
+        BufferedImage atlas = CompatibleImages.Create(Math.max(1, usedWidth), height, Transparency.TRANSLUCENT);
+        Graphics2D g = atlas.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < count; i++)
+        {
+            g.drawImage(frames.get(i), regionX[i], regionY[i], null);
+        }
+        g.dispose();
+
+        return new TextureAtlas(atlas, regionX, regionY, regionW, regionH);
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer, int region, int x, int y)
+        \brief Deseneaza 1:1 regiunea data cu coltul stanga-sus in (x, y).
+     */
+    public void Draw(DrawCommandBuffer buffer, int region, int x, int y)
+    {
+        int sx = regionX[region];
+        int sy = regionY[region];
+        int w = regionW[region];
+        int h = regionH[region];
+        buffer.DrawImage(image, x, y, x + w, y + h, sx, sy, sx + w, sy + h);
+    }
+
+    /*! \fn public int GetRegionCount()
+        \brief Returneaza numarul de regiuni din atlas.
+     */
+    public int GetRegionCount()
+    {
+        return regionX.length;
+    }
+
+    /*! \fn public int GetRegionWidth(int region)
+        \brief Returneaza latimea regiunii date.
+     */
+    public int GetRegionWidth(int region)
+    {
+        return regionW[region];
+    }
+
+    /*! \fn public int GetRegionHeight(int region)
+        \brief Returneaza inaltimea regiunii date.
+     */
+    public int GetRegionHeight(int region)
+    {
+        return regionH[region];
+    }
+
+    /*! \fn public BufferedImage GetImage()
+        \brief Returneaza imaginea atlasului.
+     */
+    public BufferedImage GetImage()
+    {
+        return image;
+    }
+}
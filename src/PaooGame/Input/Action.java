@@ -0,0 +1,35 @@
+package PaooGame.Input;
+
+import java.awt.event.KeyEvent;
+
+/*! \enum Action
+    \brief Actiunile jocului si tastele asociate fiecareia.
+
+    Starile intreaba KeyManager despre actiuni (IsPressed(Action.UP)), nu despre coduri de taste, astfel incat
+    asocierea tastelor sa fie definita intr-un singur loc.
+ */
+public enum Action
+{
+    UP(KeyEvent.VK_W),                          /*!< Deplasare / navigare in sus.*/
+    DOWN(KeyEvent.VK_S),                        /*!< Deplasare / navigare in jos.*/
+    LEFT(KeyEvent.VK_A),                        /*!< Deplasare la stanga / scadere valoare.*/
+    RIGHT(KeyEvent.VK_D),                       /*!< Deplasare la dreapta / crestere valoare.*/
+    CONFIRM(KeyEvent.VK_ENTER, KeyEvent.VK_SPACE),  /*!< Selectarea optiunii curente.*/
+    BACK(KeyEvent.VK_ESCAPE),                   /*!< Intoarcere la ecranul anterior.*/
+    TOGGLE_PROFILER(KeyEvent.VK_F3);            /*!< Afiseaza/ascunde overlay-ul profiler-ului.*/
+
+    private final int[] keyCodes;
+
+    Action(int... keyCodes)
+    {
+        this.keyCodes = keyCodes;
+    }
+
+    /*! \fn int[] GetKeyCodes()
+        \brief Returneaza tastele asociate actiunii (tabloul intern, nu se modifica).
+     */
+    int[] GetKeyCodes()
+    {
+        return keyCodes;
+    }
+}
@@ -0,0 +1,100 @@
+package PaooGame.Input;
+
+import PaooGame.Timing.GameClock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/*! \class public class InputRecorder
+    \brief Inregistreaza evenimentele de tastatura, marcate cu tick-ul in care au fost aplicate, intr-un fisier binar.
+
+    KeyManager transmite fiecare eveniment scos din coada in tick-ul curent (GameClock.GetTick()). Cum simularea
+    avanseaza cu pas fix, redarea acelorasi evenimente in aceleasi tick-uri (InputReplay) reproduce exact aceeasi
+    sesiune, indiferent de viteza calculatorului sau de modul de rulare (fereastra sau headless).
+
+    Format (big-endian): MAGIC, VERSION (short), pasul de actualizare (long, ns), numarul de tick-uri (long),
+    numarul de evenimente (int), apoi pentru fiecare eveniment un varint ((tick - tick anterior) << 1 | apasat)
+    si codul tastei (un octet). O apasare scurta ocupa astfel de obicei doi octeti.
+ */
+public class InputRecorder
+{
+    static final int MAGIC = 0x50494E50;    /*!< "PINP" */
+    static final short VERSION = 1;
+
+    private final File file;                /*!< Fisierul in care se salveaza inregistrarea.*/
+    private final long stepNanos;           /*!< Pasul de actualizare cu care a rulat sesiunea.*/
+    private final ByteArrayOutputStream events = new ByteArrayOutputStream(4096);
+    private long lastTick;                  /*!< Tick-ul ultimului eveniment inregistrat.*/
+    private int eventCount;
+
+    /*! \fn public InputRecorder(File file, long stepNanos)
+        \brief Constructorul clasei.
+
+        \param file Fisierul in care se va salva inregistrarea (la Save()).
+        \param stepNanos Pasul fix de actualizare al jocului, in nanosecunde.
+     */
+    public InputRecorder(File file, long stepNanos)
+    {
+        this.file = file;
+        this.stepNanos = stepNanos;
+    }
+
+    /*! \fn public synchronized void Record(long tick, int keyCode, boolean pressed)
+        \brief Adauga un eveniment aplicat in tick-ul dat (apelat de KeyManager pe firul jocului).
+     */
+    public synchronized void Record(long tick, int keyCode, boolean pressed)
+    {
+        long delta = Math.max(0, tick - lastTick);
+        lastTick = Math.max(lastTick, tick);
+        WriteVarLong(delta << 1 | (pressed ? 1 : 0));
+        events.write(keyCode);
+        eventCount++;
+    }
+
+    /*! \fn public synchronized void Save() throws IOException
+        \brief Scrie inregistrarea in fisier; durata sesiunii este tick-ul curent al GameClock.
+
+        Poate fi apelata si dintr-un shutdown hook, in timp ce jocul inca ruleaza.
+     */
+    public synchronized void Save() throws IOException
+    {
+        long ticks = Math.max(lastTick, GameClock.GetTick());
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null)
+        {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file)))
+        {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(stepNanos);
+            out.writeLong(ticks);
+            out.writeInt(eventCount);
+            events.writeTo(out);
+        }
+        System.out.println("💾 Input inregistrat: " + eventCount + " evenimente in " + ticks + " tick-uri -> "
+                + file.getPath() + " (" + (events.size() + 26) + " octeti)");
+    }
+
+    /*! \fn public synchronized int GetEventCount()
+        \brief Returneaza numarul de evenimente inregistrate.
+     */
+    public synchronized int GetEventCount()
+    {
+        return eventCount;
+    }
+
+    private void WriteVarLong(long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            events.write((int)(value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        events.write((int)value);
+    }
+}
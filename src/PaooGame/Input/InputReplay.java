@@ -0,0 +1,137 @@
+package PaooGame.Input;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/*! \class public class InputReplay
+    \brief Reda o inregistrare facuta cu InputRecorder: trimite evenimentele catre KeyManager in tick-urile originale.
+
+    Game apeleaza Feed() la fiecare actualizare, dupa avansarea GameClock si inainte de KeyManager.Update(), deci
+    evenimentele sunt aplicate exact in tick-urile in care au fost aplicate la inregistrare. In timpul redarii
+    tastatura reala trebuie dezactivata (KeyManager.SetLiveInput(false)), altfel s-ar amesteca cele doua surse.
+ */
+public class InputReplay
+{
+    private final long stepNanos;       /*!< Pasul de actualizare al sesiunii inregistrate.*/
+    private final long tickCount;       /*!< Durata sesiunii, in tick-uri.*/
+    private final long[] ticks;         /*!< Tick-ul fiecarui eveniment.*/
+    private final int[] keyCodes;       /*!< Codul tastei pentru fiecare eveniment.*/
+    private final boolean[] pressed;    /*!< Tipul fiecarui eveniment (apasare / eliberare).*/
+    private int next;                   /*!< Indicele urmatorului eveniment de redat.*/
+
+    private InputReplay(long stepNanos, long tickCount, long[] ticks, int[] keyCodes, boolean[] pressed)
+    {
+        this.stepNanos = stepNanos;
+        this.tickCount = tickCount;
+        this.ticks = ticks;
+        this.keyCodes = keyCodes;
+        this.pressed = pressed;
+    }
+
+    /*! \fn public static InputReplay Load(File file) throws IOException
+        \brief Citeste o inregistrare salvata de InputRecorder.
+     */
+    public static InputReplay Load(File file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            if (in.readInt() != InputRecorder.MAGIC)
+            {
+                throw new IOException("Fisierul " + file.getPath() + " nu este o inregistrare de input");
+            }
+            short version = in.readShort();
+            if (version != InputRecorder.VERSION)
+            {
+                throw new IOException("Versiune de inregistrare nesuportata: " + version);
+            }
+            long stepNanos = in.readLong();
+            long tickCount = in.readLong();
+            int count = in.readInt();
+
+            long[] ticks = new long[count];
+            int[] keyCodes = new int[count];
+            boolean[] pressed = new boolean[count];
+            long tick = 0;
+            for (int i = 0; i < count; i++)
+            {
+                long value = ReadVarLong(in);
+                tick += value >>> 1;
+                ticks[i] = tick;
+                pressed[i] = (value & 1) != 0;
+                keyCodes[i] = in.readUnsignedByte();
+            }
+            System.out.println("✓ Inregistrare de input incarcata: " + count + " evenimente, " + tickCount + " tick-uri");
+            return new InputReplay(stepNanos, tickCount, ticks, keyCodes, pressed);
+        }
+    }
+
+    /*! \fn public void Feed(KeyManager keyManager, long tick)
+        \brief Trimite catre KeyManager evenimentele inregistrate pana la tick-ul dat, inclusiv.
+     */
+    public void Feed(KeyManager keyManager, long tick)
+    {
+        while (next < ticks.length && ticks[next] <= tick)
+        {
+            keyManager.Post(keyCodes[next], pressed[next]);
+            next++;
+        }
+    }
+
+    /*! \fn public void Rewind()
+        \brief Reia redarea de la inceput.
+     */
+    public void Rewind()
+    {
+        next = 0;
+    }
+
+    /*! \fn public boolean IsFinished(long tick)
+        \brief Returneaza true daca s-au redat toate evenimentele si sesiunea inregistrata s-a incheiat.
+     */
+    public boolean IsFinished(long tick)
+    {
+        return next >= ticks.length && tick >= tickCount;
+    }
+
+    /*! \fn public long GetTickCount()
+        \brief Returneaza durata sesiunii inregistrate, in tick-uri.
+     */
+    public long GetTickCount()
+    {
+        return tickCount;
+    }
+
+    /*! \fn public long GetStepNanos()
+        \brief Returneaza pasul de actualizare cu care a fost inregistrata sesiunea.
+     */
+    public long GetStepNanos()
+    {
+        return stepNanos;
+    }
+
+    /*! \fn public int GetEventCount()
+        \brief Returneaza numarul de evenimente din inregistrare.
+     */
+    public int GetEventCount()
+    {
+        return ticks.length;
+    }
+
+    private static long ReadVarLong(DataInputStream in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Varint invalid in inregistrarea de input");
+    }
+}
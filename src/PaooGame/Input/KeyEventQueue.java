@@ -0,0 +1,97 @@
+package PaooGame.Input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*! \class public class KeyEventQueue
+    \brief Coada circulara fara blocare (un producator, un consumator) pentru evenimente de tastatura.
+
+    Producatorul este firul AWT (toate apelurile KeyListener vin pe Event Dispatch Thread), consumatorul este
+    firul jocului, care goleste coada o data pe tick (Drain). Evenimentele sunt retinute in tablouri de primitive
+    (codul tastei cu bitul "apasat" si momentul in nanosecunde), deci adaugarea si golirea nu aloca nimic.
+
+    Sincronizarea se face doar prin cele doua contoare: producatorul scrie slotul si abia apoi publica noul tail
+    (lazySet = scriere ordonata), iar consumatorul citeste tail-ul inainte de sloturi si elibereaza sloturile
+    publicand noul head. Daca coada este plina (consumatorul nu a mai rulat), evenimentul este numarat si ignorat.
+ */
+public class KeyEventQueue
+{
+    /*! \interface Sink
+        \brief Primeste evenimentele scoase din coada, pe firul consumatorului.
+     */
+    public interface Sink
+    {
+        void OnKeyEvent(int keyCode, boolean pressed, long timeNanos);
+    }
+
+    public static final int DEFAULT_CAPACITY = 256;     /*!< Capacitatea implicita (putere a lui 2).*/
+
+    private static final int PRESSED_BIT = 1 << 31;     /*!< Marcheaza evenimentele de apasare in codes[].*/
+
+    private final int mask;
+    private final int[] codes;              /*!< Codul tastei | PRESSED_BIT pentru fiecare slot.*/
+    private final long[] times;             /*!< Momentul evenimentului (System.nanoTime) pentru fiecare slot.*/
+    private final AtomicLong head = new AtomicLong();   /*!< Urmatorul slot de citit (scris doar de consumator).*/
+    private final AtomicLong tail = new AtomicLong();   /*!< Urmatorul slot de scris (scris doar de producator).*/
+    private volatile long dropped;          /*!< Evenimente pierdute din cauza cozii pline.*/
+
+    /*! \fn public KeyEventQueue(int capacity)
+        \brief Constructorul clasei.
+
+        \param capacity Numarul maxim de evenimente in asteptare; rotunjit in sus la o putere a lui 2.
+     */
+    public KeyEventQueue(int capacity)
+    {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        codes = new int[size];
+        times = new long[size];
+    }
+
+    /*! \fn public boolean Offer(int keyCode, boolean pressed, long timeNanos)
+        \brief Adauga un eveniment (apelat doar de producator).
+
+        \return false daca coada este plina si evenimentul a fost ignorat.
+     */
+    public boolean Offer(int keyCode, boolean pressed, long timeNanos)
+    {
+        long t = tail.get();
+        if (t - head.get() > mask)
+        {
+            dropped = dropped + 1;
+            return false;
+        }
+        int slot = (int)t & mask;
+        codes[slot] = pressed ? keyCode | PRESSED_BIT : keyCode;
+        times[slot] = timeNanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /*! \fn public int Drain(Sink sink)
+        \brief Scoate toate evenimentele publicate pana acum, in ordine (apelat doar de consumator).
+
+        \return Numarul de evenimente transmise catre sink.
+     */
+    public int Drain(Sink sink)
+    {
+        long h = head.get();
+        long t = tail.get();
+        int count = (int)(t - h);
+        for (; h < t; h++)
+        {
+            int slot = (int)h & mask;
+            int code = codes[slot];
+            sink.OnKeyEvent(code & ~PRESSED_BIT, (code & PRESSED_BIT) != 0, times[slot]);
+        }
+        head.lazySet(t);
+        return count;
+    }
+
+    /*! \fn public long GetDroppedCount()
+        \brief Returneaza numarul de evenimente ignorate din cauza cozii pline.
+     */
+    public long GetDroppedCount()
+    {
+        return dropped;
+    }
+}
@@ -1,40 +1,182 @@
 package PaooGame.Input;
 
+import PaooGame.Timing.GameClock;
+
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.Arrays;
 
 /*! \class public class KeyManager implements KeyListener
     \brief Gestioneaza intrarea (input-ul) de tastatura.
 
-    Clasa citeste daca au fost apasata o tasta, stabiliteste ce tasta a fost actionata si seteaza corespunzator un flag.
-    In program trebuie sa se tina cont de flagul aferent tastei de interes. Daca flagul respectiv este true inseamna
-    ca tasta respectiva a fost apasata si false nu a fost apasata.
+    Evenimentele de tastatura sosesc pe firul AWT si sunt puse, cu momentul lor, intr-o coada fara blocare
+    (KeyEventQueue). Firul jocului goleste coada o singura data pe tick, in Update(), si construieste din ea
+    starea tastelor pentru acel tick: tinuta (keys), apasata in acest tick si eliberata in acest tick. Astfel
+    o apasare mai scurta decat un tick nu se pierde (apare ca apasata si eliberata in acelasi tick), iar starile
+    nu mai au nevoie de propria detectie a fronturilor.
+
+    Starea este citita doar de firul jocului; firul AWT scrie numai in coada.
  */
-public class KeyManager implements KeyListener
+public class KeyManager implements KeyListener, KeyEventQueue.Sink
 {
-    public boolean[] keys; /*!< Vector de flaguri pentru toate tastele. Tastele vor fi regasite dupa cod [0 - 255]*/
+    private static final int KEY_COUNT = 256;
+
+    public boolean[] keys;  /*!< Tastele tinute apasate in tick-ul curent, dupa cod [0 - 255].*/
     public boolean up;      /*!< Flag pentru tasta "sus" apasata.*/
     public boolean down;    /*!< Flag pentru tasta "jos" apasata.*/
     public boolean left;    /*!< Flag pentru tasta "stanga" apasata.*/
     public boolean right;   /*!< Flag pentru tasta "dreapta" apasata.*/
 
+    private final KeyEventQueue queue = new KeyEventQueue(KeyEventQueue.DEFAULT_CAPACITY);
+    private final boolean[] pressed = new boolean[KEY_COUNT];     /*!< Tastele apasate in tick-ul curent.*/
+    private final boolean[] released = new boolean[KEY_COUNT];    /*!< Tastele eliberate in tick-ul curent.*/
+    private final long[] pressTime = new long[KEY_COUNT];         /*!< Momentul ultimei apasari (System.nanoTime).*/
+    private final boolean[] awtDown = new boolean[KEY_COUNT];     /*!< Starea vazuta de firul AWT (filtreaza auto-repetarea).*/
+    private volatile boolean liveInput = true;                  /*!< Evenimentele de la tastatura reala intra in coada.*/
+    private InputRecorder recorder;                             /*!< Daca exista, primeste fiecare eveniment aplicat.*/
+
     /*! \fn public KeyManager()
         \brief Constructorul clasei.
      */
     public KeyManager()
     {
         ///Constructie vector de flaguri aferente tastelor.
-        keys = new boolean[256];
+        keys = new boolean[KEY_COUNT];
         System.out.println("✓ KeyManager initializat");
     }
 
+    /*! \fn public void Update()
+        \brief Goleste coada de evenimente si actualizeaza starea tastelor pentru tick-ul curent.
 
+        Trebuie apelata o data pe tick, pe firul jocului, inainte de actualizarea starilor.
+     */
     public void Update()
     {
-        up    = keys[KeyEvent.VK_W];
-        down  = keys[KeyEvent.VK_S];
-        left  = keys[KeyEvent.VK_A];
-        right = keys[KeyEvent.VK_D];
+        Arrays.fill(pressed, false);
+        Arrays.fill(released, false);
+        queue.Drain(this);
+
+        up    = IsHeld(Action.UP);
+        down  = IsHeld(Action.DOWN);
+        left  = IsHeld(Action.LEFT);
+        right = IsHeld(Action.RIGHT);
+    }
+
+    /*! \fn public void OnKeyEvent(int keyCode, boolean isPressed, long timeNanos)
+        \brief Aplica un eveniment scos din coada (apelat de Update(), pe firul jocului).
+     */
+    @Override
+    public void OnKeyEvent(int keyCode, boolean isPressed, long timeNanos)
+    {
+        if (recorder != null)
+        {
+            recorder.Record(GameClock.GetTick(), keyCode, isPressed);
+        }
+        if (isPressed)
+        {
+            if (!keys[keyCode])
+            {
+                keys[keyCode] = true;
+                pressed[keyCode] = true;
+                pressTime[keyCode] = timeNanos;
+            }
+        }
+        else if (keys[keyCode])
+        {
+            keys[keyCode] = false;
+            released[keyCode] = true;
+        }
+    }
+
+    /*! \fn public void Post(int keyCode, boolean isPressed)
+        \brief Adauga in coada un eveniment de tasta, ca si cum ar fi venit de la tastatura.
+
+        Folosita de rularile fara fereastra (benchmark-uri, simulari). Ca si listenerii AWT, trebuie apelata
+        de un singur fir producator.
+     */
+    public void Post(int keyCode, boolean isPressed)
+    {
+        if (keyCode >= 0 && keyCode < KEY_COUNT)
+        {
+            queue.Offer(keyCode, isPressed, System.nanoTime());
+        }
+    }
+
+    /*! \fn public void SetLiveInput(boolean enabled)
+        \brief Activeaza/dezactiveaza tastatura reala (dezactivata in timpul redarii unei inregistrari).
+     */
+    public void SetLiveInput(boolean enabled)
+    {
+        liveInput = enabled;
+    }
+
+    /*! \fn public void SetRecorder(InputRecorder recorder)
+        \brief Seteaza inregistratorul care primeste evenimentele aplicate (null pentru oprire).
+     */
+    public void SetRecorder(InputRecorder recorder)
+    {
+        this.recorder = recorder;
+    }
+
+    /*! \fn public boolean IsHeld(Action action)
+        \brief Returneaza true daca una dintre tastele actiunii este tinuta apasata in tick-ul curent.
+     */
+    public boolean IsHeld(Action action)
+    {
+        for (int keyCode : action.GetKeyCodes())
+        {
+            if (keys[keyCode])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*! \fn public boolean IsPressed(Action action)
+        \brief Returneaza true daca una dintre tastele actiunii a fost apasata in tick-ul curent (front crescator).
+     */
+    public boolean IsPressed(Action action)
+    {
+        for (int keyCode : action.GetKeyCodes())
+        {
+            if (pressed[keyCode])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*! \fn public boolean IsReleased(Action action)
+        \brief Returneaza true daca una dintre tastele actiunii a fost eliberata in tick-ul curent.
+     */
+    public boolean IsReleased(Action action)
+    {
+        for (int keyCode : action.GetKeyCodes())
+        {
+            if (released[keyCode])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*! \fn public long GetPressTimeNanos(int keyCode)
+        \brief Returneaza momentul (System.nanoTime) ultimei apasari a tastei date.
+     */
+    public long GetPressTimeNanos(int keyCode)
+    {
+        return pressTime[keyCode];
+    }
+
+    /*! \fn public long GetDroppedEvents()
+        \brief Returneaza numarul de evenimente pierdute pentru ca firul jocului nu a golit coada la timp.
+     */
+    public long GetDroppedEvents()
+    {
+        return queue.GetDroppedCount();
     }
 
     /*! \fn public void keyPressed(KeyEvent e)
@@ -46,8 +188,10 @@ public class KeyManager implements KeyListener
     public void keyPressed(KeyEvent e)
     {
         int keyCode = e.getKeyCode();
-        if (keyCode >= 0 && keyCode < keys.length) {
-            keys[keyCode] = true;
+        /// Auto-repetarea sistemului genereaza keyPressed repetat; doar prima apasare intra in coada.
+        if (liveInput && keyCode >= 0 && keyCode < KEY_COUNT && !awtDown[keyCode]) {
+            awtDown[keyCode] = true;
+            queue.Offer(keyCode, true, System.nanoTime());
 
             // Debug pentru taste importante in meniu
             if (keyCode == KeyEvent.VK_W) System.out.println("Tasta W apasata");
@@ -67,8 +211,9 @@ public class KeyManager implements KeyListener
     public void keyReleased(KeyEvent e)
     {
         int keyCode = e.getKeyCode();
-        if (keyCode >= 0 && keyCode < keys.length) {
-            keys[keyCode] = false;
+        if (liveInput && keyCode >= 0 && keyCode < KEY_COUNT) {
+            awtDown[keyCode] = false;
+            queue.Offer(keyCode, false, System.nanoTime());
         }
     }
 
@@ -81,4 +226,4 @@ public class KeyManager implements KeyListener
     {
 
     }
-}
\ No newline at end of file
+}
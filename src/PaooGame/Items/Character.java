@@ -1,5 +1,7 @@
 package PaooGame.Items;
 
+import PaooGame.Maps.CollisionMap;
+import PaooGame.Maps.Map;
 import PaooGame.RefLinks;
 
 /*! \class public abstract class Character extends Item
@@ -42,6 +44,9 @@ public abstract class Character extends Item
 
     /*! \fn public void Move()
         \brief Modifica pozitia caracterului
+
+        Deplasarea este rezolvata separat pe cele doua axe, astfel incat caracterul sa poata aluneca de-a
+        lungul unui zid atunci cand se deplaseaza pe diagonala.
      */
     public void Move()
     {
@@ -52,21 +57,50 @@ public abstract class Character extends Item
     }
 
     /*! \fn public void MoveX()
-        \brief Modifica pozitia caracterului pe axa X.
+        \brief Modifica pozitia caracterului pe axa X, oprindu-l la prima coloana de dale solide.
+
+        Se verifica toate coloanele de dale pe care le traverseaza marginea dreptunghiului de coliziune
+        (bounds) in acest pas, doar prin interogari in harta de coliziuni (biti), fara acces la obiectele Tile
+        (vezi CollisionMap.SweepX).
      */
     public void MoveX()
     {
-        ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa X.
-        x += xMove;
+        CollisionMap collision = GetCollisionMap();
+        if (collision == null)
+        {
+            ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa X.
+            x += xMove;
+            return;
+        }
+        x = collision.SweepX(x, y, xMove, bounds.x, bounds.y, bounds.width, bounds.height);
     }
 
     /*! \fn public void MoveY()
-        \brief Modifica pozitia caracterului pe axa Y.
+        \brief Modifica pozitia caracterului pe axa Y, oprindu-l la primul rand de dale solide.
      */
     public void MoveY()
     {
-        ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa Y.
-        y += yMove;
+        CollisionMap collision = GetCollisionMap();
+        if (collision == null)
+        {
+            ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa Y.
+            y += yMove;
+            return;
+        }
+        y = collision.SweepY(x, y, yMove, bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /*! \fn protected CollisionMap GetCollisionMap()
+        \brief Returneaza harta de coliziuni a hartii curente sau null daca nu exista o harta incarcata.
+     */
+    protected CollisionMap GetCollisionMap()
+    {
+        if (refLink == null)
+        {
+            return null;
+        }
+        Map map = refLink.GetMap();
+        return map != null && map.isMapLoaded() ? map.GetCollisionMap() : null;
     }
 
     /*! \fn public int GetLife()
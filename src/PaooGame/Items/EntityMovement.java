@@ -0,0 +1,100 @@
+package PaooGame.Items;
+
+import PaooGame.Maps.CollisionMap;
+
+/*! \class public final class EntityMovement
+    \brief Sistemul de deplasare: aplica vitezele tuturor entitatilor din EntityStore, cu coliziuni pe harta.
+
+    Parcurge tablourile depozitului dupa index; pentru fiecare entitate deplasarea se face intai pe axa X, apoi
+    pe axa Y, exact ca Character.Move(), prin aceleasi interogari in harta de coliziuni (CollisionMap.SweepX/Y).
+ */
+public final class EntityMovement
+{
+    private EntityMovement()
+    {
+    }
+
+    /*! \fn public static void Update(EntityStore store, CollisionMap collision)
+        \brief Deplaseaza toate entitatile cu viteza lor curenta.
+
+        \param store Depozitul de entitati.
+        \param collision Harta de coliziuni sau null (deplasare fara coliziuni, ca in lipsa unei harti).
+     */
+    public static void Update(EntityStore store, CollisionMap collision)
+    {
+        Update(store, collision, 0, store.count);
+    }
+
+    /*! \fn public static void Update(EntityStore store, CollisionMap collision, int from, int to)
+        \brief Deplaseaza entitatile cu indexul in [from, to).
+     */
+    public static void Update(EntityStore store, CollisionMap collision, int from, int to)
+    {
+        float[] x = store.x;
+        float[] y = store.y;
+        float[] vx = store.vx;
+        float[] vy = store.vy;
+        if (collision == null)
+        {
+            for (int i = from; i < to; i++)
+            {
+                x[i] += vx[i];
+                y[i] += vy[i];
+            }
+            return;
+        }
+
+        int[] boundsX = store.boundsX;
+        int[] boundsY = store.boundsY;
+        int[] boundsWidth = store.boundsWidth;
+        int[] boundsHeight = store.boundsHeight;
+        for (int i = from; i < to; i++)
+        {
+            x[i] = collision.SweepX(x[i], y[i], vx[i], boundsX[i], boundsY[i], boundsWidth[i], boundsHeight[i]);
+            y[i] = collision.SweepY(x[i], y[i], vy[i], boundsX[i], boundsY[i], boundsWidth[i], boundsHeight[i]);
+        }
+    }
+
+    /*! \fn public static void Compute(EntityStore store, CollisionMap collision, int from, int to, float[] outX, float[] outY)
+        \brief Calculeaza noile pozitii ale entitatilor cu indexul in [from, to) fara sa modifice depozitul.
+
+        Pozitia entitatii from + k este scrisa in outX[k], outY[k]. Calculul este identic cu cel din Update(),
+        deci aplicarea rezultatelor produce exact aceleasi valori (vezi EntityUpdateStage).
+     */
+    public static void Compute(EntityStore store, CollisionMap collision, int from, int to, float[] outX, float[] outY)
+    {
+        float[] x = store.x;
+        float[] y = store.y;
+        float[] vx = store.vx;
+        float[] vy = store.vy;
+        if (collision == null)
+        {
+            for (int i = from; i < to; i++)
+            {
+                outX[i - from] = x[i] + vx[i];
+                outY[i - from] = y[i] + vy[i];
+            }
+            return;
+        }
+
+        int[] boundsX = store.boundsX;
+        int[] boundsY = store.boundsY;
+        int[] boundsWidth = store.boundsWidth;
+        int[] boundsHeight = store.boundsHeight;
+        for (int i = from; i < to; i++)
+        {
+            float newX = collision.SweepX(x[i], y[i], vx[i], boundsX[i], boundsY[i], boundsWidth[i], boundsHeight[i]);
+            outX[i - from] = newX;
+            outY[i - from] = collision.SweepY(newX, y[i], vy[i], boundsX[i], boundsY[i], boundsWidth[i], boundsHeight[i]);
+        }
+    }
+
+    /*! \fn public static void Apply(EntityStore store, int from, int to, float[] newX, float[] newY)
+        \brief Scrie in depozit pozitiile calculate de Compute() pentru entitatile cu indexul in [from, to).
+     */
+    public static void Apply(EntityStore store, int from, int to, float[] newX, float[] newY)
+    {
+        System.arraycopy(newX, 0, store.x, from, to - from);
+        System.arraycopy(newY, 0, store.y, from, to - from);
+    }
+}
@@ -0,0 +1,104 @@
+package PaooGame.Items;
+
+import PaooGame.Graphics.DrawCommandBuffer;
+
+import java.awt.image.BufferedImage;
+
+/*! \class public final class EntitySnapshot
+    \brief Copia imutabila a entitatilor desenabile dintr-un EntityStore la sfarsitul unui tick.
+
+    Contine doar entitatile cu imagine (sprite != NO_SPRITE), in ordinea din depozit, si este desenata pe
+    thread-ul de randare. O entitate este interpolata cu instantaneul anterior doar daca acolo se afla pe
+    acelasi index cu acelasi handle (cazul obisnuit, cand intre cele doua tick-uri nu s-a sters nimic din fata ei);
+    altfel este desenata la pozitia curenta.
+ */
+public final class EntitySnapshot
+{
+    private final int count;
+    private final int[] handles;
+    private final float[] x;
+    private final float[] y;
+    private final int[] width;
+    private final int[] height;
+    private final int[] sprite;
+    private final BufferedImage[] sprites;
+
+    EntitySnapshot(EntityStore store)
+    {
+        int drawable = 0;
+        for (int i = 0; i < store.count; i++)
+        {
+            if (store.sprite[i] != EntityStore.NO_SPRITE)
+            {
+                drawable++;
+            }
+        }
+        handles = new int[drawable];
+        x = new float[drawable];
+        y = new float[drawable];
+        width = new int[drawable];
+        height = new int[drawable];
+        sprite = new int[drawable];
+        int n = 0;
+        for (int i = 0; i < store.count && n < drawable; i++)
+        {
+            if (store.sprite[i] == EntityStore.NO_SPRITE)
+            {
+                continue;
+            }
+            handles[n] = store.handles[i];
+            x[n] = store.x[i];
+            y[n] = store.y[i];
+            width[n] = store.width[i];
+            height[n] = store.height[i];
+            sprite[n] = store.sprite[i];
+            n++;
+        }
+        count = n;
+        sprites = store.GetSprites();
+    }
+
+    /*! \fn public int GetCount()
+        \brief Returneaza numarul de entitati din instantaneu.
+     */
+    public int GetCount()
+    {
+        return count;
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer, EntitySnapshot previous, float alpha, float cameraX, float cameraY, int viewWidth, int viewHeight)
+        \brief Deseneaza entitatile vizibile la pozitia interpolata intre previous (alpha = 0) si acest instantaneu.
+
+        \param buffer Lista de comenzi de desenare a frame-ului (stratul este ales de apelant).
+        \param previous Instantaneul tick-ului anterior sau null (fara interpolare).
+        \param alpha Factorul de interpolare, in [0, 1].
+        \param cameraX Deplasamentul camerei pe axa X.
+        \param cameraY Deplasamentul camerei pe axa Y.
+        \param viewWidth Latimea zonei vizibile; entitatile din afara ei nu sunt desenate.
+        \param viewHeight Inaltimea zonei vizibile.
+     */
+    public void Draw(DrawCommandBuffer buffer, EntitySnapshot previous, float alpha, float cameraX, float cameraY,
+                     int viewWidth, int viewHeight)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            float drawX = x[i];
+            float drawY = y[i];
+            if (previous != null && i < previous.count && previous.handles[i] == handles[i])
+            {
+                drawX = previous.x[i] + (drawX - previous.x[i]) * alpha;
+                drawY = previous.y[i] + (drawY - previous.y[i]) * alpha;
+            }
+            int screenX = (int)(drawX - cameraX);
+            int screenY = (int)(drawY - cameraY);
+            if (screenX + width[i] <= 0 || screenY + height[i] <= 0 || screenX >= viewWidth || screenY >= viewHeight)
+            {
+                continue;
+            }
+            ///Imaginile inregistrate la dimensiunea entitatii (vezi SpriteCache) sunt copiate 1:1.
+            BufferedImage image = sprites[sprite[i]];
+            buffer.DrawImage(image, screenX, screenY, screenX + width[i], screenY + height[i],
+                    0, 0, image.getWidth(), image.getHeight());
+        }
+    }
+}
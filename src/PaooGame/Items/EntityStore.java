@@ -0,0 +1,336 @@
+package PaooGame.Items;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/*! \class public class EntityStore
+    \brief Depozitul entitatilor numeroase (inamici, obiecte de colectat): componentele sunt tablouri paralele.
+
+    Fiecare componenta (pozitie, viteza, dreptunghi de coliziune, dimensiune, imagine, tip) este un tablou de
+    primitive; entitatea i ocupa pozitia i in toate tablourile, iar entitatile vii sunt mereu compacte, in
+    [0, GetCount()). Sistemele (de exemplu EntityMovement) parcurg tablourile dupa index, secvential, fara sa
+    urmareasca referinte catre obiecte separate in heap.
+
+    Adaugarea se face la sfarsit, iar stergerea muta ultima entitate in locul celei sterse, ambele in O(1).
+    Deoarece indexul unei entitati se poate schimba la o stergere, in afara sistemelor entitatile sunt
+    identificate prin handle-uri stabile (Add() returneaza unul), traduse in index prin IndexOf().
+
+    Imaginile sunt retinute o singura data, intr-un tabel (RegisterSprite); entitatile pastreaza doar id-ul.
+
+    Clasa nu este sincronizata: este modificata doar de thread-ul de actualizare, iar desenarea foloseste
+    copiile facute de Snapshot().
+ */
+public class EntityStore
+{
+    public static final int KIND_HERO = 0;      /*!< Eroul controlat de jucator (vezi Hero).*/
+    public static final int KIND_ENEMY = 1;     /*!< Inamic.*/
+    public static final int KIND_PICKUP = 2;    /*!< Obiect care poate fi colectat.*/
+
+    public static final int NO_SPRITE = -1;     /*!< Entitatea nu este desenata de EntitySnapshot (ex. eroul).*/
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+        ///Componentele, indexate dupa pozitia densa a entitatii.
+    float[] x;          /*!< Pozitia pe axa X, in lume.*/
+    float[] y;          /*!< Pozitia pe axa Y, in lume.*/
+    float[] vx;         /*!< Deplasarea pe axa X in tick-ul curent, in pixeli.*/
+    float[] vy;         /*!< Deplasarea pe axa Y in tick-ul curent, in pixeli.*/
+    int[] boundsX;      /*!< Dreptunghiul de coliziune, relativ la pozitie.*/
+    int[] boundsY;
+    int[] boundsWidth;
+    int[] boundsHeight;
+    int[] width;        /*!< Dimensiunea imaginii entitatii.*/
+    int[] height;
+    int[] sprite;       /*!< Id-ul imaginii in tabelul de imagini sau NO_SPRITE.*/
+    int[] kind;         /*!< Tipul entitatii (KIND_*).*/
+    int[] handles;      /*!< Handle-ul entitatii de la fiecare index.*/
+    int count;          /*!< Numarul de entitati vii.*/
+
+    private int[] indexOf;          /*!< Indexul dens al fiecarui handle sau -1 daca handle-ul este liber.*/
+    private int[] freeHandles;      /*!< Stiva handle-urilor eliberate, refolosite de Add().*/
+    private int freeCount;
+    private int nextHandle;         /*!< Primul handle care nu a fost folosit niciodata.*/
+
+    private BufferedImage[] sprites = new BufferedImage[8];
+    private int spriteCount;
+
+    /*! \fn public EntityStore()
+        \brief Constructorul clasei, cu capacitatea implicita.
+     */
+    public EntityStore()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /*! \fn public EntityStore(int capacity)
+        \brief Constructorul clasei; tablourile cresc automat peste capacitatea data.
+     */
+    public EntityStore(int capacity)
+    {
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        boundsX = new int[capacity];
+        boundsY = new int[capacity];
+        boundsWidth = new int[capacity];
+        boundsHeight = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        sprite = new int[capacity];
+        kind = new int[capacity];
+        handles = new int[capacity];
+        indexOf = new int[capacity];
+        freeHandles = new int[capacity];
+    }
+
+    /*! \fn public int RegisterSprite(BufferedImage image)
+        \brief Adauga o imagine in tabelul de imagini si returneaza id-ul ei (imaginile deja inregistrate isi pastreaza id-ul).
+     */
+    public int RegisterSprite(BufferedImage image)
+    {
+        for (int i = 0; i < spriteCount; i++)
+        {
+            if (sprites[i] == image)
+            {
+                return i;
+            }
+        }
+        if (spriteCount == sprites.length)
+        {
+            sprites = Arrays.copyOf(sprites, spriteCount * 2);
+        }
+        sprites[spriteCount] = image;
+        return spriteCount++;
+    }
+
+    /*! \fn public BufferedImage GetSprite(int id)
+        \brief Returneaza imaginea cu id-ul dat sau null pentru NO_SPRITE.
+     */
+    public BufferedImage GetSprite(int id)
+    {
+        return id == NO_SPRITE ? null : sprites[id];
+    }
+
+    /*! \fn public int Add(int kind, float x, float y, int width, int height, int sprite)
+        \brief Adauga o entitate la sfarsitul tablourilor si returneaza handle-ul ei.
+
+        Dreptunghiul de coliziune este initial cel al imaginii; se poate schimba cu SetBounds().
+     */
+    public int Add(int kind, float x, float y, int width, int height, int sprite)
+    {
+        if (count == this.x.length)
+        {
+            Grow(count * 2);
+        }
+        int handle = freeCount > 0 ? freeHandles[--freeCount] : nextHandle++;
+        if (handle == indexOf.length)
+        {
+            indexOf = Arrays.copyOf(indexOf, handle * 2);
+            freeHandles = Arrays.copyOf(freeHandles, handle * 2);
+        }
+
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        vx[i] = 0;
+        vy[i] = 0;
+        boundsX[i] = 0;
+        boundsY[i] = 0;
+        boundsWidth[i] = width;
+        boundsHeight[i] = height;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.sprite[i] = sprite;
+        this.kind[i] = kind;
+        handles[i] = handle;
+        indexOf[handle] = i;
+        return handle;
+    }
+
+    /*! \fn public void Remove(int handle)
+        \brief Sterge entitatea in O(1): ultima entitate este mutata in locul ei (ordinea nu se pastreaza).
+     */
+    public void Remove(int handle)
+    {
+        int i = IndexOf(handle);
+        if (i < 0)
+        {
+            throw new IllegalArgumentException("Handle de entitate invalid: " + handle);
+        }
+        int last = --count;
+        if (i != last)
+        {
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            boundsX[i] = boundsX[last];
+            boundsY[i] = boundsY[last];
+            boundsWidth[i] = boundsWidth[last];
+            boundsHeight[i] = boundsHeight[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            sprite[i] = sprite[last];
+            kind[i] = kind[last];
+            handles[i] = handles[last];
+            indexOf[handles[i]] = i;
+        }
+        indexOf[handle] = -1;
+        freeHandles[freeCount++] = handle;
+    }
+
+    /*! \fn public int IndexOf(int handle)
+        \brief Returneaza indexul dens curent al entitatii sau -1 daca handle-ul nu apartine unei entitati vii.
+     */
+    public int IndexOf(int handle)
+    {
+        if (handle < 0 || handle >= nextHandle)
+        {
+            return -1;
+        }
+        return indexOf[handle];
+    }
+
+    /*! \fn public boolean IsAlive(int handle)
+        \brief Returneaza true daca handle-ul apartine unei entitati vii.
+     */
+    public boolean IsAlive(int handle)
+    {
+        return IndexOf(handle) >= 0;
+    }
+
+    /*! \fn public int GetCount()
+        \brief Returneaza numarul de entitati vii (indexurile valide sunt 0 .. GetCount() - 1).
+     */
+    public int GetCount()
+    {
+        return count;
+    }
+
+    /*! \fn public int GetHandle(int index)
+        \brief Returneaza handle-ul entitatii de la indexul dat.
+     */
+    public int GetHandle(int index)
+    {
+        return handles[index];
+    }
+
+    /*! \fn public int GetKind(int handle)
+        \brief Returneaza tipul entitatii (KIND_*).
+     */
+    public int GetKind(int handle)
+    {
+        return kind[Index(handle)];
+    }
+
+    /*! \fn public float GetX(int handle)
+        \brief Returneaza pozitia pe axa X a entitatii.
+     */
+    public float GetX(int handle)
+    {
+        return x[Index(handle)];
+    }
+
+    /*! \fn public float GetY(int handle)
+        \brief Returneaza pozitia pe axa Y a entitatii.
+     */
+    public float GetY(int handle)
+    {
+        return y[Index(handle)];
+    }
+
+    /*! \fn public void SetPosition(int handle, float x, float y)
+        \brief Muta entitatea la pozitia data, fara verificarea coliziunilor.
+     */
+    public void SetPosition(int handle, float x, float y)
+    {
+        int i = Index(handle);
+        this.x[i] = x;
+        this.y[i] = y;
+    }
+
+    /*! \fn public void SetVelocity(int handle, float vx, float vy)
+        \brief Seteaza deplasarea entitatii pentru urmatoarea rulare a sistemului de deplasare.
+     */
+    public void SetVelocity(int handle, float vx, float vy)
+    {
+        int i = Index(handle);
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+    }
+
+    /*! \fn public void SetBounds(int handle, int x, int y, int width, int height)
+        \brief Seteaza dreptunghiul de coliziune al entitatii, relativ la pozitia ei.
+     */
+    public void SetBounds(int handle, int x, int y, int width, int height)
+    {
+        int i = Index(handle);
+        boundsX[i] = x;
+        boundsY[i] = y;
+        boundsWidth[i] = width;
+        boundsHeight[i] = height;
+    }
+
+    /*! \fn public void SetSize(int handle, int width, int height)
+        \brief Seteaza dimensiunea imaginii entitatii.
+     */
+    public void SetSize(int handle, int width, int height)
+    {
+        int i = Index(handle);
+        this.width[i] = width;
+        this.height[i] = height;
+    }
+
+    /*! \fn public void SetSprite(int handle, int sprite)
+        \brief Seteaza imaginea entitatii (id din tabelul de imagini sau NO_SPRITE).
+     */
+    public void SetSprite(int handle, int sprite)
+    {
+        this.sprite[Index(handle)] = sprite;
+    }
+
+    /*! \fn public EntitySnapshot Snapshot()
+        \brief Copiaza starea vizuala a entitatilor desenabile, pentru thread-ul de randare.
+     */
+    public EntitySnapshot Snapshot()
+    {
+        return new EntitySnapshot(this);
+    }
+
+    /*! \fn BufferedImage[] GetSprites()
+        \brief Returneaza tabelul de imagini (doar pentru citire; intrarile existente nu se modifica niciodata).
+     */
+    BufferedImage[] GetSprites()
+    {
+        return sprites;
+    }
+
+    private int Index(int handle)
+    {
+        int i = IndexOf(handle);
+        if (i < 0)
+        {
+            throw new IllegalArgumentException("Handle de entitate invalid: " + handle);
+        }
+        return i;
+    }
+
+    private void Grow(int capacity)
+    {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        boundsX = Arrays.copyOf(boundsX, capacity);
+        boundsY = Arrays.copyOf(boundsY, capacity);
+        boundsWidth = Arrays.copyOf(boundsWidth, capacity);
+        boundsHeight = Arrays.copyOf(boundsHeight, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+    }
+}
@@ -0,0 +1,182 @@
+package PaooGame.Items;
+
+import PaooGame.Maps.CollisionMap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*! \class public class EntityUpdateStage
+    \brief Etapa de actualizare a entitatilor: deplasarea din EntityStore, impartita pe mai multe fire cand sunt multe entitati.
+
+    Intervalul dens de entitati [0, GetCount()) este impartit in partitii contigue, de dimensiuni egale, a caror
+    numar depinde doar de numarul de entitati si de paralelismul pool-ului (nu de ordinea in care ruleaza firele).
+    Partitiile sunt calculate in paralel intr-un ForkJoinPool, prin injumatatire recursiva. Fiecare partitie
+    citeste depozitul, care nu se modifica pe durata calculului, si isi scrie rezultatele in propriile buffere.
+    Dupa terminarea tuturor, bufferele sunt copiate in depozit in ordinea partitiilor, pe thread-ul de
+    actualizare. Fiecare entitate este calculata cu exact aceleasi operatii ca in varianta secventiala
+    (EntityMovement.Update), deci rezultatul este identic bit cu bit si redarile de input raman deterministe.
+
+    Sub pragul configurat de entitati (sau cand pool-ul are un singur fir) actualizarea ruleaza secvential, pe
+    thread-ul curent: pentru putine entitati costul distribuirii depaseste castigul.
+ */
+public class EntityUpdateStage
+{
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;  /*!< Numarul implicit de entitati de la care se lucreaza in paralel.*/
+    private static final int MIN_PARTITION_SIZE = 1024;         /*!< Cele mai mici partitii (sub aceasta dimensiune nu merita un fir).*/
+    private static final int PARTITIONS_PER_THREAD = 4;         /*!< Partitii suplimentare, pentru echilibrarea incarcarii.*/
+
+    private final ForkJoinPool pool;
+    private int parallelThreshold;
+
+    private float[][] partitionX = new float[0][];  /*!< Bufferele partitiilor, refolosite de la un tick la altul.*/
+    private float[][] partitionY = new float[0][];
+
+        ///Parametrii tick-ului curent, cititi de task-uri.
+    private EntityStore store;
+    private CollisionMap collision;
+    private int partitionSize;
+    private int count;
+
+    /*! \fn public EntityUpdateStage()
+        \brief Constructorul clasei: foloseste pool-ul comun si pragul implicit.
+     */
+    public EntityUpdateStage()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /*! \fn public EntityUpdateStage(ForkJoinPool pool, int parallelThreshold)
+        \brief Constructorul clasei.
+
+        \param pool Pool-ul in care ruleaza partitiile.
+        \param parallelThreshold Numarul de entitati de la care actualizarea se imparte pe mai multe fire.
+     */
+    public EntityUpdateStage(ForkJoinPool pool, int parallelThreshold)
+    {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /*! \fn public void SetParallelThreshold(int parallelThreshold)
+        \brief Seteaza numarul de entitati de la care actualizarea se imparte pe mai multe fire.
+     */
+    public void SetParallelThreshold(int parallelThreshold)
+    {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /*! \fn public int GetParallelThreshold()
+        \brief Returneaza numarul de entitati de la care actualizarea se imparte pe mai multe fire.
+     */
+    public int GetParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /*! \fn public int PartitionCount(int entities)
+        \brief Returneaza in cate partitii ar fi impartite entitatile date (1 = actualizare secventiala).
+     */
+    public int PartitionCount(int entities)
+    {
+        int threads = pool.getParallelism();
+        if (threads < 2 || entities < parallelThreshold)
+        {
+            return 1;
+        }
+        return Math.max(1, Math.min(threads * PARTITIONS_PER_THREAD, entities / MIN_PARTITION_SIZE));
+    }
+
+    /*! \fn public void Update(EntityStore store, CollisionMap collision)
+        \brief Deplaseaza toate entitatile din depozit (echivalent cu EntityMovement.Update).
+
+        Se apeleaza de pe thread-ul de actualizare; revine dupa ce toate pozitiile au fost scrise in depozit.
+     */
+    public void Update(EntityStore store, CollisionMap collision)
+    {
+        int entities = store.GetCount();
+        int partitions = PartitionCount(entities);
+        if (partitions < 2)
+        {
+            EntityMovement.Update(store, collision);
+            return;
+        }
+
+        this.store = store;
+        this.collision = collision;
+        this.count = entities;
+        this.partitionSize = (entities + partitions - 1) / partitions;
+        EnsureBuffers(partitions, partitionSize);
+        try
+        {
+            pool.invoke(new Partitions(0, partitions));
+        }
+        finally
+        {
+            this.store = null;
+            this.collision = null;
+        }
+
+        ///Combinarea rezultatelor, in ordinea partitiilor.
+        for (int p = 0; p < partitions; p++)
+        {
+            int from = p * partitionSize;
+            int to = Math.min(entities, from + partitionSize);
+            if (from < to)
+            {
+                EntityMovement.Apply(store, from, to, partitionX[p], partitionY[p]);
+            }
+        }
+    }
+
+    private void EnsureBuffers(int partitions, int size)
+    {
+        if (partitionX.length < partitions)
+        {
+            partitionX = Arrays.copyOf(partitionX, partitions);
+            partitionY = Arrays.copyOf(partitionY, partitions);
+        }
+        for (int p = 0; p < partitions; p++)
+        {
+            if (partitionX[p] == null || partitionX[p].length < size)
+            {
+                partitionX[p] = new float[size];
+                partitionY[p] = new float[size];
+            }
+        }
+    }
+
+    /*! \class private final class Partitions extends RecursiveAction
+        \brief Calculeaza partitiile [first, last), injumatatind intervalul pana la o singura partitie.
+     */
+    private final class Partitions extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int first;
+        private final int last;
+
+        Partitions(int first, int last)
+        {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (last - first == 1)
+            {
+                int from = first * partitionSize;
+                int to = Math.min(count, from + partitionSize);
+                if (from < to)
+                {
+                    EntityMovement.Compute(store, collision, from, to, partitionX[first], partitionY[first]);
+                }
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new Partitions(first, middle), new Partitions(middle, last));
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package PaooGame.Items;
 
+import PaooGame.Graphics.Animation;
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Graphics.SpriteCache;
+import PaooGame.Maps.CollisionMap;
 import PaooGame.RefLinks;
+import PaooGame.Timing.GameClock;
 
-import java.awt.*;
 import java.awt.image.BufferedImage;
 
 /*! \class public class Hero extends Character
@@ -14,10 +18,20 @@ import java.awt.image.BufferedImage;
         deplasarea
         atacul (nu este implementat momentan)
         dreptunghiul de coliziune
+
+    Pozitia, viteza si dreptunghiul de coliziune nu sunt retinute in campurile clasei de baza, ci intr-o intrare
+    a unui EntityStore (clasa este o fatada peste ea). Update() doar stabileste viteza din input; deplasarea
+    propriu-zisa este facuta de EntityMovement.Update(), o data pentru toate entitatile depozitului.
  */
 public class Hero extends Character
 {
     private BufferedImage image;    /*!< Referinta catre imaginea curenta a eroului.*/
+    private BufferedImage scaledSource; /*!< Imaginea pentru care a fost obtinuta copia scalata curenta.*/
+    private BufferedImage scaled;       /*!< Copia imaginii curente la dimensiunea eroului (din SpriteCache).*/
+    private Animation animation;        /*!< Animatia de mers curenta sau null cand eroul nu se deplaseaza orizontal.*/
+    private long animationStart;        /*!< Momentul (timp GameClock) la care a pornit animatia curenta.*/
+    private final EntityStore store;    /*!< Depozitul in care sunt retinute pozitia, viteza si coliziunea eroului.*/
+    private final int entity;           /*!< Handle-ul eroului in store.*/
 
     /*! \fn public Hero(RefLinks refLink, float x, float y)
         \brief Constructorul de initializare al clasei Hero.
@@ -27,6 +41,19 @@ public class Hero extends Character
         \param y Pozitia initiala pe axa Y a eroului.
      */
     public Hero(RefLinks refLink, float x, float y)
+    {
+        this(refLink, new EntityStore(1), x, y);
+    }
+
+    /*! \fn public Hero(RefLinks refLink, EntityStore store, float x, float y)
+        \brief Constructorul clasei Hero; eroul este adaugat ca entitate in depozitul dat.
+
+        \param refLink Referinta catre obiectul shortcut (obiect ce retine o serie de referinte din program).
+        \param store Depozitul de entitati al lumii.
+        \param x Pozitia initiala pe axa X a eroului.
+        \param y Pozitia initiala pe axa Y a eroului.
+     */
+    public Hero(RefLinks refLink, EntityStore store, float x, float y)
     {
         ///Apel al constructorului clasei de baza
         super(refLink, x,y, Character.DEFAULT_CREATURE_WIDTH, Character.DEFAULT_CREATURE_HEIGHT);
@@ -44,23 +71,146 @@ public class Hero extends Character
         attackBounds.width = 38;
         attackBounds.height = 38;
 
+        ///Eroul este desenat separat (animatie), deci in depozit nu are imagine
+        this.store = store;
+        entity = store.Add(EntityStore.KIND_HERO, x, y, width, height, EntityStore.NO_SPRITE);
+        store.SetBounds(entity, bounds.x, bounds.y, bounds.width, bounds.height);
+
         System.out.println("✓ Hero creat - imagine initiala setata");
     }
 
     /*! \fn public void Update()
-        \brief Actualizeaza pozitia si imaginea eroului.
+        \brief Actualizeaza viteza si imaginea eroului.
+
+        Pozitia se actualizeaza ulterior, la rularea EntityMovement.Update() pe depozitul eroului.
      */
     @Override
     public void Update()
     {
         ///Verifica daca a fost apasata o tasta
         GetInput();
-        ///Actualizeaza pozitia
-        Move();
+        ///Deplasarea dorita este preluata de sistemul de deplasare
+        store.SetVelocity(entity, xMove, yMove);
         ///Actualizeaza imaginea in functie de directia de miscare
         UpdateImage();
     }
 
+    /*! \fn public void MoveX()
+        \brief Deplaseaza doar eroul pe axa X, cu xMove pixeli (pozitia este cea din depozit).
+     */
+    @Override
+    public void MoveX()
+    {
+        CollisionMap collision = GetCollisionMap();
+        float x = GetX();
+        SetX(collision == null ? x + xMove
+                : collision.SweepX(x, GetY(), xMove, bounds.x, bounds.y, bounds.width, bounds.height));
+    }
+
+    /*! \fn public void MoveY()
+        \brief Deplaseaza doar eroul pe axa Y, cu yMove pixeli (pozitia este cea din depozit).
+     */
+    @Override
+    public void MoveY()
+    {
+        CollisionMap collision = GetCollisionMap();
+        float y = GetY();
+        SetY(collision == null ? y + yMove
+                : collision.SweepY(GetX(), y, yMove, bounds.x, bounds.y, bounds.width, bounds.height));
+    }
+
+    /*! \fn public float GetX()
+        \brief Returneaza coordonata pe axa X, din depozitul de entitati.
+     */
+    @Override
+    public float GetX()
+    {
+        return store.GetX(entity);
+    }
+
+    /*! \fn public float GetY()
+        \brief Returneaza coordonata pe axa Y, din depozitul de entitati.
+     */
+    @Override
+    public float GetY()
+    {
+        return store.GetY(entity);
+    }
+
+    /*! \fn public void SetX(float x)
+        \brief Seteaza coordonata pe axa X, in depozitul de entitati.
+     */
+    @Override
+    public void SetX(float x)
+    {
+        store.SetPosition(entity, x, GetY());
+    }
+
+    /*! \fn public void SetY(float y)
+        \brief Seteaza coordonata pe axa Y, in depozitul de entitati.
+     */
+    @Override
+    public void SetY(float y)
+    {
+        store.SetPosition(entity, GetX(), y);
+    }
+
+    /*! \fn public void SetWidth(int width)
+        \brief Seteaza latimea eroului (si in depozitul de entitati).
+     */
+    @Override
+    public void SetWidth(int width)
+    {
+        super.SetWidth(width);
+        store.SetSize(entity, width, height);
+    }
+
+    /*! \fn public void SetHeight(int height)
+        \brief Seteaza inaltimea eroului (si in depozitul de entitati).
+     */
+    @Override
+    public void SetHeight(int height)
+    {
+        super.SetHeight(height);
+        store.SetSize(entity, width, height);
+    }
+
+    /*! \fn public void SetNormalMode()
+        \brief Seteaza modul normal si dreptunghiul de coliziune corespunzator in depozit.
+     */
+    @Override
+    public void SetNormalMode()
+    {
+        super.SetNormalMode();
+        store.SetBounds(entity, bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /*! \fn public void SetAttackMode()
+        \brief Seteaza modul de atac si dreptunghiul de coliziune corespunzator in depozit.
+     */
+    @Override
+    public void SetAttackMode()
+    {
+        super.SetAttackMode();
+        store.SetBounds(entity, bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /*! \fn public int GetEntity()
+        \brief Returneaza handle-ul eroului in depozitul de entitati (de exemplu pentru SpatialHash.QueryOverlaps).
+     */
+    public int GetEntity()
+    {
+        return entity;
+    }
+
+    /*! \fn public EntityStore GetEntityStore()
+        \brief Returneaza depozitul de entitati in care se afla eroul.
+     */
+    public EntityStore GetEntityStore()
+    {
+        return store;
+    }
+
     /*! \fn private void UpdateImage()
         \brief Actualizeaza imaginea eroului in functie de directia de miscare.
      */
@@ -87,6 +237,23 @@ public class Hero extends Character
             image = Assets.heroRight;   // Randul 3
         }
         // Daca nu se apasa nicio tasta, pastreaza imaginea curenta
+
+        ///Deplasarea orizontala foloseste animatia de mers (daca atlasul a fost incarcat). Momentul de start se
+        ///retine doar la schimbarea animatiei; cadrul este apoi calculat din ceasul comun la desenare.
+        Animation walk = null;
+        if(xMove < 0)
+        {
+            walk = Assets.heroWalkLeft;
+        }
+        else if(xMove > 0)
+        {
+            walk = Assets.heroWalkRight;
+        }
+        if(walk != animation)
+        {
+            animation = walk;
+            animationStart = GameClock.GetTimeMillis();
+        }
     }
 
     /*! \fn private void GetInput()
@@ -119,18 +286,36 @@ public class Hero extends Character
         }
     }
 
-    /*! \fn public void Draw(Graphics g)
+    /*! \fn public void Draw(DrawCommandBuffer buffer)
         \brief Randeaza/deseneaza eroul in noua pozitie.
 
-        \brief g Contextul grafi in care trebuie efectuata desenarea eroului.
+        \brief buffer Lista de comenzi in care se adauga desenarea eroului.
      */
     @Override
-    public void Draw(Graphics g)
+    public void Draw(DrawCommandBuffer buffer)
     {
-        g.drawImage(image, (int)x, (int)y, width, height, null);
+        ///Pozitia pe ecran este pozitia in lume minus deplasamentul camerei.
+        buffer.SetLayer(DrawCommandBuffer.LAYER_ITEMS);
+        Snapshot().Draw(buffer, null, 1f, refLink.GetGameCamera().GetXOffset(), refLink.GetGameCamera().GetYOffset(),
+                GameClock.GetTimeMillis());
 
         ///doar pentru debug daca se doreste vizualizarea dreptunghiului de coliziune altfel se vor comenta urmatoarele doua linii
         //g.setColor(Color.blue);
-        //g.fillRect((int)(x + bounds.x), (int)(y + bounds.y), bounds.width, bounds.height);
+        //g.fillRect(screenX + bounds.x, screenY + bounds.y, bounds.width, bounds.height);
+    }
+
+    /*! \fn public ItemSnapshot Snapshot()
+        \brief Returneaza pozitia si imaginea curenta a eroului (apelata pe thread-ul de actualizare).
+     */
+    @Override
+    public ItemSnapshot Snapshot()
+    {
+        ///Copia scalata se cere din SpriteCache doar cand se schimba imaginea; desenarea este o copiere 1:1.
+        if (image != scaledSource)
+        {
+            scaledSource = image;
+            scaled = SpriteCache.Get(image, width, height, SpriteCache.Interpolation.NEAREST);
+        }
+        return new ItemSnapshot(GetX(), GetY(), width, height, scaled, animation, animationStart);
     }
 }
\ No newline at end of file
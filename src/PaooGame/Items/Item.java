@@ -1,5 +1,6 @@
 package PaooGame.Items;
 
+import PaooGame.Graphics.DrawCommandBuffer;
 import PaooGame.RefLinks;
 
 import java.awt.*;
@@ -48,8 +49,19 @@ public abstract class Item
 
         ///Metoda abstracta destinata actualizarii starii curente
     public abstract void Update();
-        ///Metoda abstracta destinata desenarii starii curente
-    public abstract void Draw(Graphics g);
+        ///Metoda abstracta destinata desenarii starii curente (comenzile sunt adaugate in lista frame-ului)
+    public abstract void Draw(DrawCommandBuffer buffer);
+
+    /*! \fn public ItemSnapshot Snapshot()
+        \brief Returneaza starea vizuala curenta a entitatii, pentru desenarea pe thread-ul de randare.
+
+        Implicit instantaneul contine doar pozitia si dimensiunea (nu se deseneaza nimic); entitatile care se
+        deseneaza suprascriu metoda si adauga imaginea/animatia curenta.
+     */
+    public ItemSnapshot Snapshot()
+    {
+        return new ItemSnapshot(x, y, width, height, null, null, 0);
+    }
 
     /*! \fn public float GetX()
         \brief Returneaza coordonata pe axa X.
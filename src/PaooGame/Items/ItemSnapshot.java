@@ -0,0 +1,70 @@
+package PaooGame.Items;
+
+import PaooGame.Graphics.Animation;
+import PaooGame.Graphics.DrawCommandBuffer;
+
+import java.awt.image.BufferedImage;
+
+/*! \class public final class ItemSnapshot
+    \brief Starea vizuala imutabila a unei entitati la sfarsitul unui tick (vezi Item.Snapshot()).
+
+    Instantaneele sunt construite pe thread-ul de actualizare si desenate pe cel de randare, care nu mai citeste
+    deloc campurile entitatii. Intre doua instantanee consecutive pozitia este interpolata liniar.
+ */
+public final class ItemSnapshot
+{
+    public final float x;               /*!< Pozitia pe axa X, in lume.*/
+    public final float y;               /*!< Pozitia pe axa Y, in lume.*/
+    public final int width;             /*!< Latimea entitatii.*/
+    public final int height;            /*!< Inaltimea entitatii.*/
+    public final BufferedImage sprite;  /*!< Imaginea statica, deja la dimensiunea entitatii (sau null).*/
+    public final Animation animation;   /*!< Animatia curenta (are prioritate fata de sprite) sau null.*/
+    public final long animationStart;   /*!< Momentul (timp GameClock) la care a pornit animatia.*/
+
+    /*! \fn public ItemSnapshot(float x, float y, int width, int height, BufferedImage sprite, Animation animation, long animationStart)
+        \brief Constructorul clasei.
+     */
+    public ItemSnapshot(float x, float y, int width, int height, BufferedImage sprite, Animation animation, long animationStart)
+    {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.sprite = sprite;
+        this.animation = animation;
+        this.animationStart = animationStart;
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer, ItemSnapshot previous, float alpha, float cameraX, float cameraY, long timeMillis)
+        \brief Deseneaza entitatea la pozitia interpolata intre previous (alpha = 0) si acest instantaneu (alpha = 1).
+
+        \param buffer Lista de comenzi de desenare a frame-ului (stratul este ales de apelant).
+        \param previous Instantaneul tick-ului anterior sau null (fara interpolare).
+        \param alpha Factorul de interpolare, in [0, 1].
+        \param cameraX Deplasamentul camerei pe axa X.
+        \param cameraY Deplasamentul camerei pe axa Y.
+        \param timeMillis Momentul (timp GameClock) pentru care se alege cadrul animatiei.
+     */
+    public void Draw(DrawCommandBuffer buffer, ItemSnapshot previous, float alpha, float cameraX, float cameraY, long timeMillis)
+    {
+        float drawX = x;
+        float drawY = y;
+        if (previous != null)
+        {
+            drawX = previous.x + (x - previous.x) * alpha;
+            drawY = previous.y + (y - previous.y) * alpha;
+        }
+        ///Pozitia pe ecran este pozitia in lume minus deplasamentul camerei.
+        int screenX = (int)(drawX - cameraX);
+        int screenY = (int)(drawY - cameraY);
+        ///In timpul mersului se deseneaza cadrul curent din atlas, cu picioarele pe baza dreptunghiului entitatii.
+        if (animation != null)
+        {
+            animation.Draw(buffer, screenX + width / 2, screenY + height, animationStart, timeMillis);
+        }
+        else if (sprite != null)
+        {
+            buffer.DrawImage(sprite, screenX, screenY);
+        }
+    }
+}
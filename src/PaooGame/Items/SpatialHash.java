@@ -0,0 +1,434 @@
+package PaooGame.Items;
+
+import PaooGame.Tiles.Tile;
+
+import java.util.Arrays;
+
+/*! \class public class SpatialHash
+    \brief Grila uniforma pentru cautarea rapida a entitatilor apropiate (broadphase pentru coliziuni si atac).
+
+    Lumea este impartita in celule patrate, aliniate la dale (latura = un numar intreg de dale). Fiecare entitate
+    inregistrata apartine celulei in care se afla coltul stanga sus al dreptunghiului ei de coliziune; o
+    interogare parcurge doar celulele care pot contine entitati ce intersecteaza zona cautata (zona extinsa spre
+    stanga si in sus cu cel mai mare dreptunghi de coliziune inregistrat) si testeaza dreptunghiurile acestora.
+    Costul unei interogari depinde deci de densitatea locala, nu de numarul total de entitati.
+
+    Celulele sunt retinute intr-o tabela de dispersie cu adresare deschisa (cheia = coordonatele celulei), iar
+    entitatile dintr-o celula formeaza o lista dublu inlantuita in tablouri indexate dupa handle. Mutarea unei
+    entitati intr-o alta celula este O(1), iar interogarile nu aloca memorie: rezultatele (handle-uri) sunt scrise
+    in tabloul primit de la apelant.
+
+    Pozitiile si dreptunghiurile sunt citite din EntityStore; dupa deplasarea entitatilor se apeleaza Update()
+    sau UpdateAll(), iar o entitate stearsa din depozit trebuie intai scoasa din grila (Remove()).
+ */
+public class SpatialHash
+{
+    public static final int DEFAULT_CELL_TILES = 4;    /*!< Latura implicita a unei celule, in dale.*/
+
+    private static final int NONE = -1;
+
+    private final EntityStore store;
+    private final int cellSize;             /*!< Latura unei celule, in pixeli.*/
+
+        ///Tabela celulelor (dimensiune putere a lui 2, adresare deschisa liniara).
+    private long[] cellKeys;
+    private int[] cellHeads;                /*!< Primul handle din celula sau NONE.*/
+    private boolean[] cellUsed;
+    private int cellCount;
+
+        ///Listele celulelor, indexate dupa handle.
+    private long[] keyOf;                   /*!< Cheia celulei in care se afla entitatea.*/
+    private int[] next;
+    private int[] previous;
+    private boolean[] inserted;
+    private int size;
+
+    private int maxBoundsWidth;             /*!< Cel mai mare dreptunghi de coliziune inregistrat (extinderea interogarilor).*/
+    private int maxBoundsHeight;
+
+    /*! \fn public SpatialHash(EntityStore store)
+        \brief Constructorul clasei, cu celule de DEFAULT_CELL_TILES x DEFAULT_CELL_TILES dale.
+     */
+    public SpatialHash(EntityStore store)
+    {
+        this(store, DEFAULT_CELL_TILES);
+    }
+
+    /*! \fn public SpatialHash(EntityStore store, int cellTiles)
+        \brief Constructorul clasei.
+
+        \param store Depozitul din care se citesc pozitiile si dreptunghiurile de coliziune.
+        \param cellTiles Latura unei celule, in dale.
+     */
+    public SpatialHash(EntityStore store, int cellTiles)
+    {
+        if (cellTiles <= 0)
+        {
+            throw new IllegalArgumentException("Latura celulei trebuie sa fie pozitiva: " + cellTiles);
+        }
+        this.store = store;
+        this.cellSize = cellTiles * Math.max(Tile.TILE_WIDTH, Tile.TILE_HEIGHT);
+        cellKeys = new long[64];
+        cellHeads = new int[64];
+        cellUsed = new boolean[64];
+        keyOf = new long[64];
+        next = new int[64];
+        previous = new int[64];
+        inserted = new boolean[64];
+    }
+
+    /*! \fn public int GetCellSize()
+        \brief Returneaza latura unei celule, in pixeli.
+     */
+    public int GetCellSize()
+    {
+        return cellSize;
+    }
+
+    /*! \fn public int GetSize()
+        \brief Returneaza numarul de entitati inregistrate.
+     */
+    public int GetSize()
+    {
+        return size;
+    }
+
+    /*! \fn public void Insert(int handle)
+        \brief Inregistreaza entitatea in celula corespunzatoare pozitiei ei curente.
+     */
+    public void Insert(int handle)
+    {
+        int i = store.IndexOf(handle);
+        if (i < 0)
+        {
+            throw new IllegalArgumentException("Handle de entitate invalid: " + handle);
+        }
+        EnsureHandle(handle);
+        if (inserted[handle])
+        {
+            throw new IllegalStateException("Entitatea " + handle + " este deja in grila");
+        }
+        inserted[handle] = true;
+        size++;
+        TrackBounds(i);
+        Link(handle, CellKey(i));
+    }
+
+    /*! \fn public void Remove(int handle)
+        \brief Scoate entitatea din grila (se apeleaza inainte de EntityStore.Remove).
+     */
+    public void Remove(int handle)
+    {
+        if (!Contains(handle))
+        {
+            return;
+        }
+        Unlink(handle);
+        inserted[handle] = false;
+        size--;
+    }
+
+    /*! \fn public boolean Contains(int handle)
+        \brief Returneaza true daca entitatea este inregistrata in grila.
+     */
+    public boolean Contains(int handle)
+    {
+        return handle >= 0 && handle < inserted.length && inserted[handle];
+    }
+
+    /*! \fn public void Update(int handle)
+        \brief Muta entitatea in celula noii pozitii, daca aceasta s-a schimbat (O(1)).
+     */
+    public void Update(int handle)
+    {
+        if (!Contains(handle))
+        {
+            return;
+        }
+        int i = store.IndexOf(handle);
+        TrackBounds(i);
+        long key = CellKey(i);
+        if (key != keyOf[handle])
+        {
+            Unlink(handle);
+            Link(handle, key);
+        }
+    }
+
+    /*! \fn public void UpdateAll()
+        \brief Actualizeaza celulele tuturor entitatilor inregistrate (dupa rularea sistemului de deplasare).
+     */
+    public void UpdateAll()
+    {
+        int[] handles = store.handles;
+        for (int i = 0; i < store.count; i++)
+        {
+            int handle = handles[i];
+            if (handle >= inserted.length || !inserted[handle])
+            {
+                continue;
+            }
+            TrackBounds(i);
+            long key = CellKey(i);
+            if (key != keyOf[handle])
+            {
+                Unlink(handle);
+                Link(handle, key);
+            }
+        }
+    }
+
+    /*! \fn public int QueryRect(float x, float y, float width, float height, int[] out)
+        \brief Gaseste entitatile al caror dreptunghi de coliziune intersecteaza dreptunghiul dat (in lume).
+
+        \param out Tabloul in care sunt scrise handle-urile gasite; cautarea se opreste cand este plin.
+        \return Numarul de handle-uri scrise in out.
+     */
+    public int QueryRect(float x, float y, float width, float height, int[] out)
+    {
+        return Query(x, y, width, height, 0f, NONE, out);
+    }
+
+    /*! \fn public int QueryRadius(float centerX, float centerY, float radius, int[] out)
+        \brief Gaseste entitatile al caror dreptunghi de coliziune intersecteaza cercul dat (in lume).
+
+        \param out Tabloul in care sunt scrise handle-urile gasite; cautarea se opreste cand este plin.
+        \return Numarul de handle-uri scrise in out.
+     */
+    public int QueryRadius(float centerX, float centerY, float radius, int[] out)
+    {
+        return Query(centerX - radius, centerY - radius, 2 * radius, 2 * radius, radius, NONE, out);
+    }
+
+    /*! \fn public int QueryOverlaps(int handle, int[] out)
+        \brief Gaseste celelalte entitati care se suprapun cu dreptunghiul de coliziune curent al entitatii date.
+
+        Dreptunghiul curent este cel normal sau, dupa SetAttackMode(), cel de atac; rezultatul sunt deci
+        coliziunile, respectiv entitatile lovite de atac. Entitatea insasi nu este inclusa.
+
+        \return Numarul de handle-uri scrise in out.
+     */
+    public int QueryOverlaps(int handle, int[] out)
+    {
+        int i = store.IndexOf(handle);
+        if (i < 0)
+        {
+            return 0;
+        }
+        return Query(store.x[i] + store.boundsX[i], store.y[i] + store.boundsY[i],
+                store.boundsWidth[i], store.boundsHeight[i], 0f, handle, out);
+    }
+
+    /*! \fn private int Query(float x, float y, float width, float height, float radius, int exclude, int[] out)
+        \brief Parcurge celulele acoperite de dreptunghi; pentru radius > 0 dreptunghiul este cel care incadreaza cercul.
+     */
+    private int Query(float x, float y, float width, float height, float radius, int exclude, int[] out)
+    {
+        int found = 0;
+        if (size == 0 || out.length == 0)
+        {
+            return 0;
+        }
+        float right = x + width;
+        float bottom = y + height;
+        int firstColumn = Cell(x - maxBoundsWidth);
+        int lastColumn = Cell(right);
+        int firstRow = Cell(y - maxBoundsHeight);
+        int lastRow = Cell(bottom);
+
+        float[] ex = store.x;
+        float[] ey = store.y;
+        int[] bx = store.boundsX;
+        int[] by = store.boundsY;
+        int[] bw = store.boundsWidth;
+        int[] bh = store.boundsHeight;
+        float centerX = x + radius;
+        float centerY = y + radius;
+        float radiusSquared = radius * radius;
+
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            for (int column = firstColumn; column <= lastColumn; column++)
+            {
+                int slot = Find(Key(column, row));
+                if (slot < 0)
+                {
+                    continue;
+                }
+                for (int handle = cellHeads[slot]; handle != NONE; handle = next[handle])
+                {
+                    if (handle == exclude)
+                    {
+                        continue;
+                    }
+                    int i = store.IndexOf(handle);
+                    float left = ex[i] + bx[i];
+                    float top = ey[i] + by[i];
+                    float entityRight = left + bw[i];
+                    float entityBottom = top + bh[i];
+                    if (left >= right || entityRight <= x || top >= bottom || entityBottom <= y)
+                    {
+                        continue;
+                    }
+                    if (radius > 0f)
+                    {
+                        ///Distanta de la centrul cercului la cel mai apropiat punct al dreptunghiului.
+                        float dx = centerX - Math.max(left, Math.min(centerX, entityRight));
+                        float dy = centerY - Math.max(top, Math.min(centerY, entityBottom));
+                        if (dx * dx + dy * dy > radiusSquared)
+                        {
+                            continue;
+                        }
+                    }
+                    out[found++] = handle;
+                    if (found == out.length)
+                    {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private void TrackBounds(int i)
+    {
+        maxBoundsWidth = Math.max(maxBoundsWidth, store.boundsWidth[i]);
+        maxBoundsHeight = Math.max(maxBoundsHeight, store.boundsHeight[i]);
+    }
+
+    private int Cell(float coordinate)
+    {
+        return (int)Math.floor(coordinate / cellSize);
+    }
+
+    private long CellKey(int i)
+    {
+        return Key(Cell(store.x[i] + store.boundsX[i]), Cell(store.y[i] + store.boundsY[i]));
+    }
+
+    private static long Key(int column, int row)
+    {
+        return ((long)column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    private static int Hash(long key, int mask)
+    {
+        return (int)((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+
+    /*! \fn private int Find(long key)
+        \brief Returneaza pozitia celulei in tabela sau -1 daca celula nu a fost folosita niciodata.
+     */
+    private int Find(long key)
+    {
+        int mask = cellKeys.length - 1;
+        for (int slot = Hash(key, mask); cellUsed[slot]; slot = (slot + 1) & mask)
+        {
+            if (cellKeys[slot] == key)
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /*! \fn private int FindOrAdd(long key)
+        \brief Returneaza pozitia celulei in tabela, adaugand-o daca lipseste.
+
+        Celulele golite raman in tabela (numarul lor este limitat de suprafata parcursa de entitati).
+     */
+    private int FindOrAdd(long key)
+    {
+        if ((cellCount + 1) * 2 > cellKeys.length)
+        {
+            Rehash(cellKeys.length * 2);
+        }
+        int mask = cellKeys.length - 1;
+        int slot = Hash(key, mask);
+        while (cellUsed[slot])
+        {
+            if (cellKeys[slot] == key)
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        cellUsed[slot] = true;
+        cellKeys[slot] = key;
+        cellHeads[slot] = NONE;
+        cellCount++;
+        return slot;
+    }
+
+    private void Rehash(int capacity)
+    {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        boolean[] oldUsed = cellUsed;
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        cellUsed = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int old = 0; old < oldKeys.length; old++)
+        {
+            if (!oldUsed[old])
+            {
+                continue;
+            }
+            int slot = Hash(oldKeys[old], mask);
+            while (cellUsed[slot])
+            {
+                slot = (slot + 1) & mask;
+            }
+            cellUsed[slot] = true;
+            cellKeys[slot] = oldKeys[old];
+            cellHeads[slot] = oldHeads[old];
+        }
+    }
+
+    private void Link(int handle, long key)
+    {
+        int slot = FindOrAdd(key);
+        int head = cellHeads[slot];
+        keyOf[handle] = key;
+        previous[handle] = NONE;
+        next[handle] = head;
+        if (head != NONE)
+        {
+            previous[head] = handle;
+        }
+        cellHeads[slot] = handle;
+    }
+
+    private void Unlink(int handle)
+    {
+        int before = previous[handle];
+        int after = next[handle];
+        if (before != NONE)
+        {
+            next[before] = after;
+        }
+        else
+        {
+            cellHeads[Find(keyOf[handle])] = after;
+        }
+        if (after != NONE)
+        {
+            previous[after] = before;
+        }
+    }
+
+    private void EnsureHandle(int handle)
+    {
+        if (handle < inserted.length)
+        {
+            return;
+        }
+        int capacity = Math.max(handle + 1, inserted.length * 2);
+        keyOf = Arrays.copyOf(keyOf, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        inserted = Arrays.copyOf(inserted, capacity);
+    }
+}
@@ -1,10 +1,107 @@
 package PaooGame;
 
+import PaooGame.Input.InputReplay;
+
+import java.io.File;
+import java.io.IOException;
+
 public class Main
 {
     public static void main(String[] args)
     {
+        /// --headless [tick-uri] [--no-render] [--min-tps valoare] [--replay fisier]: simulare fara fereastra,
+        /// pentru teste de performanta.
+        if (args.length > 0 && "--headless".equals(args[0]))
+        {
+            RunHeadless(args);
+            return;
+        }
+
         Game paooGame = new Game("PaooGame", 1280, 720);
+        /// --record fisier: inregistreaza input-ul sesiunii; --replay fisier: reda o sesiune inregistrata;
+        /// --single-thread: actualizarea si desenarea ruleaza pe acelasi thread.
+        for (int i = 0; i < args.length; i++)
+        {
+            if ("--record".equals(args[i]) && i + 1 < args.length)
+            {
+                paooGame.RecordInput(new File(args[++i]));
+            }
+            else if ("--replay".equals(args[i]) && i + 1 < args.length)
+            {
+                paooGame.SetInputReplay(LoadReplay(args[++i]));
+            }
+            else if ("--single-thread".equals(args[i]))
+            {
+                paooGame.SetThreadedRender(false);
+            }
+        }
         paooGame.StartGame();
     }
+
+    /*! \fn private static void RunHeadless(String[] args)
+        \brief Ruleaza simularea headless si iese cu codul 1 daca tick-urile pe secunda sunt sub pragul --min-tps.
+     */
+    private static void RunHeadless(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        int ticks = -1;
+        Game.HeadlessRender render = Game.HeadlessRender.OFFSCREEN;
+        double minTicksPerSecond = 0;
+        InputReplay replay = null;
+        for (int i = 1; i < args.length; i++)
+        {
+            if ("--no-render".equals(args[i]))
+            {
+                render = Game.HeadlessRender.NONE;
+            }
+            else if ("--min-tps".equals(args[i]) && i + 1 < args.length)
+            {
+                minTicksPerSecond = Double.parseDouble(args[++i]);
+            }
+            else if ("--replay".equals(args[i]) && i + 1 < args.length)
+            {
+                replay = LoadReplay(args[++i]);
+            }
+            else
+            {
+                ticks = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (ticks < 0)
+        {
+            /// Implicit se simuleaza durata inregistrarii sau 6000 de tick-uri
+            ticks = replay != null ? (int)replay.GetTickCount() : 6000;
+        }
+
+        Game paooGame = new Game(1280, 720, render);
+        if (replay != null)
+        {
+            paooGame.SetInputReplay(replay);
+        }
+        double ticksPerSecond = paooGame.RunHeadless(ticks);
+        if (ticksPerSecond < minTicksPerSecond)
+        {
+            System.err.printf("✗ Regresie de performanta: %.1f tick-uri/s, minimul cerut este %.1f%n", ticksPerSecond, minTicksPerSecond);
+            System.exit(1);
+        }
+    }
+
+    /*! \fn private static InputReplay LoadReplay(String path)
+        \brief Incarca o inregistrare de input; o eroare de citire opreste programul.
+     */
+    private static InputReplay LoadReplay(String path)
+    {
+        try
+        {
+            return InputReplay.Load(new File(path));
+        }
+        catch (IOException e)
+        {
+            System.err.println("✗ Inregistrarea de input nu a putut fi citita: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
 }
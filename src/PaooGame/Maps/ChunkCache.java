@@ -0,0 +1,197 @@
+package PaooGame.Maps;
+
+import PaooGame.Graphics.CompatibleImages;
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Tiles.Tile;
+import PaooGame.Tiles.TilesetRegistry;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache de "chunk-uri" pre-desenate pentru layer-urile statice ale hărții.
+ *
+ * Harta este împărțită în bucăți de CHUNK_SIZE x CHUNK_SIZE dale. Fiecare bucată vizibilă este desenată
+ * o singură dată (toate layer-urile vizibile, în ordine) într-o imagine compatibilă cu ecranul, iar la
+ * fiecare frame se desenează doar aceste imagini: câteva zeci de drawImage în loc de mii.
+ * Bucățile nefolosite recent sunt eliminate (LRU), iar imaginile lor sunt refolosite la următoarea coacere.
+ * La coacere se rețin și GID-urile animate din chunk, astfel încât la schimbarea unui cadru de animație
+ * să fie recoapte doar chunk-urile care conțin acel GID.
+ */
+class ChunkCache {
+    public static final int CHUNK_SIZE = 32;        // Dimensiunea unui chunk, în dale
+    private static final int MIN_CAPACITY = 16;     // Numărul minim de chunk-uri păstrate în cache
+
+    private final Map map;
+    private final int chunksX;
+    private final int chunksY;
+    private int capacity = MIN_CAPACITY;
+
+    // Ordinea de acces face din LinkedHashMap o listă LRU: primul element e cel mai vechi folosit.
+    private final LinkedHashMap<Integer, BufferedImage> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private final ArrayDeque<BufferedImage> freeImages = new ArrayDeque<>();
+    // GID-urile animate din fiecare chunk, determinate la ultima coacere (indexate după cheia chunk-ului)
+    private final int[][] animatedGids;
+
+    private int lastDrawCalls;
+    private int bakeCount;
+
+    ChunkCache(Map map, int mapWidth, int mapHeight) {
+        this.map = map;
+        this.chunksX = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.animatedGids = new int[chunksX * chunksY][];
+    }
+
+    /**
+     * Desenează chunk-urile care se suprapun cu fereastra [camX, camX + viewW) x [camY, camY + viewH).
+     */
+    void Draw(DrawCommandBuffer buffer, int camX, int camY, int viewW, int viewH) {
+        final int chunkW = CHUNK_SIZE * Tile.TILE_WIDTH;
+        final int chunkH = CHUNK_SIZE * Tile.TILE_HEIGHT;
+
+        int cxStart = Math.max(0, Math.floorDiv(camX, chunkW));
+        int cyStart = Math.max(0, Math.floorDiv(camY, chunkH));
+        int cxEnd = Math.min(chunksX, Math.floorDiv(camX + viewW + chunkW - 1, chunkW));
+        int cyEnd = Math.min(chunksY, Math.floorDiv(camY + viewH + chunkH - 1, chunkH));
+
+        // Cache-ul trebuie să încapă cel puțin de două ori fereastra, altfel s-ar recoace la fiecare frame.
+        int visible = Math.max(0, cxEnd - cxStart) * Math.max(0, cyEnd - cyStart);
+        capacity = Math.max(capacity, visible * 2);
+
+        int drawCalls = 0;
+        for (int cy = cyStart; cy < cyEnd; cy++) {
+            for (int cx = cxStart; cx < cxEnd; cx++) {
+                BufferedImage image = GetChunk(cx, cy);
+                buffer.DrawImage(image, cx * chunkW - camX, cy * chunkH - camY);
+                drawCalls++;
+            }
+        }
+        lastDrawCalls = drawCalls;
+    }
+
+    /**
+     * Marchează ca invalid chunk-ul care conține dala (tileX, tileY); va fi recopt la următoarea desenare.
+     */
+    void Invalidate(int tileX, int tileY) {
+        int key = (tileY / CHUNK_SIZE) * chunksX + (tileX / CHUNK_SIZE);
+        BufferedImage image = chunks.remove(key);
+        if (image != null) {
+            freeImages.push(image);
+        }
+    }
+
+    /**
+     * Invalidează chunk-urile din cache care conțin GID-uri al căror cadru s-a schimbat la ultimul
+     * TilesetRegistry.UpdateAnimations(). Chunk-urile fără dale animate nu sunt atinse.
+     */
+    void InvalidateAnimated(TilesetRegistry registry) {
+        for (Iterator<java.util.Map.Entry<Integer, BufferedImage>> it = chunks.entrySet().iterator(); it.hasNext(); ) {
+            java.util.Map.Entry<Integer, BufferedImage> entry = it.next();
+            for (int gid : animatedGids[entry.getKey()]) {
+                if (registry.IsFrameChanged(gid)) {
+                    freeImages.push(entry.getValue());
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidează toate chunk-urile (de exemplu la schimbarea vizibilității unui layer).
+     */
+    void InvalidateAll() {
+        freeImages.addAll(chunks.values());
+        chunks.clear();
+    }
+
+    int GetLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    int GetBakeCount() {
+        return bakeCount;
+    }
+
+    int GetCachedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Numărul de chunk-uri din cache pe care Java2D le ține în memoria video.
+     */
+    int CountAcceleratedChunks() {
+        int count = 0;
+        for (BufferedImage image : chunks.values()) {
+            if (CompatibleImages.IsAccelerated(image)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private BufferedImage GetChunk(int cx, int cy) {
+        int key = cy * chunksX + cx;
+        BufferedImage image = chunks.get(key);
+        if (image == null) {
+            image = Bake(cx, cy);
+            chunks.put(key, image);
+            animatedGids[key] = map.CollectAnimatedGids(cx * CHUNK_SIZE, cy * CHUNK_SIZE,
+                    Math.min((cx + 1) * CHUNK_SIZE, map.GetWidth()), Math.min((cy + 1) * CHUNK_SIZE, map.GetHeight()));
+            EvictOverCapacity();
+        }
+        return image;
+    }
+
+    /**
+     * Elimină cele mai vechi chunk-uri până când cache-ul respectă capacitatea; imaginile lor devin refolosibile.
+     */
+    private void EvictOverCapacity() {
+        Iterator<BufferedImage> it = chunks.values().iterator();
+        while (chunks.size() > capacity && it.hasNext()) {
+            BufferedImage evicted = it.next();
+            it.remove();
+            if (freeImages.size() < MIN_CAPACITY) {
+                freeImages.push(evicted);
+            }
+        }
+    }
+
+    private BufferedImage Bake(int cx, int cy) {
+        int x0 = cx * CHUNK_SIZE;
+        int y0 = cy * CHUNK_SIZE;
+        int x1 = Math.min(x0 + CHUNK_SIZE, map.GetWidth());
+        int y1 = Math.min(y0 + CHUNK_SIZE, map.GetHeight());
+        int w = (x1 - x0) * Tile.TILE_WIDTH;
+        int h = (y1 - y0) * Tile.TILE_HEIGHT;
+
+        BufferedImage image = AcquireImage(w, h);
+        Graphics2D g = image.createGraphics();
+        try {
+            // Imaginea poate fi refolosită, așa că este golită complet (transparent) înainte de desenare.
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, w, h);
+            g.setComposite(AlphaComposite.SrcOver);
+            map.DrawTiles(g, x0, y0, x1, y1, x0 * Tile.TILE_WIDTH, y0 * Tile.TILE_HEIGHT);
+        } finally {
+            g.dispose();
+        }
+        bakeCount++;
+        return image;
+    }
+
+    private BufferedImage AcquireImage(int w, int h) {
+        for (Iterator<BufferedImage> it = freeImages.iterator(); it.hasNext(); ) {
+            BufferedImage image = it.next();
+            if (image.getWidth() == w && image.getHeight() == h) {
+                it.remove();
+                return image;
+            }
+        }
+        return CompatibleImages.Create(w, h, Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,207 @@
+package PaooGame.Maps;
+
+import PaooGame.Tiles.Tile;
+import PaooGame.Tiles.TilesetRegistry;
+
+import java.util.List;
+
+/**
+ * Harta de coliziuni: un bit per celulă (1 = solidă), rânduri consecutive, construită o singură dată la
+ * încărcarea hărții prin combinarea tuturor layer-elor. O celulă este solidă dacă pe oricare layer are o dală
+ * marcată "solid" în tileset sau dacă se află pe un layer cu proprietatea "collision" și nu este goală.
+ *
+ * Interogările folosesc doar operații pe biți, deci costul unei coliziuni nu depinde de numărul de layer-e.
+ * Celulele din afara hărții sunt considerate solide (marginile hărții blochează deplasarea).
+ */
+public class CollisionMap {
+    private final int width;
+    private final int height;
+    private final long[] bits;
+
+    CollisionMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(int) (((long) width * height + 63) >>> 6)];
+    }
+
+    /**
+     * Construiește harta de coliziuni pentru layer-ele date; chunk-urile goale ale layer-elor sunt sărite.
+     */
+    static CollisionMap Build(int width, int height, List<MapLayer> layers, TilesetRegistry registry) {
+        CollisionMap collision = new CollisionMap(width, height);
+        for (MapLayer layer : layers) {
+            LayerStore store = layer.tiles;
+            int chunksX = (width + LayerStore.CHUNK_SIZE - 1) >> LayerStore.CHUNK_SHIFT;
+            int chunksY = (height + LayerStore.CHUNK_SIZE - 1) >> LayerStore.CHUNK_SHIFT;
+            for (int cy = 0; cy < chunksY; cy++) {
+                for (int cx = 0; cx < chunksX; cx++) {
+                    if (store.IsChunkEmpty(cx, cy)) continue;
+
+                    int yEnd = Math.min(height, (cy + 1) << LayerStore.CHUNK_SHIFT);
+                    int xEnd = Math.min(width, (cx + 1) << LayerStore.CHUNK_SHIFT);
+                    for (int y = cy << LayerStore.CHUNK_SHIFT; y < yEnd; y++) {
+                        for (int x = cx << LayerStore.CHUNK_SHIFT; x < xEnd; x++) {
+                            if (IsSolidGid(store.Get(x, y), layer, registry)) {
+                                collision.Set(x, y, true);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return collision;
+    }
+
+    /**
+     * Recalculează o singură celulă (după modificarea unei dale) din toate layer-ele.
+     */
+    void Refresh(int x, int y, List<MapLayer> layers, TilesetRegistry registry) {
+        boolean solid = false;
+        for (MapLayer layer : layers) {
+            if (IsSolidGid(layer.tiles.Get(x, y), layer, registry)) {
+                solid = true;
+                break;
+            }
+        }
+        Set(x, y, solid);
+    }
+
+    private static boolean IsSolidGid(int gid, MapLayer layer, TilesetRegistry registry) {
+        if (gid == 0) {
+            return false;
+        }
+        return layer.collision || (registry != null && registry.IsSolid(gid));
+    }
+
+    void Set(int x, int y, boolean solid) {
+        int index = y * width + x;
+        if (solid) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Returnează true dacă celula (în coordonate de dale) este solidă sau în afara hărții.
+     */
+    public boolean IsSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return true;
+        }
+        int index = y * width + x;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returnează true dacă oricare celulă din coloana x, între rândurile y0 și y1 (inclusiv), este solidă.
+     */
+    public boolean IsColumnSolid(int x, int y0, int y1) {
+        for (int y = y0; y <= y1; y++) {
+            if (IsSolid(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returnează true dacă oricare celulă din rândul y, între coloanele x0 și x1 (inclusiv), este solidă.
+     */
+    public boolean IsRowSolid(int y, int x0, int x1) {
+        for (int x = x0; x <= x1; x++) {
+            if (IsSolid(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deplasează pe axa X, cu dx pixeli, o entitate aflată la (x, y) al cărei dreptunghi de coliziune este
+     * (boundsX, boundsY, boundsW, boundsH) relativ la poziția ei. Returnează noua poziție x: entitatea se
+     * oprește lipită de prima coloană de celule solide traversată de marginea dreptunghiului.
+     * Folosită atât de Character, cât și de sistemul de deplasare al EntityStore.
+     */
+    public float SweepX(float x, float y, float dx, int boundsX, int boundsY, int boundsW, int boundsH) {
+        if (dx == 0) {
+            return x;
+        }
+
+        // Rândurile de dale acoperite de dreptunghiul de coliziune.
+        int top = (int) Math.floor((y + boundsY) / Tile.TILE_HEIGHT);
+        int bottom = (int) Math.ceil((y + boundsY + boundsH) / Tile.TILE_HEIGHT) - 1;
+
+        if (dx > 0) {
+            int from = (int) Math.ceil((x + boundsX + boundsW) / Tile.TILE_WIDTH) - 1;
+            int to = (int) Math.ceil((x + dx + boundsX + boundsW) / Tile.TILE_WIDTH) - 1;
+            for (int column = from + 1; column <= to; column++) {
+                if (IsColumnSolid(column, top, bottom)) {
+                    // Lipește marginea dreaptă a dreptunghiului de coliziune de coloana solidă.
+                    return column * Tile.TILE_WIDTH - boundsX - boundsW;
+                }
+            }
+        } else {
+            int from = (int) Math.floor((x + boundsX) / Tile.TILE_WIDTH);
+            int to = (int) Math.floor((x + dx + boundsX) / Tile.TILE_WIDTH);
+            for (int column = from - 1; column >= to; column--) {
+                if (IsColumnSolid(column, top, bottom)) {
+                    // Lipește marginea stângă a dreptunghiului de coliziune de coloana solidă.
+                    return (column + 1) * Tile.TILE_WIDTH - boundsX;
+                }
+            }
+        }
+        return x + dx;
+    }
+
+    /**
+     * Echivalentul pe axa Y al SweepX: returnează noua poziție y, oprită la primul rând de celule solide.
+     */
+    public float SweepY(float x, float y, float dy, int boundsX, int boundsY, int boundsW, int boundsH) {
+        if (dy == 0) {
+            return y;
+        }
+
+        // Coloanele de dale acoperite de dreptunghiul de coliziune.
+        int left = (int) Math.floor((x + boundsX) / Tile.TILE_WIDTH);
+        int right = (int) Math.ceil((x + boundsX + boundsW) / Tile.TILE_WIDTH) - 1;
+
+        if (dy > 0) {
+            int from = (int) Math.ceil((y + boundsY + boundsH) / Tile.TILE_HEIGHT) - 1;
+            int to = (int) Math.ceil((y + dy + boundsY + boundsH) / Tile.TILE_HEIGHT) - 1;
+            for (int row = from + 1; row <= to; row++) {
+                if (IsRowSolid(row, left, right)) {
+                    return row * Tile.TILE_HEIGHT - boundsY - boundsH;
+                }
+            }
+        } else {
+            int from = (int) Math.floor((y + boundsY) / Tile.TILE_HEIGHT);
+            int to = (int) Math.floor((y + dy + boundsY) / Tile.TILE_HEIGHT);
+            for (int row = from - 1; row >= to; row--) {
+                if (IsRowSolid(row, left, right)) {
+                    return (row + 1) * Tile.TILE_HEIGHT - boundsY;
+                }
+            }
+        }
+        return y + dy;
+    }
+
+    /**
+     * Returnează numărul de celule solide (pentru diagnosticare).
+     */
+    public int GetSolidCount() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int GetWidth() {
+        return width;
+    }
+
+    public int GetHeight() {
+        return height;
+    }
+}
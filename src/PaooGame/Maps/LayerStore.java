@@ -0,0 +1,425 @@
+package PaooGame.Maps;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stocare compactă pentru GID-urile unui layer.
+ *
+ * Layer-ul este împărțit în chunk-uri de CHUNK_SIZE x CHUNK_SIZE dale; fiecare chunk este un vector plat,
+ * în ordinea rândurilor (indice (y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE), iar chunk-urile complet
+ * goale (doar GID 0) nu sunt alocate deloc. Lățimea celulei se alege după conținutul layer-ului:
+ *   - PALETTE: cel mult 256 de GID-uri distincte, 1 octet per celulă (indice în paletă);
+ *   - SHORT: GID-uri până la 65535, 2 octeți per celulă;
+ *   - INT: orice altceva (inclusiv GID-uri cu biți de oglindire), 4 octeți per celulă.
+ */
+final class LayerStore {
+    static final int CHUNK_SHIFT = 5;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;         // 32 de dale
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+    static final byte MODE_PALETTE = 0;
+    static final byte MODE_SHORT = 1;
+    static final byte MODE_INT = 2;
+
+    private static final int MAX_PALETTE = 256;
+    private static final int MAX_SHORT_GID = 0xFFFF;
+
+    final int width;
+    final int height;
+    final int chunksX;
+    final int chunksY;
+
+    byte mode;
+    int[] palette;          // Doar pentru MODE_PALETTE; palette[0] este mereu 0 (dală goală)
+    int paletteSize;
+    private int[] paletteLookup; // GID -> indice în paletă, doar pe durata construirii
+    byte[][] byteChunks;    // MODE_PALETTE
+    short[][] shortChunks;  // MODE_SHORT
+    int[][] intChunks;      // MODE_INT
+
+    /**
+     * Creează un layer gol (toate chunk-urile nealocate).
+     */
+    LayerStore(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.mode = MODE_PALETTE;
+        this.palette = new int[MAX_PALETTE];
+        this.paletteSize = 1;
+        this.byteChunks = new byte[chunksX * chunksY][];
+    }
+
+    /**
+     * Construiește stocarea dintr-un vector de GID-uri în ordinea rândurilor (așa cum apar în TMX).
+     * Sunt folosite doar primele width * height elemente ale vectorului.
+     */
+    static LayerStore Build(int[] gids, int width, int height) {
+        LayerStore store = new LayerStore(width, height);
+        store.Fill(gids);
+        return store;
+    }
+
+    /**
+     * Returnează GID-ul de la (x, y). Apelantul garantează că poziția este în interiorul layer-ului.
+     */
+    int Get(int x, int y) {
+        int chunk = (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+        int cell = ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+        switch (mode) {
+            case MODE_PALETTE: {
+                byte[] cells = byteChunks[chunk];
+                return cells == null ? 0 : palette[cells[cell] & 0xFF];
+            }
+            case MODE_SHORT: {
+                short[] cells = shortChunks[chunk];
+                return cells == null ? 0 : cells[cell] & 0xFFFF;
+            }
+            default: {
+                int[] cells = intChunks[chunk];
+                return cells == null ? 0 : cells[cell];
+            }
+        }
+    }
+
+    /**
+     * Returnează true dacă chunk-ul (cx, cy) nu conține nicio dală (nu este alocat).
+     */
+    boolean IsChunkEmpty(int cx, int cy) {
+        int chunk = cy * chunksX + cx;
+        switch (mode) {
+            case MODE_PALETTE:
+                return byteChunks[chunk] == null;
+            case MODE_SHORT:
+                return shortChunks[chunk] == null;
+            default:
+                return intChunks[chunk] == null;
+        }
+    }
+
+    /**
+     * Modifică GID-ul de la (x, y); dacă valoarea nu încape în modul curent, stocarea este convertită.
+     */
+    void Set(int x, int y, int gid) {
+        int chunk = (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+        int cell = ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+
+        if (mode == MODE_PALETTE) {
+            int index = PaletteIndex(gid);
+            if (index < 0) {
+                if (paletteSize == MAX_PALETTE) {
+                    Promote(x, y, gid);
+                    return;
+                }
+                index = paletteSize;
+                palette[paletteSize++] = gid;
+            }
+            if (byteChunks[chunk] == null) {
+                if (gid == 0) {
+                    return;
+                }
+                byteChunks[chunk] = new byte[CHUNK_CELLS];
+            }
+            byteChunks[chunk][cell] = (byte) index;
+        } else if (mode == MODE_SHORT) {
+            if (gid < 0 || gid > MAX_SHORT_GID) {
+                Promote(x, y, gid);
+                return;
+            }
+            if (shortChunks[chunk] == null) {
+                if (gid == 0) {
+                    return;
+                }
+                shortChunks[chunk] = new short[CHUNK_CELLS];
+            }
+            shortChunks[chunk][cell] = (short) gid;
+        } else {
+            if (intChunks[chunk] == null) {
+                if (gid == 0) {
+                    return;
+                }
+                intChunks[chunk] = new int[CHUNK_CELLS];
+            }
+            intChunks[chunk][cell] = gid;
+        }
+    }
+
+    /**
+     * Copiază întregul layer într-un vector în ordinea rândurilor.
+     */
+    void CopyTo(int[] gids) {
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                gids[row + x] = Get(x, y);
+            }
+        }
+    }
+
+    /**
+     * Estimează memoria ocupată (antete de vector de 16 octeți incluse).
+     */
+    long GetMemoryBytes() {
+        long bytes = 16L + 4L * chunksX * chunksY;
+        int cellBytes = mode == MODE_PALETTE ? 1 : mode == MODE_SHORT ? 2 : 4;
+        for (int chunk = 0; chunk < chunksX * chunksY; chunk++) {
+            if (!IsChunkEmpty(chunk % chunksX, chunk / chunksX)) {
+                bytes += 16L + (long) CHUNK_CELLS * cellBytes;
+            }
+        }
+        if (mode == MODE_PALETTE) {
+            bytes += 16L + 4L * palette.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Numără chunk-urile alocate (care conțin cel puțin o dală).
+     */
+    int GetAllocatedChunkCount() {
+        int count = 0;
+        for (int chunk = 0; chunk < chunksX * chunksY; chunk++) {
+            if (!IsChunkEmpty(chunk % chunksX, chunk / chunksX)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returnează numărul de octeți ocupați de layer în formatul binar al cache-ului (vezi Write).
+     */
+    int GetSerializedSize() {
+        int cellBytes = mode == MODE_PALETTE ? 1 : mode == MODE_SHORT ? 2 : 4;
+        int size = 1 + chunksX * chunksY + GetAllocatedChunkCount() * CHUNK_CELLS * cellBytes;
+        if (mode == MODE_PALETTE) {
+            size += 4 + 4 * paletteSize;
+        }
+        return size;
+    }
+
+    /**
+     * Scrie layer-ul în cache: modul, paleta (dacă e cazul), un octet de prezență per chunk,
+     * apoi conținutul chunk-urilor alocate, exact cum este în memorie.
+     */
+    void Write(ByteBuffer out) {
+        out.put(mode);
+        if (mode == MODE_PALETTE) {
+            out.putInt(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                out.putInt(palette[i]);
+            }
+        }
+
+        int chunkCount = chunksX * chunksY;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            out.put((byte) (IsChunkEmpty(chunk % chunksX, chunk / chunksX) ? 0 : 1));
+        }
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (mode == MODE_PALETTE && byteChunks[chunk] != null) {
+                out.put(byteChunks[chunk]);
+            } else if (mode == MODE_SHORT && shortChunks[chunk] != null) {
+                out.asShortBuffer().put(shortChunks[chunk]);
+                out.position(out.position() + CHUNK_CELLS * 2);
+            } else if (mode == MODE_INT && intChunks[chunk] != null) {
+                out.asIntBuffer().put(intChunks[chunk]);
+                out.position(out.position() + CHUNK_CELLS * 4);
+            }
+        }
+    }
+
+    /**
+     * Citește un layer scris cu Write; chunk-urile sunt copiate în bloc din buffer (fișierul de cache citit integral în heap de MapCache.ReadFully).
+     */
+    static LayerStore Read(ByteBuffer in, int width, int height) {
+        LayerStore store = new LayerStore(width, height);
+        store.mode = in.get();
+        int chunkCount = store.chunksX * store.chunksY;
+
+        if (store.mode == MODE_PALETTE) {
+            store.paletteSize = in.getInt();
+            for (int i = 0; i < store.paletteSize; i++) {
+                store.palette[i] = in.getInt();
+            }
+        } else if (store.mode == MODE_SHORT) {
+            store.byteChunks = null;
+            store.shortChunks = new short[chunkCount][];
+        } else if (store.mode == MODE_INT) {
+            store.byteChunks = null;
+            store.intChunks = new int[chunkCount][];
+        } else {
+            throw new IllegalStateException("Mod de stocare necunoscut: " + store.mode);
+        }
+
+        int presence = in.position();
+        in.position(presence + chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (in.get(presence + chunk) == 0) {
+                continue;
+            }
+            if (store.mode == MODE_PALETTE) {
+                byte[] cells = new byte[CHUNK_CELLS];
+                in.get(cells);
+                store.byteChunks[chunk] = cells;
+            } else if (store.mode == MODE_SHORT) {
+                short[] cells = new short[CHUNK_CELLS];
+                in.asShortBuffer().get(cells);
+                in.position(in.position() + CHUNK_CELLS * 2);
+                store.shortChunks[chunk] = cells;
+            } else {
+                int[] cells = new int[CHUNK_CELLS];
+                in.asIntBuffer().get(cells);
+                in.position(in.position() + CHUNK_CELLS * 4);
+                store.intChunks[chunk] = cells;
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Alege modul cel mai compact pentru GID-urile date și umple chunk-urile.
+     */
+    private void Fill(int[] gids) {
+        byte newMode = ChooseMode(gids);
+        mode = newMode;
+        byteChunks = null;
+        shortChunks = null;
+        intChunks = null;
+
+        int chunkCount = chunksX * chunksY;
+        if (mode == MODE_PALETTE) {
+            byteChunks = new byte[chunkCount][];
+        } else if (mode == MODE_SHORT) {
+            shortChunks = new short[chunkCount][];
+        } else {
+            intChunks = new int[chunkCount][];
+        }
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            int y0 = cy << CHUNK_SHIFT;
+            int y1 = Math.min(y0 + CHUNK_SIZE, height);
+            for (int cx = 0; cx < chunksX; cx++) {
+                int x0 = cx << CHUNK_SHIFT;
+                int x1 = Math.min(x0 + CHUNK_SIZE, width);
+                if (IsRegionEmpty(gids, x0, y0, x1, y1)) {
+                    continue;
+                }
+
+                int chunk = cy * chunksX + cx;
+                if (mode == MODE_PALETTE) {
+                    byte[] cells = new byte[CHUNK_CELLS];
+                    for (int y = y0; y < y1; y++) {
+                        int src = y * width;
+                        int dst = (y - y0) << CHUNK_SHIFT;
+                        for (int x = x0; x < x1; x++) {
+                            cells[dst + x - x0] = (byte) paletteLookup[gids[src + x]];
+                        }
+                    }
+                    byteChunks[chunk] = cells;
+                } else if (mode == MODE_SHORT) {
+                    short[] cells = new short[CHUNK_CELLS];
+                    for (int y = y0; y < y1; y++) {
+                        int src = y * width;
+                        int dst = (y - y0) << CHUNK_SHIFT;
+                        for (int x = x0; x < x1; x++) {
+                            cells[dst + x - x0] = (short) gids[src + x];
+                        }
+                    }
+                    shortChunks[chunk] = cells;
+                } else {
+                    int[] cells = new int[CHUNK_CELLS];
+                    for (int y = y0; y < y1; y++) {
+                        System.arraycopy(gids, y * width + x0, cells, (y - y0) << CHUNK_SHIFT, x1 - x0);
+                    }
+                    intChunks[chunk] = cells;
+                }
+            }
+        }
+        paletteLookup = null;
+    }
+
+    /**
+     * Determină modul: paletă dacă sunt cel mult 256 de valori distincte (incluzând 0), short dacă toate
+     * GID-urile încap pe 16 biți fără semn, altfel int. Paleta rezultată este sortată crescător.
+     */
+    private byte ChooseMode(int[] gids) {
+        final int total = width * height;
+        int max = 0;
+        for (int i = 0; i < total; i++) {
+            int gid = gids[i];
+            if (gid < 0 || gid > MAX_SHORT_GID) {
+                return MODE_INT;
+            }
+            if (gid > max) {
+                max = gid;
+            }
+        }
+
+        boolean[] seen = new boolean[max + 1];
+        int distinct = 0;
+        seen[0] = true;
+        distinct++;
+        for (int i = 0; i < total; i++) {
+            int gid = gids[i];
+            if (!seen[gid]) {
+                seen[gid] = true;
+                if (++distinct > MAX_PALETTE) {
+                    return MODE_SHORT;
+                }
+            }
+        }
+
+        paletteSize = 0;
+        paletteLookup = new int[max + 1];
+        for (int gid = 0; gid <= max; gid++) {
+            if (seen[gid]) {
+                paletteLookup[gid] = paletteSize;
+                palette[paletteSize++] = gid;
+            }
+        }
+        return MODE_PALETTE;
+    }
+
+    private int PaletteIndex(int gid) {
+        if (gid == 0) {
+            return 0;
+        }
+        // Paleta are cel mult 256 de intrări, iar după construire este sortată (0 primul)
+        int index = Arrays.binarySearch(palette, 1, paletteSize, gid);
+        if (index >= 0) {
+            return index;
+        }
+        // Valorile adăugate ulterior prin Set() sunt la final, nesortate.
+        for (int i = 1; i < paletteSize; i++) {
+            if (palette[i] == gid) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean IsRegionEmpty(int[] gids, int x0, int y0, int x1, int y1) {
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            for (int x = x0; x < x1; x++) {
+                if (gids[row + x] != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trece stocarea într-un mod mai larg, apoi aplică modificarea (x, y) = gid.
+     */
+    private void Promote(int x, int y, int gid) {
+        int[] gids = new int[width * height];
+        CopyTo(gids);
+        gids[y * width + x] = gid;
+        Fill(gids);
+    }
+}
@@ -0,0 +1,127 @@
+package PaooGame.Maps;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Utilitar care compară stocarea LayerStore cu vechea stocare int[width][height] (indexată tiles[x][y]):
+ * memoria ocupată și timpul unei parcurgeri complete în ordinea rândurilor, ca în bucla de desenare.
+ *
+ * Rulare: java -cp out PaooGame.Maps.LayerStoreReport [cale.tmx ...]
+ */
+public class LayerStoreReport {
+    private static final int RUNS = 20;
+
+    private static volatile long sink;  // Împiedică eliminarea buclelor de către JIT
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            for (String path : args) {
+                Report(new File(path));
+            }
+            return;
+        }
+
+        Report(new File(Map.DEFAULT_MAP_PATH));
+
+        File generated = File.createTempFile("generated_2048_", ".tmx");
+        generated.deleteOnExit();
+        TmxLoadReport.WriteGeneratedMap(generated, 2048, 2048, 3, "base64", "zlib");
+        Report(generated);
+    }
+
+    private static void Report(File file) throws Exception {
+        MapData data = new TmxLoader().Load(file);
+        int width = data.width;
+        int height = data.height;
+
+        System.out.println();
+        System.out.println("=== Stocare layer-e: " + file.getPath() + " (" + width + "x" + height + ")");
+        long oldTotal = 0;
+        long newTotal = 0;
+        for (MapLayer layer : data.layers) {
+            LayerStore store = layer.tiles;
+            int[][] columns = ToColumns(store);
+
+            long oldBytes = 16L + 4L * width + (long) width * (16L + 4L * height);
+            long newBytes = store.GetMemoryBytes();
+            oldTotal += oldBytes;
+            newTotal += newBytes;
+
+            long oldTime = Long.MAX_VALUE;
+            long newTime = Long.MAX_VALUE;
+            long chunkTime = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                sink = SumColumns(columns, width, height);
+                oldTime = Math.min(oldTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink = SumStore(store);
+                newTime = Math.min(newTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sink = SumStoreSkippingEmpty(store);
+                chunkTime = Math.min(chunkTime, System.nanoTime() - start);
+            }
+
+            String mode = store.mode == LayerStore.MODE_PALETTE ? "paletă/" + store.paletteSize
+                    : store.mode == LayerStore.MODE_SHORT ? "short" : "int";
+            System.out.printf("  '%s' [%s, %d/%d chunk-uri alocate]%n", layer.name, mode,
+                    store.GetAllocatedChunkCount(), store.chunksX * store.chunksY);
+            System.out.printf("    memorie: int[][] %.1f KB -> LayerStore %.1f KB%n", oldBytes / 1024.0, newBytes / 1024.0);
+            System.out.printf("    parcurgere: int[x][y] %.3f ms, LayerStore.Get %.3f ms, pe chunk-uri nevide %.3f ms%n",
+                    oldTime / 1e6, newTime / 1e6, chunkTime / 1e6);
+        }
+        System.out.printf("  total memorie: %.1f KB -> %.1f KB%n", oldTotal / 1024.0, newTotal / 1024.0);
+    }
+
+    private static int[][] ToColumns(LayerStore store) {
+        int[][] columns = new int[store.width][store.height];
+        for (int y = 0; y < store.height; y++) {
+            for (int x = 0; x < store.width; x++) {
+                columns[x][y] = store.Get(x, y);
+            }
+        }
+        return columns;
+    }
+
+    private static long SumColumns(int[][] columns, int width, int height) {
+        long sum = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                sum += columns[x][y];
+            }
+        }
+        return sum;
+    }
+
+    private static long SumStore(LayerStore store) {
+        long sum = 0;
+        for (int y = 0; y < store.height; y++) {
+            for (int x = 0; x < store.width; x++) {
+                sum += store.Get(x, y);
+            }
+        }
+        return sum;
+    }
+
+    private static long SumStoreSkippingEmpty(LayerStore store) {
+        long sum = 0;
+        for (int cy = 0; cy < store.chunksY; cy++) {
+            for (int cx = 0; cx < store.chunksX; cx++) {
+                if (store.IsChunkEmpty(cx, cy)) {
+                    continue;
+                }
+                int yEnd = Math.min(store.height, (cy + 1) << LayerStore.CHUNK_SHIFT);
+                int xEnd = Math.min(store.width, (cx + 1) << LayerStore.CHUNK_SHIFT);
+                for (int y = cy << LayerStore.CHUNK_SHIFT; y < yEnd; y++) {
+                    for (int x = cx << LayerStore.CHUNK_SHIFT; x < xEnd; x++) {
+                        sum += store.Get(x, y);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+}
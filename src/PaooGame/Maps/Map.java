@@ -1,20 +1,29 @@
 package PaooGame.Maps;
 
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Graphics.ImageLoader;
 import PaooGame.RefLinks;
+import PaooGame.Timing.GameClock;
 import PaooGame.Tiles.Tile;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.*;
+import PaooGame.Tiles.TilesetRegistry;
 
 import java.awt.*;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Clasa ce reprezintă o hartă de joc încărcată din fișier .tmx (Tiled).
  * Această versiune suportă multiple layer-uri care se desenează unul peste altul.
+ *
+ * Firele: modificările hărții (SetTile, SetLayerVisible) se fac de pe thread-ul de actualizare, care deține și
+ * harta de coliziuni; ChunkCache aparține thread-ului de desenare (Draw). Layer-ele sunt scrise și citite la
+ * coacerea chunk-urilor sub același lock, iar chunk-urile afectate de o modificare sunt doar puse în coadă și
+ * invalidate de thread-ul de desenare la următorul Draw.
  */
 public class Map {
     private RefLinks refLink;
@@ -23,35 +32,64 @@ public class Map {
 
     // Lista de layer-uri (fiecare layer are propria sa matrice de tile-uri)
     private List<MapLayer> layers;
+    private List<TilesetRef> tilesets = new ArrayList<>();
+    private List<MapObjectLayer> objectLayers = new ArrayList<>();
+
+    // Rezolvă GID-urile din layer-uri în dale (construit din fișierele .tsx ale hărții)
+    private TilesetRegistry tilesetRegistry;
+
+    // Bitset-ul de celule solide, combinat din toate layer-ele (vezi CollisionMap)
+    private CollisionMap collisionMap;
+
+    // Dacă este activ, harta se citește din cache-ul binar precompilat (vezi MapCache)
+    private static volatile boolean useBinaryCache = true;
     private boolean mapLoaded = false;
 
+    // Cache-ul de chunk-uri pre-desenate (creat după încărcarea hărții)
+    private ChunkCache chunkCache;
+
+    // Protejează layer-ele: modificate de SetTile/SetLayerVisible, citite la coacerea chunk-urilor
+    private final Object tilesLock = new Object();
+
+    // Celulele (y * width + x) modificate de SetTile, al căror chunk trebuie recopt la următorul Draw
+    private final ConcurrentLinkedQueue<Integer> pendingInvalidations = new ConcurrentLinkedQueue<>();
+
+    // Toate chunk-urile trebuie recoapte la următorul Draw (după schimbarea vizibilității unui layer)
+    private final AtomicBoolean pendingInvalidateAll = new AtomicBoolean();
+
+    // Lista de comenzi folosită de Draw(Graphics), pentru apelanții care desenează harta singură (benchmark-uri)
+    private DrawCommandBuffer drawBuffer;
+
+    private static final int[] NO_GIDS = new int[0];
+    private static final Font INFO_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final Font ERROR_TITLE_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font ERROR_TEXT_FONT = new Font("Arial", Font.PLAIN, 16);
+
+    public static final String DEFAULT_MAP_PATH = "res/Mapa/The_map.tmx";
+
     /**
-     * Clasa internă pentru a reprezenta un layer al hărții
+     * Constructor ce primește referința principală și încarcă harta implicită cu toate layer-urile.
      */
-    private static class MapLayer {
-        String name;
-        int[][] tiles;
-        boolean visible;
-
-        public MapLayer(String name, int width, int height) {
-            this.name = name;
-            this.tiles = new int[width][height];
-            this.visible = true;
-        }
+    public Map(RefLinks refLink) {
+        this(refLink, DEFAULT_MAP_PATH);
     }
 
     /**
-     * Constructor ce primește referința principală și încarcă harta TMX cu toate layer-urile.
+     * Constructor ce primește referința principală și încarcă harta TMX de la calea dată.
      */
-    public Map(RefLinks refLink) {
+    public Map(RefLinks refLink, String path) {
         this.refLink = refLink;
         this.layers = new ArrayList<>();
 
         // Încearcă să încarce harta TMX cu toate layer-urile
         try {
-            LoadWorldFromTMX("res\\Mapa\\The_map.tmx");
+            long start = System.nanoTime();
+            LoadWorldFromTMX(path);
+            long elapsed = System.nanoTime() - start;
             mapLoaded = true;
-            System.out.println("✓ SUCCES! Harta TMX încărcată corect: " + width + "x" + height + " tile-uri");
+            chunkCache = new ChunkCache(this, width, height);
+            System.out.println("✓ SUCCES! Harta TMX încărcată corect: " + width + "x" + height + " tile-uri în " +
+                    (elapsed / 1000000.0) + " ms");
             System.out.println("✓ Layer-uri încărcate: " + layers.size());
         } catch (Exception e) {
             mapLoaded = false;
@@ -67,74 +105,170 @@ public class Map {
         }
     }
 
+    /**
+     * Actualizează starea hărții la un tick al simulării. Harta nu are încă stare simulată proprie:
+     * animațiile dalelor sunt pur vizuale și sunt avansate la desenare (vezi Draw), pe thread-ul care
+     * deține ChunkCache, astfel încât thread-ul de actualizare nu atinge niciodată chunk-urile coapte.
+     */
     public void Update() {
-        // actualizări ale hărții, dacă este cazul
     }
 
     /**
-     * Desenează harta pe ecran cu toate layer-urile în ordine.
+     * Desenează imediat harta în g, din poziția curentă a camerei (înregistrează comenzile într-o listă
+     * proprie și o redă). Jocul folosește Draw(DrawCommandBuffer, ...), în lista frame-ului.
      */
     public void Draw(Graphics g) {
+        if (drawBuffer == null) {
+            drawBuffer = new DrawCommandBuffer();
+        }
+        drawBuffer.Clear();
+        Draw(drawBuffer, refLink.GetGameCamera().GetXOffset(), refLink.GetGameCamera().GetYOffset(), GameClock.GetTimeMillis());
+        drawBuffer.Replay(g);
+    }
+
+    /**
+     * Adaugă în lista de comenzi desenarea hărții cu camera dată și cu animațiile dalelor la momentul
+     * timeMillis (timp GameClock); folosită la desenarea unui instantaneu interpolat. Chunk-urile ajung în
+     * stratul LAYER_MAP, textele informative în LAYER_UI. Toate apelurile trebuie făcute de același thread.
+     */
+    public void Draw(DrawCommandBuffer buffer, float cameraX, float cameraY, long timeMillis) {
         // Dacă harta nu s-a încărcat, afișează un mesaj de eroare vizual
         if (!mapLoaded || layers.isEmpty() || width <= 0 || height <= 0) {
             // Desenează un fundal roșu pentru a indica eroarea
-            g.setColor(Color.RED);
-            g.fillRect(0, 0, refLink.GetGame().GetWidth(), refLink.GetGame().GetHeight());
+            buffer.SetLayer(DrawCommandBuffer.LAYER_MAP);
+            buffer.SetColor(Color.RED);
+            buffer.FillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
 
             // Afișează mesajul de eroare pe ecran
-            g.setColor(Color.WHITE);
-            g.setFont(new Font("Arial", Font.BOLD, 24));
-            g.drawString("EROARE: Harta TMX nu s-a încărcat!", 50, 100);
-            g.setFont(new Font("Arial", Font.PLAIN, 16));
-            g.drawString("Verifică consola pentru detalii despre eroare.", 50, 140);
-            g.drawString("Fișierul res/Mapa/The_map.tmx trebuie să existe și să fie valid.", 50, 170);
+            buffer.SetLayer(DrawCommandBuffer.LAYER_UI);
+            buffer.SetColor(Color.WHITE);
+            buffer.SetFont(ERROR_TITLE_FONT);
+            buffer.DrawString("EROARE: Harta TMX nu s-a încărcat!", 50, 100);
+            buffer.SetFont(ERROR_TEXT_FONT);
+            buffer.DrawString("Verifică consola pentru detalii despre eroare.", 50, 140);
+            buffer.DrawString("Fișierul res/Mapa/The_map.tmx trebuie să existe și să fie valid.", 50, 170);
             return;
         }
 
-        // Calculează câte dale încap pe ecran
-        int tilesX = (refLink.GetGame().GetWidth() / Tile.TILE_WIDTH) + 1;
-        int tilesY = (refLink.GetGame().GetHeight() / Tile.TILE_HEIGHT) + 1;
+        // Modificările hărții cerute de thread-ul de actualizare de la frame-ul anterior.
+        ApplyPendingInvalidations();
 
-        // Limitează la dimensiunile hărții
-        tilesX = Math.min(tilesX, width);
-        tilesY = Math.min(tilesY, height);
+        // Animațiile dalelor: o singură actualizare a tabelei GID -> cadru curent, apoi se recoc doar
+        // chunk-urile care conțin GID-uri al căror cadru s-a schimbat.
+        if (tilesetRegistry.UpdateAnimations(timeMillis)) {
+            chunkCache.InvalidateAnimated(tilesetRegistry);
+        }
 
-        // Desenează fiecare layer în ordine (primul layer e la fund, ultimul e deasupra)
-        for (MapLayer layer : layers) {
-            if (!layer.visible) continue; // Skip layer-urile invizibile
+        // Poziția camerei și dimensiunea ferestrei de vizualizare.
+        int camX = (int) Math.floor(cameraX);
+        int camY = (int) Math.floor(cameraY);
+        int viewW = refLink.GetWidth();
+        int viewH = refLink.GetHeight();
 
-            DrawLayer(g, layer, tilesX, tilesY);
-        }
+        // Layer-urile statice sunt coapte în chunk-uri; se desenează doar chunk-urile vizibile.
+        buffer.SetLayer(DrawCommandBuffer.LAYER_MAP);
+        chunkCache.Draw(buffer, camX, camY, viewW, viewH);
 
         // Afișează informații despre hartă în colțul stâng-sus pentru confirmare
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
-        g.drawString("Hartă TMX: " + width + "x" + height + " (" + layers.size() + " layer-uri)", 10, 20);
+        buffer.SetLayer(DrawCommandBuffer.LAYER_UI);
+        buffer.SetColor(Color.WHITE);
+        buffer.SetFont(INFO_FONT);
+        buffer.DrawString("Hartă TMX: " + width + "x" + height + " (" + layers.size() + " layer-uri)", 10, 20);
 
         // Afișează numele layer-urilor
         for (int i = 0; i < layers.size(); i++) {
             MapLayer layer = layers.get(i);
-            g.drawString("Layer " + (i + 1) + ": " + layer.name + (layer.visible ? "" : " (ascuns)"), 10, 40 + i * 15);
+            buffer.DrawString("Layer " + (i + 1) + ": " + layer.name + (layer.visible ? "" : " (ascuns)"), 10, 40 + i * 15);
+        }
+    }
+
+    /**
+     * Invalidează chunk-urile modificate prin SetTile/SetLayerVisible. Apelată de thread-ul de desenare,
+     * singurul care atinge ChunkCache.
+     */
+    private void ApplyPendingInvalidations() {
+        if (pendingInvalidateAll.getAndSet(false)) {
+            pendingInvalidations.clear();
+            chunkCache.InvalidateAll();
+            return;
+        }
+        Integer cell;
+        while ((cell = pendingInvalidations.poll()) != null) {
+            chunkCache.Invalidate(cell % width, cell / width);
+        }
+    }
+
+    /**
+     * Desenează dalele [x0, x1) x [y0, y1) ale tuturor layer-urilor vizibile, în ordine.
+     * Dala (x0, y0) ajunge la poziția (x0 * TILE_WIDTH - originX, y0 * TILE_HEIGHT - originY).
+     * Folosită de ChunkCache la coacerea unui chunk; layer-ele sunt citite sub tilesLock.
+     */
+    void DrawTiles(Graphics g, int x0, int y0, int x1, int y1, int originX, int originY) {
+        synchronized (tilesLock) {
+            DrawTilesLocked(g, x0, y0, x1, y1, originX, originY);
+        }
+    }
+
+    private void DrawTilesLocked(Graphics g, int x0, int y0, int x1, int y1, int originX, int originY) {
+        for (MapLayer layer : layers) {
+            if (!layer.visible) continue; // Skip layer-urile invizibile
+
+            LayerStore store = layer.tiles;
+            // Parcurgere pe chunk-uri de stocare, sărind peste cele complet goale (tipic pentru layer-ele decorative).
+            for (int cy = y0 >> LayerStore.CHUNK_SHIFT; cy <= (y1 - 1) >> LayerStore.CHUNK_SHIFT; cy++) {
+                for (int cx = x0 >> LayerStore.CHUNK_SHIFT; cx <= (x1 - 1) >> LayerStore.CHUNK_SHIFT; cx++) {
+                    if (store.IsChunkEmpty(cx, cy)) continue;
+
+                    int yStart = Math.max(y0, cy << LayerStore.CHUNK_SHIFT);
+                    int yEnd = Math.min(y1, (cy + 1) << LayerStore.CHUNK_SHIFT);
+                    int xStart = Math.max(x0, cx << LayerStore.CHUNK_SHIFT);
+                    int xEnd = Math.min(x1, (cx + 1) << LayerStore.CHUNK_SHIFT);
+                    for (int y = yStart; y < yEnd; y++) {
+                        for (int x = xStart; x < xEnd; x++) {
+                            int tileId = store.Get(x, y);
+
+                            // Doar desenează tile-uri care nu sunt goale (GID 0 înseamnă gol)
+                            if (tileId != 0) {
+                                Tile tile = tilesetRegistry.GetFrameTile(tileId);
+                                if (tile != null) {
+                                    tile.Draw(g, x * Tile.TILE_WIDTH - originX, y * Tile.TILE_HEIGHT - originY);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Desenează un singur layer
+     * Returnează GID-urile animate distincte din dreptunghiul [x0, x1) x [y0, y1) al layer-elor vizibile
+     * (tabloul gol dacă nu există). Folosită de ChunkCache după coacerea unui chunk.
      */
-    private void DrawLayer(Graphics g, MapLayer layer, int tilesX, int tilesY) {
-        for (int y = 0; y < tilesY; y++) {
-            for (int x = 0; x < tilesX; x++) {
-                int tileId = layer.tiles[x][y];
-
-                // Doar desenează tile-uri care nu sunt goale (ID 0 în multe cazuri înseamnă gol)
-                if (tileId > 0) {
-                    Tile tile = GetTileById(tileId);
-                    if (tile != null) {
-                        tile.Draw(g, x * Tile.TILE_WIDTH, y * Tile.TILE_HEIGHT);
+    int[] CollectAnimatedGids(int x0, int y0, int x1, int y1) {
+        if (tilesetRegistry.GetAnimatedCount() == 0) {
+            return NO_GIDS;
+        }
+        TreeSet<Integer> gids = new TreeSet<>();
+        synchronized (tilesLock) {
+            for (MapLayer layer : layers) {
+                if (!layer.visible) continue;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        int tileId = layer.tiles.Get(x, y);
+                        if (tileId != 0 && tilesetRegistry.IsAnimated(tileId)) {
+                            gids.add(tileId & TilesetRegistry.GID_MASK);
+                        }
                     }
                 }
             }
         }
+        int[] result = new int[gids.size()];
+        int i = 0;
+        for (int gid : gids) {
+            result[i++] = gid;
+        }
+        return result;
     }
 
     /**
@@ -160,32 +294,19 @@ public class Map {
             throw new IndexOutOfBoundsException("Tile [" + x + "," + y + "] este în afara hărții.");
         }
 
-        int tileId = layers.get(layerIndex).tiles[x][y];
+        int tileId = layers.get(layerIndex).tiles.Get(x, y);
         return GetTileById(tileId);
     }
 
     /**
-     * Returnează tile-ul pe baza ID-ului
+     * Returnează tile-ul pe baza GID-ului (null pentru GID-uri goale sau necunoscute)
      */
     private Tile GetTileById(int tileId) {
-        if (tileId <= 0) {
-            return null; // Tile gol sau invalid
-        }
-
-        if (tileId >= Tile.tiles.length) {
-            throw new IllegalArgumentException("ID invalid de tile: " + tileId);
-        }
-
-        Tile tile = Tile.tiles[tileId];
-        if (tile == null) {
-            throw new IllegalStateException("Tile-ul cu ID " + tileId + " este null");
-        }
-
-        return tile;
+        return tilesetRegistry.GetTile(tileId);
     }
 
     /**
-     * Încarcă harta dintr-un fișier .tmx cu toate layer-urile în format CSV.
+     * Încarcă harta dintr-un fișier .tmx cu toate layer-urile în format CSV (citire StAX, vezi TmxLoader).
      */
     private void LoadWorldFromTMX(String path) throws Exception {
         System.out.println("🔄 Începe încărcarea hărții TMX din: " + path);
@@ -204,125 +325,93 @@ public class Map {
 
         System.out.println("✓ Fișierul TMX găsit și poate fi citit");
 
-        // Parsează XML-ul
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(file);
-        doc.getDocumentElement().normalize();
-
-        Element mapElement = doc.getDocumentElement();
-        System.out.println("📋 Element root găsit: " + mapElement.getNodeName());
-
-        // Verifică dacă elementul root este 'map'
-        if (!"map".equals(mapElement.getNodeName())) {
-            throw new Exception("Fișierul nu este un TMX valid. Elementul root este '" +
-                    mapElement.getNodeName() + "' în loc de 'map'");
-        }
-
-        // Extrage dimensiunile hărții
-        String widthAttr = mapElement.getAttribute("width");
-        String heightAttr = mapElement.getAttribute("height");
-
-        if (widthAttr.isEmpty() || heightAttr.isEmpty()) {
-            throw new Exception("Atributele 'width' și 'height' lipsesc din elementul 'map'");
-        }
-
-        width = Integer.parseInt(widthAttr);
-        height = Integer.parseInt(heightAttr);
+        MapData data = ReadMapData(file);
 
+        width = data.width;
+        height = data.height;
         System.out.println("📏 Dimensiuni hartă extrase: " + width + " x " + height + " tile-uri");
 
-        if (width <= 0 || height <= 0) {
-            throw new Exception("Dimensiunile hărții sunt invalide: " + width + "x" + height);
-        }
-
-        // Găsește toate layer-urile
-        NodeList layerList = doc.getElementsByTagName("layer");
-        System.out.println("🎭 Numărul de layer-uri găsite: " + layerList.getLength());
-
-        if (layerList.getLength() == 0) {
+        if (data.layers.isEmpty()) {
             throw new Exception("Nu s-au găsit layer-uri în fișierul TMX");
         }
 
-        // Procesează fiecare layer
-        for (int layerIndex = 0; layerIndex < layerList.getLength(); layerIndex++) {
-            Element layer = (Element) layerList.item(layerIndex);
-            String layerName = layer.getAttribute("name");
-            String visibleAttr = layer.getAttribute("visible");
-            boolean visible = visibleAttr.isEmpty() || !"0".equals(visibleAttr);
-
-            System.out.println("🎯 Se procesează layer-ul " + (layerIndex + 1) + ": '" + layerName + "' (vizibil: " + visible + ")");
-
-            // Creează un nou layer
-            MapLayer mapLayer = new MapLayer(layerName, width, height);
-            mapLayer.visible = visible;
+        tilesets = data.tilesets;
+        objectLayers = data.objectLayers;
 
-            // Găsește datele din layer
-            NodeList dataList = layer.getElementsByTagName("data");
-            if (dataList.getLength() == 0) {
-                System.out.println("⚠️ Layer-ul '" + layerName + "' nu are date, se sare");
-                continue;
-            }
-
-            Element data = (Element) dataList.item(0);
-            String encoding = data.getAttribute("encoding");
-            String compression = data.getAttribute("compression");
+        for (MapLayer mapLayer : data.layers) {
+            layers.add(mapLayer);
+            System.out.println("✅ Layer-ul '" + mapLayer.name + "' procesat cu succes (vizibil: " + mapLayer.visible + ")");
+        }
 
-            System.out.println("💾 Encoding date pentru '" + layerName + "': '" + (encoding.isEmpty() ? "none" : encoding) + "'");
+        tilesetRegistry = TilesetRegistry.Load(file.getAbsoluteFile().getParentFile(), tilesets);
+        collisionMap = CollisionMap.Build(width, height, layers, tilesetRegistry);
+        System.out.println("🧱 Celule solide: " + collisionMap.GetSolidCount());
 
-            // Verifică encoding-ul
-            if (!encoding.isEmpty() && !"csv".equals(encoding)) {
-                throw new Exception("Encoding '" + encoding + "' nu este suportat pentru layer-ul '" + layerName + "'. Folosește CSV în Tiled.");
-            }
+        System.out.println("🎉 Harta TMX cu " + layers.size() + " layer-uri a fost încărcată complet!");
+    }
 
-            if (!compression.isEmpty()) {
-                throw new Exception("Compresia '" + compression + "' nu este suportată pentru layer-ul '" + layerName + "'. Dezactivează compresia în Tiled.");
+    /**
+     * Citește datele hărții (dimensiuni, layer-uri, tileset-uri, obiecte), fără imaginile tileset-urilor.
+     * Varianta precompilată (citită integral într-un buffer din heap) e folosită dacă hash-ul TMX/TSX coincide;
+     * altfel XML-ul este parsat ca flux (StAX) și cache-ul este rescris.
+     */
+    static MapData ReadMapData(File file) throws Exception {
+        MapData data = useBinaryCache ? MapCache.TryLoad(file) : null;
+        if (data != null) {
+            System.out.println("⚡ Harta a fost încărcată din cache-ul binar");
+        } else {
+            data = new TmxLoader().Load(file);
+            if (useBinaryCache) {
+                MapCache.Write(file, data);
             }
+        }
+        return data;
+    }
 
-            // Extrage și procesează datele CSV
-            String csvData = data.getTextContent().trim();
-            if (csvData.isEmpty()) {
-                System.out.println("⚠️ Layer-ul '" + layerName + "' are date goale, se umple cu 0");
-                // Layer-ul rămâne cu toate tile-urile 0 (goale)
-            } else {
-                // Procesează datele CSV
-                csvData = csvData.replaceAll("\\s+", "");
-                String[] tileIds = csvData.split(",");
-
-                if (tileIds.length != width * height) {
-                    throw new Exception("Nepotrivire în numărul de tile-uri pentru layer-ul '" + layerName + "'! Găsite: " + tileIds.length +
-                            ", așteptate: " + (width * height));
-                }
-
-                // Populează matricea layer-ului
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        int index = y * width + x;
-                        try {
-                            int id = Integer.parseInt(tileIds[index].trim());
-                            mapLayer.tiles[x][y] = id;
-                        } catch (NumberFormatException e) {
-                            throw new Exception("ID de tile invalid în layer-ul '" + layerName + "' la poziția [" + x + "," + y +
-                                    "] (index " + index + "): '" + tileIds[index] + "'");
-                        }
-                    }
-                }
+    /**
+     * Pornește în fundal citirea hărții și decodificarea imaginilor tileset-urilor ei, fără a construi harta.
+     * Un Map construit ulterior pentru aceeași cale găsește imaginile deja decodificate (și cache-ul binar scris).
+     */
+    public static CompletableFuture<Void> PrefetchTilesets(String path) {
+        return CompletableFuture.supplyAsync(() -> {
+            File file = new File(path);
+            try {
+                return TilesetRegistry.Prefetch(file.getAbsoluteFile().getParentFile(), ReadMapData(file).tilesets);
+            } catch (Exception e) {
+                System.out.println("⚠️ Preîncărcarea tileset-urilor a eșuat: " + e.getMessage());
+                return CompletableFuture.<Void>completedFuture(null);
             }
+        }, ImageLoader.GetExecutor()).thenCompose(images -> images);
+    }
 
-            // Adaugă layer-ul la listă
-            layers.add(mapLayer);
-            System.out.println("✅ Layer-ul '" + layerName + "' procesat cu succes");
+    /**
+     * Schimbă dala de pe layer-ul specificat. Se apelează de pe thread-ul de actualizare: harta de coliziuni
+     * este actualizată imediat (deplasările din același tick o văd), iar chunk-ul care conține dala este
+     * recopt de thread-ul de desenare la următorul Draw.
+     */
+    public void SetTile(int x, int y, int layerIndex, int tileId) {
+        if (!mapLoaded || layerIndex < 0 || layerIndex >= layers.size()) {
+            throw new IndexOutOfBoundsException("Layer-ul " + layerIndex + " nu există.");
         }
-
-        System.out.println("🎉 Harta TMX cu " + layers.size() + " layer-uri a fost încărcată complet!");
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException("Tile [" + x + "," + y + "] este în afara hărții.");
+        }
+        synchronized (tilesLock) {
+            layers.get(layerIndex).tiles.Set(x, y, tileId);
+        }
+        collisionMap.Refresh(x, y, layers, tilesetRegistry);
+        pendingInvalidations.add(y * width + x);
     }
 
     /**
-     * Ascunde sau afișează un layer
+     * Ascunde sau afișează un layer (de pe thread-ul de actualizare; chunk-urile sunt recoapte la următorul Draw)
      */
     public void SetLayerVisible(int layerIndex, boolean visible) {
         if (layerIndex >= 0 && layerIndex < layers.size()) {
-            layers.get(layerIndex).visible = visible;
+            synchronized (tilesLock) {
+                layers.get(layerIndex).visible = visible;
+            }
+            pendingInvalidateAll.set(true);
             System.out.println("Layer " + layerIndex + " (" + layers.get(layerIndex).name + ") " +
                     (visible ? "afișat" : "ascuns"));
         }
@@ -358,6 +447,62 @@ public class Map {
         return null;
     }
 
+    /**
+     * Returnează lățimea hărții în dale
+     */
+    public int GetWidth() {
+        return width;
+    }
+
+    /**
+     * Returnează înălțimea hărții în dale
+     */
+    public int GetHeight() {
+        return height;
+    }
+
+    /**
+     * Returnează referințele către tileset-urile hărții, în ordinea firstgid
+     */
+    public List<TilesetRef> GetTilesets() {
+        return tilesets;
+    }
+
+    /**
+     * Returnează registrul de dale al hărții (GID -> dală, flaguri)
+     */
+    public TilesetRegistry GetTilesetRegistry() {
+        return tilesetRegistry;
+    }
+
+    /**
+     * Returnează harta de coliziuni (null dacă harta nu s-a încărcat)
+     */
+    public CollisionMap GetCollisionMap() {
+        return collisionMap;
+    }
+
+    /**
+     * Returnează layer-urile de obiecte ale hărții
+     */
+    public List<MapObjectLayer> GetObjectLayers() {
+        return objectLayers;
+    }
+
+    /**
+     * Activează sau dezactivează cache-ul binar al hărților (implicit activ)
+     */
+    public static void SetUseBinaryCache(boolean enabled) {
+        useBinaryCache = enabled;
+    }
+
+    /**
+     * Returnează numărul de apeluri drawImage pentru dale din ultimul frame
+     */
+    public int GetLastDrawCalls() {
+        return chunkCache != null ? chunkCache.GetLastDrawCalls() : 0;
+    }
+
     /**
      * Returnează true dacă harta s-a încărcat cu succes
      */
@@ -365,6 +510,17 @@ public class Map {
         return mapLoaded;
     }
 
+    /**
+     * Returnează câte dale și chunk-uri sunt accelerate de Java2D
+     */
+    public String GetAccelerationReport() {
+        if (!mapLoaded) {
+            return "Harta TMX nu este încărcată";
+        }
+        return "dale accelerate: " + tilesetRegistry.CountAccelerated() + "/" + tilesetRegistry.CountTiles() +
+                ", chunk-uri accelerate: " + chunkCache.CountAcceleratedChunks() + "/" + chunkCache.GetCachedChunkCount();
+    }
+
     /**
      * Returnează dimensiunile hărții pentru debugging
      */
@@ -0,0 +1,291 @@
+package PaooGame.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache binar pentru hărțile TMX, precompilat la prima încărcare și citit apoi dintr-o singură citire în memorie.
+ *
+ * Fișierul (&lt;director hartă&gt;/.cache/&lt;nume&gt;.bin) conține layer-ele de dale, referințele către tileset-uri
+ * și layer-ele de obiecte. Cache-ul este valid doar dacă hash-ul de conținut al fișierului TMX și al fișierelor
+ * TSX de care depinde coincide cu cel salvat; altfel harta este reparsată din XML și cache-ul este rescris.
+ *
+ * Format (little-endian): antet (magic, versiune, hash, dependențe), dimensiuni, tileset-uri,
+ * layer-e de dale (nume, flaguri vizibil/coliziune, apoi stocarea LayerStore exact ca în memorie: mod, paletă,
+ * prezența chunk-urilor și chunk-urile nevide), layer-e de obiecte.
+ *
+ * Fișierele (cache, TMX, TSX) sunt citite prin canale închise imediat, nu mapate în memorie: o mapare rămâne
+ * activă până o colectează GC-ul și, pe Windows, blochează fișierul (Tiled nu mai poate salva harta, iar cache-ul
+ * învechit nu mai poate fi înlocuit).
+ */
+class MapCache {
+    private static final int MAGIC = 0x50414F4D;         // "MOAP" citit little-endian
+    private static final int FORMAT_VERSION = 3;
+    private static final String CACHE_DIRECTORY = ".cache";
+    private static final int LAYER_VISIBLE = 1;
+    private static final int LAYER_COLLISION = 2;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private MapCache() {
+    }
+
+    /**
+     * Returnează fișierul de cache asociat unei hărți TMX.
+     */
+    static File CacheFileFor(File tmxFile) {
+        File dir = new File(tmxFile.getAbsoluteFile().getParentFile(), CACHE_DIRECTORY);
+        return new File(dir, tmxFile.getName() + ".bin");
+    }
+
+    /**
+     * Încearcă să încarce harta din cache. Returnează null dacă nu există cache sau acesta este învechit/corupt.
+     */
+    static MapData TryLoad(File tmxFile) {
+        File cacheFile = CacheFileFor(tmxFile);
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try {
+            ByteBuffer in = ReadFully(cacheFile).order(ByteOrder.LITTLE_ENDIAN);
+
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            // Hash-ul se recalculează din fișierul TMX și din fișierele TSX listate în antet.
+            long storedHash = in.getLong();
+            int dependencyCount = in.getInt();
+            List<String> dependencies = new ArrayList<>(dependencyCount);
+            for (int i = 0; i < dependencyCount; i++) {
+                dependencies.add(ReadString(in));
+            }
+            if (ContentHash(tmxFile, dependencies) != storedHash) {
+                System.out.println("🔄 Cache-ul hărții este învechit: " + cacheFile.getPath());
+                return null;
+            }
+
+            MapData data = new MapData();
+            data.width = in.getInt();
+            data.height = in.getInt();
+            data.tileWidth = in.getInt();
+            data.tileHeight = in.getInt();
+
+            int tilesetCount = in.getInt();
+            for (int i = 0; i < tilesetCount; i++) {
+                int firstGid = in.getInt();
+                data.tilesets.add(new TilesetRef(firstGid, ReadString(in)));
+            }
+
+            int layerCount = in.getInt();
+            for (int i = 0; i < layerCount; i++) {
+                String name = ReadString(in);
+                byte flags = in.get();
+                MapLayer layer = new MapLayer(name, LayerStore.Read(in, data.width, data.height));
+                layer.visible = (flags & LAYER_VISIBLE) != 0;
+                layer.collision = (flags & LAYER_COLLISION) != 0;
+                data.layers.add(layer);
+            }
+
+            int objectLayerCount = in.getInt();
+            for (int i = 0; i < objectLayerCount; i++) {
+                MapObjectLayer objectLayer = new MapObjectLayer(ReadString(in), in.get() != 0);
+                int objectCount = in.getInt();
+                for (int j = 0; j < objectCount; j++) {
+                    int id = in.getInt();
+                    String name = ReadString(in);
+                    String type = ReadString(in);
+                    objectLayer.GetObjects().add(new MapObject(id, name, type,
+                            in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat()));
+                }
+                data.objectLayers.add(objectLayer);
+            }
+            return data;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠️ Cache-ul hărții nu a putut fi citit (" + e.getMessage() + "), se reparsează TMX-ul");
+            return null;
+        }
+    }
+
+    /**
+     * Scrie harta în cache. Erorile nu sunt fatale: jocul merge mai departe cu harta deja parsată.
+     */
+    static void Write(File tmxFile, MapData data) {
+        File cacheFile = CacheFileFor(tmxFile);
+        File temp = null;
+        try {
+            List<String> dependencies = new ArrayList<>();
+            for (TilesetRef tileset : data.tilesets) {
+                dependencies.add(tileset.GetSource());
+            }
+
+            int size = 4 + 4 + 8 + 4 + StringsSize(dependencies) + 16 + 4;
+            for (TilesetRef tileset : data.tilesets) {
+                size += 4 + StringSize(tileset.GetSource());
+            }
+            size += 4;
+            for (MapLayer layer : data.layers) {
+                size += StringSize(layer.name) + 1 + layer.tiles.GetSerializedSize();
+            }
+            size += 4;
+            for (MapObjectLayer objectLayer : data.objectLayers) {
+                size += StringSize(objectLayer.GetName()) + 1 + 4;
+                for (MapObject object : objectLayer.GetObjects()) {
+                    size += 4 + StringSize(object.GetName()) + StringSize(object.GetType()) + 16;
+                }
+            }
+
+            ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putLong(ContentHash(tmxFile, dependencies));
+            out.putInt(dependencies.size());
+            for (String dependency : dependencies) {
+                WriteString(out, dependency);
+            }
+
+            out.putInt(data.width);
+            out.putInt(data.height);
+            out.putInt(data.tileWidth);
+            out.putInt(data.tileHeight);
+
+            out.putInt(data.tilesets.size());
+            for (TilesetRef tileset : data.tilesets) {
+                out.putInt(tileset.GetFirstGid());
+                WriteString(out, tileset.GetSource());
+            }
+
+            out.putInt(data.layers.size());
+            for (MapLayer layer : data.layers) {
+                WriteString(out, layer.name);
+                out.put((byte) ((layer.visible ? LAYER_VISIBLE : 0) | (layer.collision ? LAYER_COLLISION : 0)));
+                layer.tiles.Write(out);
+            }
+
+            out.putInt(data.objectLayers.size());
+            for (MapObjectLayer objectLayer : data.objectLayers) {
+                WriteString(out, objectLayer.GetName());
+                out.put((byte) (objectLayer.IsVisible() ? 1 : 0));
+                out.putInt(objectLayer.GetObjects().size());
+                for (MapObject object : objectLayer.GetObjects()) {
+                    out.putInt(object.GetId());
+                    WriteString(out, object.GetName());
+                    WriteString(out, object.GetType());
+                    out.putFloat(object.GetX());
+                    out.putFloat(object.GetY());
+                    out.putFloat(object.GetWidth());
+                    out.putFloat(object.GetHeight());
+                }
+            }
+            out.flip();
+
+            // Scriere într-un fișier temporar (unic, deoarece harta poate fi citită simultan de preîncărcare și de joc)
+            // urmată de redenumire, ca o rulare întreruptă să nu lase un cache trunchiat.
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            temp = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp").toFile();
+            try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("💾 Cache binar scris: " + cacheFile.getPath() + " (" + size / 1024 + " KB)");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠️ Cache-ul hărții nu a putut fi scris: " + e.getMessage());
+            if (temp != null && temp.exists() && !temp.delete()) {
+                System.out.println("⚠️ Fișierul temporar nu a putut fi șters: " + temp.getPath());
+            }
+        }
+    }
+
+    /**
+     * Citește întregul fișier într-un buffer din heap; canalul este închis înainte de revenire.
+     */
+    private static ByteBuffer ReadFully(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("fișier prea mare: " + size + " octeți");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("fișier trunchiat în timpul citirii");
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Hash de conținut (CRC32C, accelerat hardware) peste fișierul TMX și fișierele TSX de care depinde.
+     * Fișierele lipsă contribuie doar cu calea lor, astfel încât apariția lor ulterioară invalidează cache-ul.
+     */
+    private static long ContentHash(File tmxFile, List<String> dependencies) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        long length = HashFile(crc, tmxFile, buffer);
+        File dir = tmxFile.getAbsoluteFile().getParentFile();
+        for (String dependency : dependencies) {
+            crc.update(dependency.getBytes(StandardCharsets.UTF_8));
+            File file = new File(dir, dependency);
+            length += file.isFile() ? HashFile(crc, file, buffer) : -1;
+        }
+        return (length << 32) ^ crc.getValue();
+    }
+
+    /**
+     * Adaugă conținutul fișierului la hash, citindu-l pe bucăți în bufferul dat (refolosit pentru toate fișierele).
+     * Returnează numărul de octeți citiți.
+     */
+    private static long HashFile(CRC32C crc, File file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = 0;
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                crc.update(buffer);
+                buffer.clear();
+            }
+            return size;
+        }
+    }
+
+    private static int StringSize(String value) {
+        return 2 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int StringsSize(List<String> values) {
+        int size = 0;
+        for (String value : values) {
+            size += StringSize(value);
+        }
+        return size;
+    }
+
+    private static void WriteString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String ReadString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,18 @@
+package PaooGame.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conținutul unei hărți, așa cum rezultă din fișierul TMX sau din cache-ul binar:
+ * dimensiuni, layer-e de dale, referințe către tileset-uri și layer-e de obiecte.
+ */
+class MapData {
+    int width;
+    int height;
+    int tileWidth;
+    int tileHeight;
+    final List<MapLayer> layers = new ArrayList<>();
+    final List<TilesetRef> tilesets = new ArrayList<>();
+    final List<MapObjectLayer> objectLayers = new ArrayList<>();
+}
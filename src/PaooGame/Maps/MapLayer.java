@@ -0,0 +1,24 @@
+package PaooGame.Maps;
+
+/**
+ * Clasa ce reprezintă un layer al hărții (ID-urile de tile-uri, într-o stocare compactă LayerStore).
+ */
+class MapLayer {
+    String name;
+    LayerStore tiles;
+    boolean visible;
+    // Proprietatea "collision" a layer-ului: orice dală nevidă de pe el este solidă (vezi CollisionMap)
+    boolean collision;
+
+    MapLayer(String name, int width, int height) {
+        this.name = name;
+        this.tiles = new LayerStore(width, height);
+        this.visible = true;
+    }
+
+    MapLayer(String name, LayerStore tiles) {
+        this.name = name;
+        this.tiles = tiles;
+        this.visible = true;
+    }
+}
@@ -0,0 +1,73 @@
+package PaooGame.Maps;
+
+/**
+ * Un obiect dintr-un layer de obiecte Tiled (punct de start, zonă de declanșare etc.), în pixeli.
+ */
+public class MapObject {
+    private final int id;
+    private final String name;
+    private final String type;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+
+    public MapObject(int id, String name, String type, float x, float y, float width, float height) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returnează ID-ul unic al obiectului
+     */
+    public int GetId() {
+        return id;
+    }
+
+    /**
+     * Returnează numele obiectului
+     */
+    public String GetName() {
+        return name;
+    }
+
+    /**
+     * Returnează tipul (clasa) obiectului
+     */
+    public String GetType() {
+        return type;
+    }
+
+    /**
+     * Returnează coordonata X, în pixeli
+     */
+    public float GetX() {
+        return x;
+    }
+
+    /**
+     * Returnează coordonata Y, în pixeli
+     */
+    public float GetY() {
+        return y;
+    }
+
+    /**
+     * Returnează lățimea, în pixeli
+     */
+    public float GetWidth() {
+        return width;
+    }
+
+    /**
+     * Returnează înălțimea, în pixeli
+     */
+    public float GetHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,39 @@
+package PaooGame.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un layer de obiecte Tiled (&lt;objectgroup&gt;).
+ */
+public class MapObjectLayer {
+    private final String name;
+    private final boolean visible;
+    private final List<MapObject> objects = new ArrayList<>();
+
+    public MapObjectLayer(String name, boolean visible) {
+        this.name = name;
+        this.visible = visible;
+    }
+
+    /**
+     * Returnează numele layer-ului
+     */
+    public String GetName() {
+        return name;
+    }
+
+    /**
+     * Returnează true dacă layer-ul este vizibil
+     */
+    public boolean IsVisible() {
+        return visible;
+    }
+
+    /**
+     * Returnează obiectele din layer
+     */
+    public List<MapObject> GetObjects() {
+        return objects;
+    }
+}
@@ -0,0 +1,29 @@
+package PaooGame.Maps;
+
+/**
+ * Referință către un tileset extern (fișier .tsx), așa cum apare în hartă: &lt;tileset firstgid source/&gt;.
+ * GID-urile [firstGid, firstGid + numărul de dale din tileset) aparțin acestui tileset.
+ */
+public class TilesetRef {
+    private final int firstGid;
+    private final String source;
+
+    public TilesetRef(int firstGid, String source) {
+        this.firstGid = firstGid;
+        this.source = source;
+    }
+
+    /**
+     * Returnează primul GID al tileset-ului
+     */
+    public int GetFirstGid() {
+        return firstGid;
+    }
+
+    /**
+     * Returnează calea fișierului .tsx, relativă la directorul hărții
+     */
+    public String GetSource() {
+        return source;
+    }
+}
@@ -0,0 +1,187 @@
+package PaooGame.Maps;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utilitar care măsoară timpul de încărcare și vârful de heap pentru harta livrată
+ * și pentru o hartă generată de 2048x2048 dale, în formatele CSV, base64, base64+zlib și base64+gzip,
+ * atât la parsarea TMX-ului cât și la citirea din cache-ul binar.
+ *
+ * Rulare: java -cp out PaooGame.Maps.TmxLoadReport [cale.tmx ...]
+ */
+public class TmxLoadReport {
+    private static final int GENERATED_SIZE = 2048;
+    private static final int GENERATED_LAYERS = 3;
+    private static final int RUNS = 5;
+    private static final String[][] FORMATS = {{"csv", ""}, {"base64", ""}, {"base64", "zlib"}, {"base64", "gzip"}};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            for (String path : args) {
+                Report(path);
+            }
+            return;
+        }
+
+        Report(Map.DEFAULT_MAP_PATH);
+
+        for (String[] format : FORMATS) {
+            String suffix = format[0] + (format[1].isEmpty() ? "" : "_" + format[1]);
+            File generated = File.createTempFile("generated_" + GENERATED_SIZE + "_" + suffix + "_", ".tmx");
+            generated.deleteOnExit();
+            MapCache.CacheFileFor(generated).deleteOnExit();
+            WriteGeneratedMap(generated, GENERATED_SIZE, GENERATED_SIZE, GENERATED_LAYERS, format[0], format[1]);
+            Report(generated.getPath());
+        }
+    }
+
+    private static void Report(String path) {
+        Map.SetUseBinaryCache(false);
+        Report(path, "TMX");
+        Map.SetUseBinaryCache(true);
+        Report(path, "cache binar");
+    }
+
+    /**
+     * Încarcă datele hărții (fără imaginile tileset-urilor) de mai multe ori și afișează cel mai bun timp și vârful de heap din ultima rulare.
+     * Cu cache-ul activ, prima rulare îl (re)construiește, iar următoarele îl citesc.
+     */
+    private static void Report(String path, String source) {
+        long best = Long.MAX_VALUE;
+        long peak = 0;
+        long baseline = 0;
+        for (int run = 0; run < RUNS; run++) {
+            System.gc();
+            baseline = UsedHeap();
+            ResetPeakHeap();
+
+            long start = System.nanoTime();
+            try {
+                Map.ReadMapData(new File(path));
+            } catch (Exception e) {
+                System.out.println("✗ Harta nu s-a putut încărca: " + path + " - " + e.getMessage());
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            best = Math.min(best, elapsed);
+            peak = PeakHeap();
+        }
+
+        System.out.println();
+        System.out.println("=== Raport încărcare " + source + ": " + path + " (" + new File(path).length() / 1024 + " KB)");
+        System.out.printf("  timp minim din %d rulări: %.2f ms%n", RUNS, best / 1e6);
+        System.out.printf("  vârf heap: %.2f MB (peste nivelul de bază: %.2f MB)%n",
+                peak / (1024.0 * 1024.0), (peak - baseline) / (1024.0 * 1024.0));
+        System.out.println();
+    }
+
+    private static void ResetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long PeakHeap() {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                sum += pool.getPeakUsage().getUsed();
+            }
+        }
+        return sum;
+    }
+
+    private static long UsedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Scrie o hartă TMX generată aleator (sămânță fixă, pentru rezultate comparabile).
+     *
+     * \param encoding "csv" sau "base64".
+     * \param compression "" (fără compresie), "zlib" sau "gzip"; folosit doar pentru base64.
+     */
+    static void WriteGeneratedMap(File file, int width, int height, int layerCount,
+                                  String encoding, String compression) throws IOException {
+        Random random = new Random(42);
+        int[] gids = new int[width * height];
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<map version=\"1.10\" orientation=\"orthogonal\" renderorder=\"right-down\" width=\"" + width +
+                    "\" height=\"" + height + "\" tilewidth=\"16\" tileheight=\"16\" infinite=\"0\">\n");
+            out.write(" <tileset firstgid=\"1\" source=\"soil.tsx\"/>\n");
+            for (int layer = 0; layer < layerCount; layer++) {
+                // Terenul este generat pe blocuri de 8x8 dale cu aceeași dală, ca zonele dintr-o hartă reală;
+                // layer-urile superioare sunt în mare parte goale.
+                int blocksX = (width + 7) / 8;
+                int[] blockGids = new int[blocksX * ((height + 7) / 8)];
+                for (int b = 0; b < blockGids.length; b++) {
+                    blockGids[b] = (layer == 0 || random.nextInt(8) == 0) ? 1 + random.nextInt(256) : 0;
+                }
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        gids[y * width + x] = blockGids[(y >> 3) * blocksX + (x >> 3)];
+                    }
+                }
+
+                out.write(" <layer id=\"" + (layer + 1) + "\" name=\"generated " + layer + "\" width=\"" + width +
+                        "\" height=\"" + height + "\">\n");
+                if ("csv".equals(encoding)) {
+                    out.write("  <data encoding=\"csv\">\n");
+                    for (int i = 0; i < gids.length; i++) {
+                        out.write(Integer.toString(gids[i]));
+                        if (i < gids.length - 1) {
+                            out.write(',');
+                        }
+                        if ((i + 1) % width == 0) {
+                            out.write('\n');
+                        }
+                    }
+                } else {
+                    out.write("  <data encoding=\"base64\"" +
+                            (compression.isEmpty() ? "" : " compression=\"" + compression + "\"") + ">\n   ");
+                    out.write(Base64.getEncoder().encodeToString(EncodeGids(gids, compression)));
+                    out.write('\n');
+                }
+                out.write("</data>\n");
+                out.write(" </layer>\n");
+            }
+            out.write("</map>\n");
+        }
+    }
+
+    /**
+     * Transformă GID-urile în octeți little-endian și îi comprimă, ca la exportul din Tiled.
+     */
+    private static byte[] EncodeGids(int[] gids, String compression) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(gids.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(gids);
+        if (compression.isEmpty()) {
+            return bytes.array();
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(compression)
+                ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed)) {
+            out.write(bytes.array());
+        }
+        return compressed.toByteArray();
+    }
+}
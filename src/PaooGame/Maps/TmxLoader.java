@@ -0,0 +1,489 @@
+package PaooGame.Maps;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Cititor TMX (Tiled) bazat pe StAX, care parcurge fișierul ca flux, fără a construi un arbore DOM.
+ *
+ * Datele CSV ale fiecărui layer sunt citite direct din buffer-ul de caractere al parser-ului și
+ * convertite cifră cu cifră în matricea layer-ului, fără String-uri intermediare
+ * (fără getTextContent(), replaceAll(), split() sau Integer.parseInt()).
+ *
+ * Sunt suportate și layer-ele codificate base64, necomprimate sau comprimate zlib/gzip
+ * (și zstd, dacă biblioteca zstd-jni este în classpath). Octeții decodificați sunt citiți ca
+ * GID-uri little-endian printr-un ByteBuffer.
+ */
+class TmxLoader {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final String ZSTD_CLASS = "com.github.luben.zstd.Zstd";
+
+    // Tabela de decodificare base64: caracter ASCII -> valoare pe 6 biți, -1 pentru caractere invalide.
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final XMLInputFactory factory;
+
+    private MapData data;
+    private int width;
+    private int height;
+
+    // Buffere refolosite de la un layer la altul: octeții decodificați din base64 și GID-urile decomprimate.
+    private byte[] encoded = new byte[0];
+    private byte[] decoded = new byte[0];
+    private int[] gids = new int[0];
+    private Inflater inflater;
+
+    TmxLoader() {
+        factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+
+    /**
+     * Încarcă fișierul TMX: dimensiunile, layer-urile de dale, tileset-urile și layer-urile de obiecte.
+     */
+    MapData Load(File file) throws Exception {
+        data = new MapData();
+        width = 0;
+        height = 0;
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                boolean rootSeen = false;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+
+                    String element = reader.getLocalName();
+                    if (!rootSeen) {
+                        // Verifică dacă elementul root este 'map'
+                        if (!"map".equals(element)) {
+                            throw new Exception("Fișierul nu este un TMX valid. Elementul root este '" +
+                                    element + "' în loc de 'map'");
+                        }
+                        ReadMapAttributes(reader);
+                        rootSeen = true;
+                    } else if ("layer".equals(element)) {
+                        ReadLayer(reader);
+                    } else if ("tileset".equals(element)) {
+                        ReadTileset(reader);
+                    } else if ("objectgroup".equals(element)) {
+                        ReadObjectGroup(reader);
+                    }
+                }
+
+                if (!rootSeen) {
+                    throw new Exception("Fișierul TMX nu conține elementul 'map'");
+                }
+            } finally {
+                reader.close();
+                if (inflater != null) {
+                    inflater.end();
+                    inflater = null;
+                }
+            }
+        }
+        return data;
+    }
+
+    private void ReadMapAttributes(XMLStreamReader reader) throws Exception {
+        String widthAttr = reader.getAttributeValue(null, "width");
+        String heightAttr = reader.getAttributeValue(null, "height");
+
+        if (widthAttr == null || heightAttr == null || widthAttr.isEmpty() || heightAttr.isEmpty()) {
+            throw new Exception("Atributele 'width' și 'height' lipsesc din elementul 'map'");
+        }
+
+        width = Integer.parseInt(widthAttr);
+        height = Integer.parseInt(heightAttr);
+
+        if (width <= 0 || height <= 0) {
+            throw new Exception("Dimensiunile hărții sunt invalide: " + width + "x" + height);
+        }
+
+        data.width = width;
+        data.height = height;
+        data.tileWidth = IntAttribute(reader, "tilewidth", 16);
+        data.tileHeight = IntAttribute(reader, "tileheight", 16);
+    }
+
+    /**
+     * Citește o referință &lt;tileset firstgid source/&gt;. Tileset-urile incluse direct în hartă (fără source)
+     * nu sunt suportate; sunt semnalate și ignorate.
+     */
+    private void ReadTileset(XMLStreamReader reader) throws Exception {
+        int firstGid = IntAttribute(reader, "firstgid", 0);
+        String source = reader.getAttributeValue(null, "source");
+        if (firstGid <= 0) {
+            throw new Exception("Tileset cu firstgid invalid: " + firstGid);
+        }
+        if (source == null || source.isEmpty()) {
+            System.out.println("⚠️ Tileset-ul cu firstgid " + firstGid + " nu este extern (.tsx), se ignoră");
+            return;
+        }
+        data.tilesets.add(new TilesetRef(firstGid, source));
+    }
+
+    /**
+     * Citește un layer de obiecte (&lt;objectgroup&gt;) cu obiectele sale.
+     */
+    private void ReadObjectGroup(XMLStreamReader reader) throws Exception {
+        String name = reader.getAttributeValue(null, "name");
+        String visibleAttr = reader.getAttributeValue(null, "visible");
+        MapObjectLayer layer = new MapObjectLayer(name == null ? "" : name,
+                visibleAttr == null || !"0".equals(visibleAttr));
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "object".equals(reader.getLocalName())) {
+                String objectName = reader.getAttributeValue(null, "name");
+                // Tiled 1.9+ scrie tipul obiectului în atributul "class"
+                String type = reader.getAttributeValue(null, "type");
+                if (type == null) {
+                    type = reader.getAttributeValue(null, "class");
+                }
+                layer.GetObjects().add(new MapObject(
+                        IntAttribute(reader, "id", 0),
+                        objectName == null ? "" : objectName,
+                        type == null ? "" : type,
+                        FloatAttribute(reader, "x"),
+                        FloatAttribute(reader, "y"),
+                        FloatAttribute(reader, "width"),
+                        FloatAttribute(reader, "height")));
+            } else if (event == XMLStreamConstants.END_ELEMENT && "objectgroup".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        data.objectLayers.add(layer);
+    }
+
+    private static int IntAttribute(XMLStreamReader reader, String name, int defaultValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static float FloatAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null || value.isEmpty() ? 0f : Float.parseFloat(value);
+    }
+
+    /**
+     * Citește un element layer până la închiderea lui. Layer-urile fără element data sunt sărite.
+     * Dintre proprietățile layer-ului este folosită doar "collision" (bool).
+     */
+    private void ReadLayer(XMLStreamReader reader) throws Exception {
+        String layerName = reader.getAttributeValue(null, "name");
+        if (layerName == null) {
+            layerName = "";
+        }
+        String visibleAttr = reader.getAttributeValue(null, "visible");
+        boolean visible = visibleAttr == null || visibleAttr.isEmpty() || !"0".equals(visibleAttr);
+
+        MapLayer mapLayer = new MapLayer(layerName, width, height);
+        mapLayer.visible = visible;
+        boolean hasData = false;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "data".equals(reader.getLocalName())) {
+                String encoding = reader.getAttributeValue(null, "encoding");
+                String compression = reader.getAttributeValue(null, "compression");
+
+                if (encoding == null || encoding.isEmpty() || "csv".equals(encoding)) {
+                    if (compression != null && !compression.isEmpty()) {
+                        throw new Exception("Compresia '" + compression + "' nu este suportată pentru datele CSV ale layer-ului '" + layerName + "'.");
+                    }
+                    ReadCsv(reader, mapLayer);
+                } else if ("base64".equals(encoding)) {
+                    ReadBase64(reader, mapLayer, compression == null ? "" : compression);
+                } else {
+                    throw new Exception("Encoding '" + encoding + "' nu este suportat pentru layer-ul '" + layerName + "'. Folosește CSV sau Base64 în Tiled.");
+                }
+                hasData = true;
+            } else if (event == XMLStreamConstants.START_ELEMENT && "property".equals(reader.getLocalName())) {
+                if ("collision".equals(reader.getAttributeValue(null, "name"))) {
+                    mapLayer.collision = "true".equals(reader.getAttributeValue(null, "value"));
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "layer".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        if (!hasData) {
+            System.out.println("⚠️ Layer-ul '" + layerName + "' nu are date, se sare");
+            return;
+        }
+
+        data.layers.add(mapLayer);
+    }
+
+    /**
+     * Scanner manual pentru datele CSV: cifrele sunt acumulate direct într-un int, virgula încheie un ID,
+     * spațiile albe sunt ignorate. Textul poate sosi în mai multe evenimente CHARACTERS, de aceea starea
+     * (valoarea parțială, poziția curentă) se păstrează între ele.
+     *
+     * Aritmetica pe int se face modulo 2^32, astfel că și GID-urile cu biți de oglindire (> 2^31) rezultă corect.
+     */
+    private void ReadCsv(XMLStreamReader reader, MapLayer layer) throws Exception {
+        final int total = width * height;
+        final int[] gids = GidBuffer(total);
+
+        int count = 0;
+        int value = 0;
+        boolean inNumber = false;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                char[] text = reader.getTextCharacters();
+                int end = reader.getTextStart() + reader.getTextLength();
+                for (int i = reader.getTextStart(); i < end; i++) {
+                    char c = text[i];
+                    if (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        inNumber = true;
+                    } else if (c == ',') {
+                        if (!inNumber) {
+                            throw new Exception("ID de tile lipsă în layer-ul '" + layer.name + "' la poziția [" + (count % width) +
+                                    "," + (count / width) + "] (index " + count + ")");
+                        }
+                        if (count < total) {
+                            gids[count] = value;
+                        }
+                        count++;
+                        value = 0;
+                        inNumber = false;
+                    } else if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                        throw new Exception("ID de tile invalid în layer-ul '" + layer.name + "' la poziția [" + (count % width) +
+                                "," + (count / width) + "] (index " + count + "): caracterul '" + c + "'");
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Sfârșit neașteptat al fișierului în layer-ul '" + layer.name + "'");
+            }
+        }
+
+        if (inNumber) {
+            if (count < total) {
+                gids[count] = value;
+            }
+            count++;
+        }
+
+        if (count == 0) {
+            System.out.println("⚠️ Layer-ul '" + layer.name + "' are date goale, se umple cu 0");
+            // Layer-ul rămâne cu toate tile-urile 0 (goale)
+            return;
+        }
+
+        if (count != total) {
+            throw new Exception("Nepotrivire în numărul de tile-uri pentru layer-ul '" + layer.name + "'! Găsite: " + count +
+                    ", așteptate: " + total);
+        }
+
+        layer.tiles = LayerStore.Build(gids, width, height);
+    }
+
+    /**
+     * Citește un layer base64 (opțional comprimat). Caracterele sunt decodificate pe loc, 4 câte 4,
+     * direct din buffer-ul parser-ului, în buffer-ul refolosit encoded; apoi octeții sunt decomprimați
+     * (dacă e cazul) și interpretați ca GID-uri little-endian pe 32 de biți.
+     */
+    private void ReadBase64(XMLStreamReader reader, MapLayer layer, String compression) throws Exception {
+        final int total = width * height;
+        final int expectedBytes = total * 4;
+
+        // Buffer-ul este dimensionat o singură dată: datele necomprimate au exact expectedBytes octeți,
+        // iar cele comprimate sunt în practică mai mici; creșterea prin dublare ar lăsa mult gunoi pe heap.
+        if (encoded.length < expectedBytes + 3) {
+            encoded = new byte[expectedBytes + 3];
+        }
+
+        int length = 0;
+        int accumulator = 0;
+        int pending = 0;
+        boolean padding = false;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                char[] text = reader.getTextCharacters();
+                int end = reader.getTextStart() + reader.getTextLength();
+                for (int i = reader.getTextStart(); i < end; i++) {
+                    char c = text[i];
+                    if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                        continue;
+                    }
+                    if (c == '=') {
+                        padding = true;
+                        continue;
+                    }
+                    int value = c < 128 ? BASE64_VALUES[c] : -1;
+                    if (value < 0 || padding) {
+                        throw new Exception("Caracter base64 invalid în layer-ul '" + layer.name + "': '" + c + "'");
+                    }
+                    accumulator = (accumulator << 6) | value;
+                    if (++pending == 4) {
+                        if (length + 3 > encoded.length) {
+                            encoded = Arrays.copyOf(encoded, encoded.length + (encoded.length >> 1));
+                        }
+                        encoded[length++] = (byte) (accumulator >> 16);
+                        encoded[length++] = (byte) (accumulator >> 8);
+                        encoded[length++] = (byte) accumulator;
+                        accumulator = 0;
+                        pending = 0;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Sfârșit neașteptat al fișierului în layer-ul '" + layer.name + "'");
+            }
+        }
+
+        // Ultimul grup incomplet (2 sau 3 caractere) produce 1, respectiv 2 octeți.
+        if (pending == 1) {
+            throw new Exception("Date base64 trunchiate în layer-ul '" + layer.name + "'");
+        }
+        if (pending > 1) {
+            if (length + 2 > encoded.length) {
+                encoded = Arrays.copyOf(encoded, length + 2);
+            }
+            if (pending == 2) {
+                encoded[length++] = (byte) (accumulator >> 4);
+            } else {
+                encoded[length++] = (byte) (accumulator >> 10);
+                encoded[length++] = (byte) (accumulator >> 2);
+            }
+        }
+
+        if (length == 0) {
+            System.out.println("⚠️ Layer-ul '" + layer.name + "' are date goale, se umple cu 0");
+            return;
+        }
+
+        byte[] gidBytes;
+        int gidLength;
+        switch (compression) {
+            case "":
+                gidBytes = encoded;
+                gidLength = length;
+                break;
+            case "zlib":
+                gidBytes = DecodedBuffer(expectedBytes);
+                gidLength = InflateZlib(encoded, length, gidBytes, expectedBytes);
+                break;
+            case "gzip":
+                gidBytes = DecodedBuffer(expectedBytes);
+                gidLength = InflateGzip(encoded, length, gidBytes, expectedBytes);
+                break;
+            case "zstd":
+                gidBytes = DecodedBuffer(expectedBytes);
+                gidLength = DecompressZstd(encoded, length, gidBytes, expectedBytes);
+                break;
+            default:
+                throw new Exception("Compresia '" + compression + "' nu este suportată pentru layer-ul '" + layer.name + "'. Folosește zlib, gzip sau zstd.");
+        }
+
+        if (gidLength != expectedBytes) {
+            throw new Exception("Nepotrivire în numărul de tile-uri pentru layer-ul '" + layer.name + "'! Găsite: " + (gidLength / 4) +
+                    ", așteptate: " + total);
+        }
+
+        // GID-urile sunt întregi fără semn pe 32 de biți, little-endian, în ordinea rândurilor:
+        // sunt copiate în bloc, apoi compactate în LayerStore.
+        int[] gids = GidBuffer(total);
+        ByteBuffer.wrap(gidBytes, 0, gidLength).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(gids, 0, total);
+        layer.tiles = LayerStore.Build(gids, width, height);
+    }
+
+    private int[] GidBuffer(int size) {
+        if (gids.length < size) {
+            gids = new int[size];
+        }
+        return gids;
+    }
+
+    private byte[] DecodedBuffer(int size) {
+        if (decoded.length < size) {
+            decoded = new byte[size];
+        }
+        return decoded;
+    }
+
+    private int InflateZlib(byte[] input, int length, byte[] output, int expected) throws Exception {
+        if (inflater == null) {
+            inflater = new Inflater();
+        } else {
+            inflater.reset();
+        }
+        inflater.setInput(input, 0, length);
+        int produced = 0;
+        try {
+            while (produced < expected && !inflater.finished()) {
+                int n = inflater.inflate(output, produced, expected - produced);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                produced += n;
+            }
+        } catch (DataFormatException e) {
+            throw new Exception("Date zlib corupte: " + e.getMessage(), e);
+        }
+        return inflater.finished() ? produced : -1;
+    }
+
+    private int InflateGzip(byte[] input, int length, byte[] output, int expected) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(input, 0, length), READ_BUFFER_SIZE)) {
+            int produced = in.readNBytes(output, 0, expected);
+            // Datele în plus față de dimensiunea hărții indică un layer invalid.
+            return in.read() == -1 ? produced : -1;
+        }
+    }
+
+    /**
+     * Decomprimare zstd prin biblioteca opțională zstd-jni (com.github.luben:zstd-jni), încărcată prin reflecție
+     * pentru ca jocul să nu depindă de ea dacă hărțile nu folosesc zstd.
+     */
+    private int DecompressZstd(byte[] input, int length, byte[] output, int expected) throws Exception {
+        Method decompress;
+        try {
+            decompress = Class.forName(ZSTD_CLASS).getMethod("decompressByteArray",
+                    byte[].class, int.class, int.class, byte[].class, int.class, int.class);
+        } catch (ClassNotFoundException e) {
+            throw new Exception("Compresia zstd necesită biblioteca zstd-jni în classpath. Exportă harta cu zlib sau gzip.");
+        }
+        long produced = (Long) decompress.invoke(null, output, 0, expected, input, 0, length);
+        return (int) produced;
+    }
+}
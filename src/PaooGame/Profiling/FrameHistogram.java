@@ -0,0 +1,151 @@
+package PaooGame.Profiling;
+
+import java.util.Arrays;
+
+/*! \class public class FrameHistogram
+    \brief Histograma cu galeti ficsi pentru durate (timpi de frame), fara alocari la inregistrare.
+
+    Galetile au latimi crescatoare, astfel incat precizia relativa sa fie aproximativ constanta:
+        0 - 2 ms in pasi de 20 us, 2 - 20 ms in pasi de 200 us, 20 - 200 ms in pasi de 2 ms,
+        plus o galeata pentru tot ce depaseste 200 ms.
+    Percentilele sunt aproximate cu marginea superioara a galetii in care cad (limitata de maximul exact).
+ */
+public class FrameHistogram
+{
+    private static final int FINE_BUCKETS       = 100;  /*!< 0 - 2 ms, pas 20 us.*/
+    private static final int MEDIUM_BUCKETS     = 90;   /*!< 2 - 20 ms, pas 200 us.*/
+    private static final int COARSE_BUCKETS     = 90;   /*!< 20 - 200 ms, pas 2 ms.*/
+    public static final int BUCKET_COUNT        = FINE_BUCKETS + MEDIUM_BUCKETS + COARSE_BUCKETS + 1;
+
+    private final int[] counts = new int[BUCKET_COUNT]; /*!< Numarul de esantioane din fiecare galeata.*/
+    private long total;                                 /*!< Numarul total de esantioane.*/
+    private long maxNanos;                              /*!< Cea mai mare durata inregistrata.*/
+    private long sumNanos;                              /*!< Suma duratelor (pentru medie).*/
+
+    /*! \fn public void Record(long nanos)
+        \brief Inregistreaza o durata.
+
+        \param nanos Durata in nanosecunde.
+     */
+    public void Record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        counts[BucketOf(nanos / 1000)]++;
+        total++;
+        sumNanos += nanos;
+        if (nanos > maxNanos)
+        {
+            maxNanos = nanos;
+        }
+    }
+
+    /*! \fn public long Percentile(double fraction)
+        \brief Returneaza percentila ceruta in microsecunde (0 daca histograma este goala).
+
+        \param fraction Fractiunea dorita, de exemplu 0.95 pentru p95.
+     */
+    public long Percentile(double fraction)
+    {
+        if (total == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(fraction * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+        {
+            seen += counts[bucket];
+            if (seen >= rank)
+            {
+                return Math.min(UpperBoundMicros(bucket), maxNanos / 1000);
+            }
+        }
+        return maxNanos / 1000;
+    }
+
+    /*! \fn public void Add(FrameHistogram other)
+        \brief Aduna esantioanele altei histograme la aceasta (de exemplu fereastra curenta la totalul sesiunii).
+     */
+    public void Add(FrameHistogram other)
+    {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+        {
+            counts[bucket] += other.counts[bucket];
+        }
+        total += other.total;
+        sumNanos += other.sumNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    /*! \fn public void Reset()
+        \brief Goleste histograma.
+     */
+    public void Reset()
+    {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+
+    /*! \fn public long GetCount()
+        \brief Returneaza numarul de esantioane.
+     */
+    public long GetCount()
+    {
+        return total;
+    }
+
+    /*! \fn public long GetMaxMicros()
+        \brief Returneaza durata maxima in microsecunde.
+     */
+    public long GetMaxMicros()
+    {
+        return maxNanos / 1000;
+    }
+
+    /*! \fn public long GetMeanMicros()
+        \brief Returneaza durata medie in microsecunde.
+     */
+    public long GetMeanMicros()
+    {
+        return total == 0 ? 0 : sumNanos / total / 1000;
+    }
+
+    private static int BucketOf(long micros)
+    {
+        if (micros < 2000)
+        {
+            return (int)(micros / 20);
+        }
+        if (micros < 20000)
+        {
+            return FINE_BUCKETS + (int)((micros - 2000) / 200);
+        }
+        if (micros < 200000)
+        {
+            return FINE_BUCKETS + MEDIUM_BUCKETS + (int)((micros - 20000) / 2000);
+        }
+        return BUCKET_COUNT - 1;
+    }
+
+    private static long UpperBoundMicros(int bucket)
+    {
+        if (bucket < FINE_BUCKETS)
+        {
+            return (bucket + 1) * 20L;
+        }
+        if (bucket < FINE_BUCKETS + MEDIUM_BUCKETS)
+        {
+            return 2000 + (bucket - FINE_BUCKETS + 1) * 200L;
+        }
+        if (bucket < BUCKET_COUNT - 1)
+        {
+            return 20000 + (bucket - FINE_BUCKETS - MEDIUM_BUCKETS + 1) * 2000L;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,203 @@
+package PaooGame.Profiling;
+
+import java.io.PrintStream;
+
+/*! \class public class Profiler
+    \brief Masoara durata fazelor unui frame (actualizare, desenare, afisare buffer) in histograme fixe.
+
+    Fiecare faza are o histograma pentru secunda curenta si una pentru intreaga sesiune. La trecerea
+    fiecarei secunde, thread-ul care inregistreaza faza calculeaza p50/p95/p99/max pentru secunda
+    incheiata si le publica in campuri citite de overlay (ProfilerOverlay). Begin/End nu aloca memorie.
+
+    O faza trebuie inregistrata mereu de acelasi thread (Begin si End pe acelasi thread). Histogramele unei
+    faze sunt modificate sub un lock propriu (necontestat in afara lui Dump), astfel incat Dump poate include
+    si fereastra curenta, inca nepublicata.
+ */
+public class Profiler
+{
+    /*! \enum Phase
+        \brief Fazele masurate ale unui frame.
+     */
+    public enum Phase
+    {
+        GAME_UPDATE("Game.Update"),     /*!< Intreaga actualizare (input + stare).*/
+        STATE_UPDATE("State.Update"),   /*!< Actualizarea starii curente.*/
+        ENTITY_UPDATE("Entity.Update"), /*!< Deplasarea entitatilor (EntityUpdateStage, eventual in paralel).*/
+        FRAME_DRAW("Draw"),             /*!< Desenarea starii curente in buffer (inregistrare + redare).*/
+        MAP_DRAW("Map.Draw"),           /*!< Inregistrarea comenzilor hartii (inclusiv coacerea chunk-urilor).*/
+        DRAW_REPLAY("Draw.replay"),     /*!< Redarea listei de comenzi in contextul grafic.*/
+        BUFFER_SHOW("bs.show");         /*!< Afisarea buffer-ului (flip).*/
+
+        final String label;
+
+        Phase(String label)
+        {
+            this.label = label;
+        }
+    }
+
+    private static final long WINDOW_NANOS = 1000000000L;  /*!< Fereastra pentru care se publica statisticile (1 s).*/
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final PhaseStats[] stats = new PhaseStats[PHASES.length];
+
+    private static volatile boolean enabled = true;        /*!< Daca este fals, Begin/End nu masoara nimic.*/
+
+    static
+    {
+        for (int i = 0; i < stats.length; i++)
+        {
+            stats[i] = new PhaseStats();
+        }
+    }
+
+    /*! \class static class PhaseStats
+        \brief Starea unei faze: inceputul masuratorii curente, histogramele si statisticile publicate.
+     */
+    static class PhaseStats
+    {
+        long start;                                             /*!< Momentul ultimului Begin.*/
+        volatile long windowStart;                              /*!< Inceputul ferestrei curente (0 = faza neinregistrata).*/
+        final Object lock = new Object();                       /*!< Protejeaza window si session.*/
+        final FrameHistogram window = new FrameHistogram();     /*!< Esantioanele din secunda curenta.*/
+        final FrameHistogram session = new FrameHistogram();    /*!< Esantioanele din ferestrele incheiate.*/
+
+        /// Statistici publicate pentru ultima secunda incheiata (microsecunde).
+        volatile long p50;
+        volatile long p95;
+        volatile long p99;
+        volatile long max;
+        volatile int count;
+        volatile int generation;                                /*!< Creste la fiecare publicare.*/
+    }
+
+    private Profiler()
+    {
+    }
+
+    /*! \fn public static void Begin(Phase phase)
+        \brief Marcheaza inceputul unei faze.
+     */
+    public static void Begin(Phase phase)
+    {
+        if (enabled)
+        {
+            stats[phase.ordinal()].start = System.nanoTime();
+        }
+    }
+
+    /*! \fn public static void End(Phase phase)
+        \brief Marcheaza sfarsitul unei faze si inregistreaza durata ei.
+     */
+    public static void End(Phase phase)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        long now = System.nanoTime();
+        PhaseStats s = stats[phase.ordinal()];
+        if (s.start == 0)
+        {
+            return;
+        }
+        long duration = now - s.start;
+        s.start = 0;
+
+        synchronized (s.lock)
+        {
+            s.window.Record(duration);
+            if (s.windowStart == 0)
+            {
+                s.windowStart = now;
+            }
+            else if (now - s.windowStart >= WINDOW_NANOS)
+            {
+                Publish(s);
+                s.windowStart = now;
+            }
+        }
+    }
+
+    /*! \fn private static void Publish(PhaseStats s)
+        \brief Publica statisticile ferestrei incheiate si o adauga la totalul sesiunii. Se apeleaza sub s.lock.
+     */
+    private static void Publish(PhaseStats s)
+    {
+        s.p50 = s.window.Percentile(0.50);
+        s.p95 = s.window.Percentile(0.95);
+        s.p99 = s.window.Percentile(0.99);
+        s.max = s.window.GetMaxMicros();
+        s.count = (int)s.window.GetCount();
+        s.session.Add(s.window);
+        s.window.Reset();
+        s.generation++;
+    }
+
+    /*! \fn public static void SetEnabled(boolean enabled)
+        \brief Activeaza sau dezactiveaza masurarea.
+     */
+    public static void SetEnabled(boolean enabled)
+    {
+        Profiler.enabled = enabled;
+    }
+
+    /*! \fn public static boolean IsEnabled()
+        \brief Returneaza true daca masurarea este activa.
+     */
+    public static boolean IsEnabled()
+    {
+        return enabled;
+    }
+
+    /*! \fn static Phase[] GetPhases()
+        \brief Returneaza fazele masurate (vectorul partajat, nu trebuie modificat).
+     */
+    static Phase[] GetPhases()
+    {
+        return PHASES;
+    }
+
+    /*! \fn static PhaseStats GetStats(Phase phase)
+        \brief Returneaza starea unei faze (pentru overlay).
+     */
+    static PhaseStats GetStats(Phase phase)
+    {
+        return stats[phase.ordinal()];
+    }
+
+    /*! \fn static boolean IsStale(PhaseStats s, long now)
+        \brief Returneaza true daca faza nu a mai incheiat o fereastra de peste doua secunde (sau nu a fost inregistrata
+        niciodata); statisticile ei publicate nu mai descriu frame-urile curente.
+     */
+    static boolean IsStale(PhaseStats s, long now)
+    {
+        long windowStart = s.windowStart;
+        return windowStart == 0 || now - windowStart > 2 * WINDOW_NANOS;
+    }
+
+    /*! \fn public static void Dump(PrintStream out)
+        \brief Afiseaza statisticile intregii sesiuni pentru fiecare faza, inclusiv fereastra curenta (nepublicata).
+
+        Totalurile nu sunt modificate, deci Dump poate fi apelata de mai multe ori.
+     */
+    public static void Dump(PrintStream out)
+    {
+        out.println("=== Profiler: durate pe faza pentru intreaga sesiune (ms) ===");
+        out.printf("%-14s %8s %8s %8s %8s %8s %10s%n", "faza", "medie", "p50", "p95", "p99", "max", "esantioane");
+        FrameHistogram h = new FrameHistogram();
+        for (Phase phase : PHASES)
+        {
+            PhaseStats s = stats[phase.ordinal()];
+            h.Reset();
+            synchronized (s.lock)
+            {
+                h.Add(s.session);
+                h.Add(s.window);
+            }
+            out.printf("%-14s %8.2f %8.2f %8.2f %8.2f %8.2f %10d%n", phase.label,
+                    h.GetMeanMicros() / 1000.0, h.Percentile(0.50) / 1000.0, h.Percentile(0.95) / 1000.0,
+                    h.Percentile(0.99) / 1000.0, h.GetMaxMicros() / 1000.0, h.GetCount());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package PaooGame.Profiling;
+
+import java.awt.*;
+
+/*! \class public class ProfilerOverlay
+    \brief Afiseaza pe ecran statisticile publicate de Profiler (p50/p95/p99/max pe ultima secunda).
+
+    Textul fiecarei faze este formatat intr-un buffer de caractere doar cand Profiler publica statistici
+    noi (o data pe secunda), iar desenarea foloseste Graphics.drawChars, fara String-uri sau alte alocari
+    in fiecare frame. Fazele care nu au mai fost inregistrate de peste doua secunde (de exemplu Map.Draw dupa
+    iesirea din joc) sunt afisate estompat, cu ultimele valori publicate.
+ */
+public class ProfilerOverlay
+{
+    private static final int LABEL_WIDTH    = 14;   /*!< Latimea coloanei cu numele fazei.*/
+    private static final int NUMBER_WIDTH   = 8;    /*!< Latimea unei coloane numerice.*/
+    private static final int LINE_LENGTH    = LABEL_WIDTH + 4 * NUMBER_WIDTH;
+    private static final int LINE_HEIGHT    = 14;
+
+    private static final char[] HEADER = Pad("faza (ms)", LABEL_WIDTH)
+            .concat(PadLeft("p50", NUMBER_WIDTH)).concat(PadLeft("p95", NUMBER_WIDTH))
+            .concat(PadLeft("p99", NUMBER_WIDTH)).concat(PadLeft("max", NUMBER_WIDTH)).toCharArray();
+
+    private final Profiler.Phase[] phases = Profiler.GetPhases();
+    private final char[][] lines = new char[phases.length][LINE_LENGTH];   /*!< Textul preformatat al fiecarei faze.*/
+    private final int[] seenGeneration = new int[phases.length];           /*!< Ultima publicare formatata pentru fiecare faza.*/
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private final Color background = new Color(0, 0, 0, 170);
+    private final boolean[] stale = new boolean[phases.length];            /*!< Faza nu mai este inregistrata.*/
+    private volatile boolean visible;                                       /*!< Overlay-ul este afisat sau nu.*/
+
+    /*! \fn public ProfilerOverlay()
+        \brief Constructorul clasei; liniile pornesc cu numele fazelor si valori nule.
+     */
+    public ProfilerOverlay()
+    {
+        for (int i = 0; i < phases.length; i++)
+        {
+            Format(i, 0, 0, 0, 0);
+            seenGeneration[i] = -1;
+        }
+    }
+
+    /*! \fn public void Toggle()
+        \brief Afiseaza/ascunde overlay-ul.
+     */
+    public void Toggle()
+    {
+        visible = !visible;
+    }
+
+    /*! \fn public boolean IsVisible()
+        \brief Returneaza true daca overlay-ul este afisat.
+     */
+    public boolean IsVisible()
+    {
+        return visible;
+    }
+
+    /*! \fn public void Draw(Graphics g, int x, int y)
+        \brief Deseneaza overlay-ul (daca este vizibil) cu coltul stanga sus in (x, y).
+     */
+    public void Draw(Graphics g, int x, int y)
+    {
+        if (!visible)
+        {
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < phases.length; i++)
+        {
+            Profiler.PhaseStats s = Profiler.GetStats(phases[i]);
+            stale[i] = Profiler.IsStale(s, now);
+            int generation = s.generation;
+            if (generation != seenGeneration[i])
+            {
+                seenGeneration[i] = generation;
+                Format(i, s.p50, s.p95, s.p99, s.max);
+            }
+        }
+
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        int width = metrics.charWidth('0') * LINE_LENGTH + 12;
+        int height = LINE_HEIGHT * (phases.length + 1) + 8;
+
+        g.setColor(background);
+        g.fillRect(x, y, width, height);
+        g.setColor(Color.WHITE);
+        g.drawChars(HEADER, 0, HEADER.length, x + 6, y + LINE_HEIGHT);
+        for (int i = 0; i < phases.length; i++)
+        {
+            g.setColor(stale[i] ? Color.GRAY : Color.GREEN);
+            g.drawChars(lines[i], 0, LINE_LENGTH, x + 6, y + LINE_HEIGHT * (i + 2));
+        }
+    }
+
+    /*! \fn private void Format(int index, long p50, long p95, long p99, long max)
+        \brief Scrie in buffer-ul fazei numele si cele patru valori (microsecunde afisate ca ms cu doua zecimale).
+     */
+    private void Format(int index, long p50, long p95, long p99, long max)
+    {
+        char[] line = lines[index];
+        String label = phases[index].label;
+        for (int i = 0; i < LABEL_WIDTH; i++)
+        {
+            line[i] = i < label.length() ? label.charAt(i) : ' ';
+        }
+        WriteMillis(line, LABEL_WIDTH, p50);
+        WriteMillis(line, LABEL_WIDTH + NUMBER_WIDTH, p95);
+        WriteMillis(line, LABEL_WIDTH + 2 * NUMBER_WIDTH, p99);
+        WriteMillis(line, LABEL_WIDTH + 3 * NUMBER_WIDTH, max);
+    }
+
+    /*! \fn private static void WriteMillis(char[] line, int offset, long micros)
+        \brief Scrie aliniat la dreapta, pe NUMBER_WIDTH caractere, o durata in ms cu doua zecimale.
+     */
+    private static void WriteMillis(char[] line, int offset, long micros)
+    {
+        long hundredths = (micros + 5) / 10;
+        int pos = offset + NUMBER_WIDTH - 1;
+        int digits = 0;
+        do
+        {
+            if (digits == 2)
+            {
+                line[pos--] = '.';
+            }
+            line[pos--] = (char)('0' + hundredths % 10);
+            hundredths /= 10;
+            digits++;
+        }
+        while ((hundredths > 0 || digits < 3) && pos > offset);
+        while (pos >= offset)
+        {
+            line[pos--] = ' ';
+        }
+    }
+
+    private static String Pad(String text, int width)
+    {
+        StringBuilder sb = new StringBuilder(text);
+        while (sb.length() < width)
+        {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static String PadLeft(String text, int width)
+    {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() + text.length() < width)
+        {
+            sb.append(' ');
+        }
+        return sb.append(text).toString();
+    }
+}
@@ -1,7 +1,9 @@
 package PaooGame;
 
+import PaooGame.Graphics.GameCamera;
 import PaooGame.Input.KeyManager;
 import PaooGame.Maps.Map;
+import PaooGame.States.StateManager;
 
 /*! \class public class RefLinks
     \brief Clasa ce retine o serie de referinte ale unor elemente pentru a fi usor accesibile.
@@ -31,6 +33,14 @@ public class RefLinks
         return game.GetKeyManager();
     }
 
+    /*! \fn public GameCamera GetGameCamera()
+        \brief Returneaza referinta catre camera jocului.
+     */
+    public GameCamera GetGameCamera()
+    {
+        return game.GetGameCamera();
+    }
+
     /*! \fn public int GetWidth()
         \brief Returneaza latimea ferestrei jocului.
      */
@@ -65,6 +75,14 @@ public class RefLinks
         this.game = game;
     }
 
+    /*! \fn public StateManager GetStateManager()
+        \brief Intoarce registrul starilor jocului.
+     */
+    public StateManager GetStateManager()
+    {
+        return game.GetStateManager();
+    }
+
     /*! \fn public Map GetMap()
         \brief Intoarce referinta catre harta curenta.
      */
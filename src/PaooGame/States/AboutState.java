@@ -1,9 +1,8 @@
 package PaooGame.States;
 
+import PaooGame.Graphics.DrawCommandBuffer;
 import PaooGame.RefLinks;
 
-import java.awt.*;
-
 /*! \class public class AboutState extends State
     \brief Implementeaza notiunea de credentiale (about)
  */
@@ -28,13 +27,13 @@ public class AboutState extends State
 
     }
 
-    /*! \fn public void Draw(Graphics g)
+    /*! \fn public void Draw(DrawCommandBuffer buffer)
         \brief Deseneaza (randeaza) pe ecran starea curenta a meniu about.
 
-        \param g Contextul grafic in care trebuie sa deseneze starea jocului pe ecran.
+        \param buffer Lista de comenzi de desenare a frame-ului.
      */
     @Override
-    public void Draw(Graphics g)
+    public void Draw(DrawCommandBuffer buffer)
     {
 
     }
@@ -1,31 +1,61 @@
 package PaooGame.States;
 
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Graphics.SpriteCache;
+import PaooGame.Input.Action;
+import PaooGame.Input.KeyManager;
 import PaooGame.RefLinks;
+import PaooGame.Timing.SnapshotExchange;
 import java.awt.*;
-import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
 
 /*! \class public class MenuState extends State
     \brief Implementeaza notiunea de menu pentru joc cu functionalitate completa.
+
+    Update() publica la fiecare tick un instantaneu (Frame) cu optiunea selectata si starea incarcarii; Draw()
+    poate rula pe thread-ul de desenare si citeste doar ultimul instantaneu publicat.
  */
 public class MenuState extends State
 {
+    /*! \class private static final class Frame
+        \brief Starea vizuala imutabila a meniului la sfarsitul unui tick.
+     */
+    private static final class Frame
+    {
+        final int selectedOption;
+        final boolean loading;      /*!< Jocul a fost ales, dar harta inca se incarca.*/
+        final boolean up;           /*!< Tastele de navigare (pentru linia de debug).*/
+        final boolean down;
+
+        Frame(int selectedOption, boolean loading, boolean up, boolean down)
+        {
+            this.selectedOption = selectedOption;
+            this.loading = loading;
+            this.up = up;
+            this.down = down;
+        }
+    }
+
     private final Color backgroundColor = new Color(0, 0, 0);
     private final Color buttonColor = new Color(255, 255, 255);
     private final Color textColor = new Color(175, 146, 0);
     private final Color selectedColor = new Color(160, 82, 45);
+    private final Color overlayColor = new Color(0, 0, 0, 120);
     private final Font titleFont = new Font("Papyrus", Font.BOLD, 36);
     private final Font buttonFont = new Font("Papyrus", Font.BOLD, 18);
 
-    private String[] menuOptions = {"NEW GAME", "LOAD GAME", "SETTINGS", "QUIT"};
+    private final String[] menuOptions = {"NEW GAME", "LOAD GAME", "SETTINGS", "QUIT"};
     private int selectedOption = 0;
-    private boolean enterPressed = false;
-    private boolean upPressed = false;
-    private boolean downPressed = false;
+    private final SnapshotExchange<Frame> frames = new SnapshotExchange<>();  /*!< Instantaneele predate desenarii.*/
 
     // Timer pentru debugging
     private long lastDebugTime = 0;
 
+    // Fundalul scalat la dimensiunea ferestrei (din SpriteCache), reluat doar cand se schimba imaginea sau fereastra
+    private BufferedImage scaledBackground;
+    private BufferedImage scaledBackgroundSource;
+
     /*! \fn public MenuState(RefLinks refLink)
         \brief Constructorul de initializare al clasei.
 
@@ -37,6 +67,15 @@ public class MenuState extends State
         System.out.println("✓ MenuState initializat");
     }
 
+    /*! \fn public void OnEnter()
+        \brief Publica starea meniului inainte ca acesta sa devina starea curenta (si sa fie desenat).
+     */
+    @Override
+    public void OnEnter()
+    {
+        PublishFrame();
+    }
+
     /*! \fn public void Update()
         \brief Actualizeaza starea curenta a meniului.
      */
@@ -51,6 +90,17 @@ public class MenuState extends State
             System.out.println("MenuState activ - optiunea selectata: " + selectedOption + " (" + menuOptions[selectedOption] + ")");
             lastDebugTime = currentTime;
         }
+        PublishFrame();
+    }
+
+    /*! \fn private void PublishFrame()
+        \brief Preda desenarii starea meniului de la sfarsitul tick-ului curent.
+     */
+    private void PublishFrame()
+    {
+        KeyManager keyManager = refLink.GetKeyManager();
+        frames.Publish(new Frame(selectedOption, refLink.GetStateManager().IsSwitchPending(),
+                keyManager != null && keyManager.up, keyManager != null && keyManager.down));
     }
 
     private void handleInput()
@@ -61,48 +111,32 @@ public class MenuState extends State
             return;
         }
 
+        KeyManager keyManager = refLink.GetKeyManager();
+
         // Navigare sus
-        if(refLink.GetKeyManager().up && !upPressed)
+        if(keyManager.IsPressed(Action.UP))
         {
-            upPressed = true;
             selectedOption--;
             if(selectedOption < 0)
                 selectedOption = menuOptions.length - 1;
             System.out.println("Navigare sus - optiune selectata: " + menuOptions[selectedOption]);
         }
-        else if(!refLink.GetKeyManager().up)
-        {
-            upPressed = false;
-        }
 
         // Navigare jos
-        if(refLink.GetKeyManager().down && !downPressed)
+        if(keyManager.IsPressed(Action.DOWN))
         {
-            downPressed = true;
             selectedOption++;
             if(selectedOption >= menuOptions.length)
                 selectedOption = 0;
             System.out.println("Navigare jos - optiune selectata: " + menuOptions[selectedOption]);
         }
-        else if(!refLink.GetKeyManager().down)
-        {
-            downPressed = false;
-        }
 
         // Selectare optiune (Enter sau Space)
-        boolean enterKey = refLink.GetKeyManager().keys[KeyEvent.VK_ENTER];
-        boolean spaceKey = refLink.GetKeyManager().keys[KeyEvent.VK_SPACE];
-
-        if((enterKey || spaceKey) && !enterPressed)
+        if(keyManager.IsPressed(Action.CONFIRM))
         {
-            enterPressed = true;
             System.out.println("Optiune selectata: " + menuOptions[selectedOption]);
             executeSelectedOption();
         }
-        else if(!enterKey && !spaceKey)
-        {
-            enterPressed = false;
-        }
     }
 
     private void executeSelectedOption()
@@ -119,7 +153,7 @@ public class MenuState extends State
                 break;
             case 2: // SETTINGS
                 System.out.println("Deschidere Settings...");
-                State.SetState(new SettingsState(refLink));
+                refLink.GetStateManager().Switch(SettingsState.class);
                 break;
             case 3: // QUIT
                 System.out.println("inchidere joc...");
@@ -130,8 +164,8 @@ public class MenuState extends State
 
     private void startNewGame()
     {
-        // Trece la starea de joc
-        State.SetState(new PlayState(refLink));
+        // Trece la starea de joc; daca harta inca se incarca in fundal, trecerea are loc cand este gata
+        refLink.GetStateManager().Switch(PlayState.class);
     }
 
     private void loadGame()
@@ -141,47 +175,66 @@ public class MenuState extends State
         startNewGame();
     }
 
-    /*! \fn public void Draw(Graphics g)
+    /*! \fn public void Draw(DrawCommandBuffer buffer)
         \brief Deseneaza (randeaza) pe ecran starea curenta a meniului.
 
-        \param g Contextul grafic in care trebuie sa deseneze starea jocului pe ecran.
+        Fundalul si umbrirea sunt in straturile de fundal, butoanele in LAYER_UI, iar textele si indicatorii
+        deasupra lor (LAYER_UI + 1).
+
+        \param buffer Lista de comenzi de desenare a frame-ului.
      */
     @Override
-    public void Draw(Graphics g)
+    public void Draw(DrawCommandBuffer buffer)
     {
+        SnapshotExchange.Pair<Frame> pair = frames.Get();
+        if (pair == null) {
+            return;
+        }
+        Frame frame = pair.current;
+        int selectedOption = frame.selectedOption;
+
         // Desenarea fundalului
+        buffer.SetLayer(DrawCommandBuffer.LAYER_BACKGROUND);
         if (Assets.backgroundMenu != null) {
-            // Scaleaza imaginea la dimensiunea ferestrei
-            g.drawImage(Assets.backgroundMenu, 0, 0, refLink.GetWidth(), refLink.GetHeight(), null);
+            // Imaginea scalata la dimensiunea ferestrei este pregatita o singura data, apoi copiata 1:1
+            if (Assets.backgroundMenu != scaledBackgroundSource || scaledBackground.getWidth() != refLink.GetWidth()
+                    || scaledBackground.getHeight() != refLink.GetHeight()) {
+                scaledBackgroundSource = Assets.backgroundMenu;
+                scaledBackground = SpriteCache.Get(scaledBackgroundSource, refLink.GetWidth(), refLink.GetHeight(),
+                        SpriteCache.Interpolation.BILINEAR);
+            }
+            buffer.DrawImage(scaledBackground, 0, 0);
         } else {
             // Fundal de rezerva
-            g.setColor(backgroundColor);
-            g.fillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
+            buffer.SetColor(backgroundColor);
+            buffer.FillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
         }
 
         // Overlay semi-transparent pentru a face textul mai vizibil
-        g.setColor(new Color(0, 0, 0, 120));
-        g.fillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
+        buffer.SetLayer(DrawCommandBuffer.LAYER_BACKGROUND + 1);
+        buffer.SetColor(overlayColor);
+        buffer.FillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
 
         // Desenarea titlului
-        g.setColor(new Color(220, 200, 120)); // Auriu mai cald
-        g.setFont(titleFont);
-        FontMetrics titleFm = g.getFontMetrics();
+        buffer.SetLayer(DrawCommandBuffer.LAYER_UI + 1);
+        buffer.SetColor(new Color(220, 200, 120)); // Auriu mai cald
+        buffer.SetFont(titleFont);
+        FontMetrics titleFm = buffer.GetFontMetrics();
         String title = "LOST EXPEDITION";
         int titleWidth = titleFm.stringWidth(title);
-        g.drawString(title, (refLink.GetWidth() - titleWidth) / 2, 100);
+        buffer.DrawString(title, (refLink.GetWidth() - titleWidth) / 2, 100);
 
         // Desenarea subtitlului
         Font subtitleFont = new Font("Papyrus", Font.ITALIC, 16);
-        g.setFont(subtitleFont);
-        FontMetrics subtitleFm = g.getFontMetrics();
+        buffer.SetFont(subtitleFont);
+        FontMetrics subtitleFm = buffer.GetFontMetrics();
         String subtitle = "A Journey Into the Unknown";
         int subtitleWidth = subtitleFm.stringWidth(subtitle);
-        g.drawString(subtitle, (refLink.GetWidth() - subtitleWidth) / 2, 130);
+        buffer.DrawString(subtitle, (refLink.GetWidth() - subtitleWidth) / 2, 130);
 
         // Desenarea optiunilor de meniu
-        g.setFont(buttonFont);
-        FontMetrics buttonFm = g.getFontMetrics();
+        buffer.SetFont(buttonFont);
+        FontMetrics buttonFm = buffer.GetFontMetrics();
 
         int startY = 200;
         int gap = 60;
@@ -194,46 +247,48 @@ public class MenuState extends State
             int y = startY + i * gap;
 
             // Desenarea fundalului butonului
+            buffer.SetLayer(DrawCommandBuffer.LAYER_UI);
             if(i == selectedOption)
             {
-                g.setColor(selectedColor);
+                buffer.SetColor(selectedColor);
                 // Efect de pulsare pentru optiunea selectata
                 int pulse = (int)(Math.sin(System.currentTimeMillis() * 0.005) * 5);
-                g.fillRect(x - pulse, y - buttonHeight / 2 - pulse, buttonWidth + 2*pulse, buttonHeight + 2*pulse);
+                buffer.FillRect(x - pulse, y - buttonHeight / 2 - pulse, buttonWidth + 2*pulse, buttonHeight + 2*pulse);
             }
             else
             {
-                g.setColor(buttonColor);
-                g.fillRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
+                buffer.SetColor(buttonColor);
+                buffer.FillRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
             }
 
             // Desenarea textului butonului
-            g.setColor(i == selectedOption ? Color.WHITE : textColor);
+            buffer.SetLayer(DrawCommandBuffer.LAYER_UI + 1);
+            buffer.SetColor(i == selectedOption ? Color.WHITE : textColor);
             int textWidth = buttonFm.stringWidth(menuOptions[i]);
             int textX = x + (buttonWidth - textWidth) / 2;
             int textY = y + buttonFm.getAscent() / 2;
-            g.drawString(menuOptions[i], textX, textY);
+            buffer.DrawString(menuOptions[i], textX, textY);
 
             // Desenarea bordurii
-            g.setColor(textColor);
-            g.drawRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
+            buffer.SetColor(textColor);
+            buffer.DrawRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
 
             // Indicatori pentru optiunea selectata
             if(i == selectedOption)
             {
-                g.setColor(Color.YELLOW);
+                buffer.SetColor(Color.YELLOW);
                 int arrowY = y;
                 // Sageti stanga si dreapta
-                g.fillPolygon(new int[]{x - 20, x - 10, x - 20}, new int[]{arrowY - 5, arrowY, arrowY + 5}, 3);
-                g.fillPolygon(new int[]{x + buttonWidth + 10, x + buttonWidth + 20, x + buttonWidth + 10}, new int[]{arrowY - 5, arrowY, arrowY + 5}, 3);
+                buffer.FillPolygon(new int[]{x - 20, x - 10, x - 20}, new int[]{arrowY - 5, arrowY, arrowY + 5}, 3);
+                buffer.FillPolygon(new int[]{x + buttonWidth + 10, x + buttonWidth + 20, x + buttonWidth + 10}, new int[]{arrowY - 5, arrowY, arrowY + 5}, 3);
             }
         }
 
         // Desenarea instructiunilor
         Font instructionFont = new Font("SansSerif", Font.PLAIN, 12);
-        g.setFont(instructionFont);
-        g.setColor(textColor);
-        FontMetrics instrFm = g.getFontMetrics();
+        buffer.SetFont(instructionFont);
+        buffer.SetColor(textColor);
+        FontMetrics instrFm = buffer.GetFontMetrics();
 
         String instruction1 = "Foloseste W/S pentru navigare";
         String instruction2 = "Apasa ENTER/SPACE pentru selectare";
@@ -241,13 +296,21 @@ public class MenuState extends State
         int instr1Width = instrFm.stringWidth(instruction1);
         int instr2Width = instrFm.stringWidth(instruction2);
 
-        g.drawString(instruction1, (refLink.GetWidth() - instr1Width) / 2, refLink.GetHeight() - 40);
-        g.drawString(instruction2, (refLink.GetWidth() - instr2Width) / 2, refLink.GetHeight() - 20);
+        buffer.DrawString(instruction1, (refLink.GetWidth() - instr1Width) / 2, refLink.GetHeight() - 40);
+        buffer.DrawString(instruction2, (refLink.GetWidth() - instr2Width) / 2, refLink.GetHeight() - 20);
 
         // Debug info in coltul din stanga sus
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("SansSerif", Font.PLAIN, 10));
-        g.drawString("Optiune: " + selectedOption + "/" + (menuOptions.length-1), 10, 20);
-        g.drawString("W: " + refLink.GetKeyManager().up + " S: " + refLink.GetKeyManager().down, 10, 35);
+        buffer.SetColor(Color.WHITE);
+        buffer.SetFont(new Font("SansSerif", Font.PLAIN, 10));
+        buffer.DrawString("Optiune: " + selectedOption + "/" + (menuOptions.length-1), 10, 20);
+        buffer.DrawString("W: " + frame.up + " S: " + frame.down, 10, 35);
+
+        // Jocul a fost ales, dar harta inca se incarca
+        if (frame.loading) {
+            buffer.SetFont(buttonFont);
+            buffer.SetColor(Color.WHITE);
+            String loading = "SE INCARCA...";
+            buffer.DrawString(loading, (refLink.GetWidth() - buttonFm.stringWidth(loading)) / 2, refLink.GetHeight() - 70);
+        }
     }
 }
\ No newline at end of file
@@ -1,18 +1,58 @@
 package PaooGame.States;
 
+import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Items.EntitySnapshot;
+import PaooGame.Items.EntityStore;
+import PaooGame.Items.EntityUpdateStage;
 import PaooGame.Items.Hero;
+import PaooGame.Items.ItemSnapshot;
+import PaooGame.Items.SpatialHash;
 import PaooGame.Maps.Map;
+import PaooGame.Profiling.Profiler;
 import PaooGame.RefLinks;
+import PaooGame.Timing.GameClock;
+import PaooGame.Timing.SnapshotExchange;
 
 import java.awt.*;
+import java.util.concurrent.CompletionException;
 
 /*! \class public class PlayState extends State
     \brief Implementeaza/controleaza jocul.
+
+    Update() ruleaza pe thread-ul de actualizare si publica la sfarsitul fiecarui tick un instantaneu (Frame) cu
+    camera si entitatile; Draw() poate rula pe alt thread si deseneaza doar din ultimele doua instantanee,
+    interpoland intre ele.
  */
 public class PlayState extends State
 {
+    /*! \class private static final class Frame
+        \brief Instantaneul imutabil al unui tick: camera, timpul jocului si starea vizuala a entitatilor.
+     */
+    private static final class Frame
+    {
+        final float cameraX;
+        final float cameraY;
+        final long timeMillis;
+        final ItemSnapshot hero;
+        final EntitySnapshot entities;
+
+        Frame(float cameraX, float cameraY, long timeMillis, ItemSnapshot hero, EntitySnapshot entities)
+        {
+            this.cameraX = cameraX;
+            this.cameraY = cameraY;
+            this.timeMillis = timeMillis;
+            this.hero = hero;
+            this.entities = entities;
+        }
+    }
+
     private Hero hero;  /*!< Referinta catre obiectul animat erou (controlat de utilizator).*/
     private Map map;    /*!< Referinta catre harta curenta.*/
+    private final EntityStore entities = new EntityStore();  /*!< Entitatile lumii (eroul, inamicii, obiectele).*/
+    private final SpatialHash spatialHash = new SpatialHash(entities);  /*!< Grila pentru cautarea entitatilor apropiate.*/
+    private final EntityUpdateStage entityUpdate = new EntityUpdateStage();  /*!< Deplasarea entitatilor (paralela pentru multe entitati).*/
+    private final SnapshotExchange<Frame> frames = new SnapshotExchange<>();  /*!< Instantaneele predate desenarii.*/
 
     /*! \fn public PlayState(RefLinks refLink)
         \brief Constructorul de initializare al clasei
@@ -23,12 +63,37 @@ public class PlayState extends State
     {
             ///Apel al constructorului clasei de baza
         super(refLink);
-            ///Construieste harta jocului
+            ///Elementele grafice sunt incarcate in fundal (Assets.Init); jocul are nevoie de toate.
+        try
+        {
+            Assets.Loaded().join();
+        }
+        catch (CompletionException e)
+        {
+                ///Jocul porneste si fara elementele care nu s-au putut incarca (nu se asteapta la nesfarsit).
+            System.err.println("✗ Unele elemente grafice nu au putut fi incarcate: " + e.getCause());
+        }
+            ///Construieste harta jocului (poate rula pe firul de preincarcare al StateManager, vezi OnEnter)
         map = new Map(refLink);
-            ///Referinta catre harta construita este setata si in obiectul shortcut pentru a fi accesibila si in alte clase ale programului.
+            ///Construieste eroul pe uscat, la est de lacul din coltul stanga sus al hartii
+        hero = new Hero(refLink, entities, 304, 176);
+        spatialHash.Insert(hero.GetEntity());
+    }
+
+    /*! \fn public void OnEnter()
+        \brief Publica harta in obiectul shortcut si aduce camera pe erou.
+
+        Nu se face in constructor, deoarece starea poate fi construita in fundal cat timp meniul ruleaza.
+     */
+    @Override
+    public void OnEnter()
+    {
+            ///Referinta catre harta este setata si in obiectul shortcut pentru a fi accesibila si in alte clase ale programului.
         refLink.SetMap(map);
-            ///Construieste eroul
-        hero = new Hero(refLink,100, 100);
+        refLink.GetGameCamera().CenterOnItem(hero);
+            ///Primul frame dupa intrare nu interpoleaza cu instantaneele de la vizita anterioara.
+        frames.Clear();
+        PublishFrame();
     }
 
     /*! \fn public void Update()
@@ -39,19 +104,73 @@ public class PlayState extends State
     {
         map.Update();
         hero.Update();
+            ///Deplaseaza toate entitatile (inclusiv eroul) cu viteza stabilita in acest tick.
+        Profiler.Begin(Profiler.Phase.ENTITY_UPDATE);
+        entityUpdate.Update(entities, map.isMapLoaded() ? map.GetCollisionMap() : null);
+        Profiler.End(Profiler.Phase.ENTITY_UPDATE);
+            ///Entitatile care au trecut in alta celula sunt mutate in grila (coliziunile si atacul o interogheaza).
+        spatialHash.UpdateAll();
+            ///Camera urmareste eroul dupa ce acesta si-a actualizat pozitia.
+        refLink.GetGameCamera().CenterOnItem(hero);
+        PublishFrame();
     }
 
-    /*! \fn public void Draw(Graphics g)
+    /*! \fn private void PublishFrame()
+        \brief Preda desenarii starea vizuala de la sfarsitul tick-ului curent.
+     */
+    private void PublishFrame()
+    {
+        frames.Publish(new Frame(refLink.GetGameCamera().GetXOffset(), refLink.GetGameCamera().GetYOffset(),
+                GameClock.GetTimeMillis(), hero.Snapshot(), entities.Snapshot()));
+    }
+
+    /*! \fn public Hero GetHero()
+        \brief Returneaza eroul controlat de jucator.
+     */
+    public Hero GetHero()
+    {
+        return hero;
+    }
+
+    /*! \fn public SpatialHash GetSpatialHash()
+        \brief Returneaza grila entitatilor, actualizata la sfarsitul fiecarui tick.
+     */
+    public SpatialHash GetSpatialHash()
+    {
+        return spatialHash;
+    }
+
+    /*! \fn public void Draw(DrawCommandBuffer buffer)
         \brief Deseneaza (randeaza) pe ecran starea curenta a jocului.
 
-        \param g Contextul grafic in care trebuie sa deseneze starea jocului pe ecran.
+        \param buffer Lista de comenzi de desenare a frame-ului.
      */
     @Override
-    public void Draw(Graphics g)
+    public void Draw(DrawCommandBuffer buffer)
     {
-        g.setColor(Color.RED);
-        g.fillOval(100, 100, 50, 50);
-        map.Draw(g);
-        hero.Draw(g);
+        SnapshotExchange.Pair<Frame> pair = frames.Get();
+        if (pair == null)
+        {
+            return;
+        }
+        Frame previous = pair.previous;
+        Frame current = pair.current;
+            ///Cand desenarea urmeaza imediat actualizarii, pe acelasi thread, se deseneaza ultimul instantaneu.
+        float alpha = refLink.GetGame().IsRenderThreaded()
+                ? pair.Alpha(refLink.GetGame().GetUpdateStep(), System.nanoTime()) : 1f;
+        float cameraX = previous.cameraX + (current.cameraX - previous.cameraX) * alpha;
+        float cameraY = previous.cameraY + (current.cameraY - previous.cameraY) * alpha;
+        long timeMillis = previous.timeMillis + (long)((current.timeMillis - previous.timeMillis) * alpha);
+
+        buffer.SetLayer(DrawCommandBuffer.LAYER_BACKGROUND);
+        buffer.SetColor(Color.RED);
+        buffer.FillOval(100, 100, 50, 50);
+        Profiler.Begin(Profiler.Phase.MAP_DRAW);
+        map.Draw(buffer, cameraX, cameraY, timeMillis);
+        Profiler.End(Profiler.Phase.MAP_DRAW);
+        buffer.SetLayer(DrawCommandBuffer.LAYER_ITEMS);
+        current.entities.Draw(buffer, previous.entities, alpha, cameraX, cameraY,
+                refLink.GetWidth(), refLink.GetHeight());
+        current.hero.Draw(buffer, previous.hero, alpha, cameraX, cameraY, timeMillis);
     }
 }
@@ -1,16 +1,37 @@
 package PaooGame.States;
 
+import PaooGame.Graphics.DrawCommandBuffer;
+import PaooGame.Input.Action;
+import PaooGame.Input.KeyManager;
 import PaooGame.RefLinks;
+import PaooGame.Timing.SnapshotExchange;
 import java.awt.*;
-import java.awt.event.KeyEvent;
 
 /*! \class public class SettingsState extends State
     \brief Implementeaza notiunea de settings pentru joc cu functionalitate completa.
 
     Aici setarile vor trebui salvate/incarcate intr-un/dintr-un fisier/baza de date sqlite.
+
+    Update() publica la fiecare tick un instantaneu (Frame) cu optiunea selectata si textele optiunilor; Draw()
+    poate rula pe thread-ul de desenare si citeste doar ultimul instantaneu publicat.
  */
 public class SettingsState extends State
 {
+    /*! \class private static final class Frame
+        \brief Starea vizuala imutabila a setarilor la sfarsitul unui tick.
+     */
+    private static final class Frame
+    {
+        final int selectedOption;
+        final String[] labels;      /*!< Copie a textelor optiunilor (nu se modifica dupa publicare).*/
+
+        Frame(int selectedOption, String[] labels)
+        {
+            this.selectedOption = selectedOption;
+            this.labels = labels;
+        }
+    }
+
     private final Color backgroundColor = new Color(0, 0, 0);
     private final Color textColor = new Color(175, 146, 0);
     private final Color titleColor = new Color(255, 215, 0);
@@ -22,12 +43,7 @@ public class SettingsState extends State
 
     private String[] settingOptions = {"SUNET: ON", "MUZICA: ON", "VOLUM: 100%", "SALVARE SETARI", "INAPOI LA MENIU"};
     private int selectedOption = 0;
-    private boolean enterPressed = false;
-    private boolean upPressed = false;
-    private boolean downPressed = false;
-    private boolean leftPressed = false;
-    private boolean rightPressed = false;
-    private boolean escapePressed = false;
+    private final SnapshotExchange<Frame> frames = new SnapshotExchange<>();  /*!< Instantaneele predate desenarii.*/
 
     // Variabile pentru setari
     private boolean soundEnabled = true;
@@ -45,6 +61,17 @@ public class SettingsState extends State
         updateSettingDisplays();
     }
 
+    /*! \fn public void OnEnter()
+        \brief La fiecare intrare cursorul revine pe prima optiune; valorile setarilor sunt pastrate.
+     */
+    @Override
+    public void OnEnter()
+    {
+        selectedOption = 0;
+        updateSettingDisplays();
+        PublishFrame();
+    }
+
     /*! \fn public void Update()
         \brief Actualizeaza starea setarilor.
      */
@@ -53,78 +80,59 @@ public class SettingsState extends State
     {
         handleInput();
         updateSettingDisplays();
+        PublishFrame();
+    }
+
+    /*! \fn private void PublishFrame()
+        \brief Preda desenarii starea setarilor de la sfarsitul tick-ului curent.
+     */
+    private void PublishFrame()
+    {
+        frames.Publish(new Frame(selectedOption, settingOptions.clone()));
     }
 
     private void handleInput()
     {
+        KeyManager keyManager = refLink.GetKeyManager();
+
         // Navigare sus
-        if(refLink.GetKeyManager().up && !upPressed)
+        if(keyManager.IsPressed(Action.UP))
         {
-            upPressed = true;
             selectedOption--;
             if(selectedOption < 0)
                 selectedOption = settingOptions.length - 1;
         }
-        else if(!refLink.GetKeyManager().up)
-        {
-            upPressed = false;
-        }
 
         // Navigare jos
-        if(refLink.GetKeyManager().down && !downPressed)
+        if(keyManager.IsPressed(Action.DOWN))
         {
-            downPressed = true;
             selectedOption++;
             if(selectedOption >= settingOptions.length)
                 selectedOption = 0;
         }
-        else if(!refLink.GetKeyManager().down)
-        {
-            downPressed = false;
-        }
 
         // Navigare stanga (pentru modificarea setarilor)
-        if(refLink.GetKeyManager().left && !leftPressed)
+        if(keyManager.IsPressed(Action.LEFT))
         {
-            leftPressed = true;
             modifySetting(-1);
         }
-        else if(!refLink.GetKeyManager().left)
-        {
-            leftPressed = false;
-        }
 
         // Navigare dreapta (pentru modificarea setarilor)
-        if(refLink.GetKeyManager().right && !rightPressed)
+        if(keyManager.IsPressed(Action.RIGHT))
         {
-            rightPressed = true;
             modifySetting(1);
         }
-        else if(!refLink.GetKeyManager().right)
-        {
-            rightPressed = false;
-        }
 
         // Selectare optiune
-        if((refLink.GetKeyManager().keys[KeyEvent.VK_ENTER] || refLink.GetKeyManager().keys[KeyEvent.VK_SPACE]) && !enterPressed)
+        if(keyManager.IsPressed(Action.CONFIRM))
         {
-            enterPressed = true;
             executeSelectedOption();
         }
-        else if(!refLink.GetKeyManager().keys[KeyEvent.VK_ENTER] && !refLink.GetKeyManager().keys[KeyEvent.VK_SPACE])
-        {
-            enterPressed = false;
-        }
 
         // Intoarcere la meniu cu ESC
-        if(refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE] && !escapePressed)
-        {
-            escapePressed = true;
-            State.SetState(new MenuState(refLink));
-        }
-        else if(!refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE])
+        if(keyManager.IsPressed(Action.BACK))
         {
-            escapePressed = false;
+            refLink.GetStateManager().Switch(MenuState.class);
         }
     }
 
@@ -163,7 +171,7 @@ public class SettingsState extends State
                 saveSettings();
                 break;
             case 4: // INAPOI LA MENIU
-                State.SetState(new MenuState(refLink));
+                refLink.GetStateManager().Switch(MenuState.class);
                 break;
         }
     }
@@ -185,29 +193,39 @@ public class SettingsState extends State
         System.out.println("Volum: " + volume);
     }
 
-    /*! \fn public void Draw(Graphics g)
+    /*! \fn public void Draw(DrawCommandBuffer buffer)
         \brief Deseneaza (randeaza) pe ecran setarile.
 
-        \param g Contextul grafic in care trebuie sa deseneze starea setarilor pe ecran.
+        \param buffer Lista de comenzi de desenare a frame-ului.
      */
     @Override
-    public void Draw(Graphics g)
+    public void Draw(DrawCommandBuffer buffer)
     {
+        SnapshotExchange.Pair<Frame> pair = frames.Get();
+        if(pair == null)
+        {
+            return;
+        }
+        int selectedOption = pair.current.selectedOption;
+        String[] settingOptions = pair.current.labels;
+
         // Desenarea fundalului
-        g.setColor(backgroundColor);
-        g.fillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
+        buffer.SetLayer(DrawCommandBuffer.LAYER_BACKGROUND);
+        buffer.SetColor(backgroundColor);
+        buffer.FillRect(0, 0, refLink.GetWidth(), refLink.GetHeight());
 
         // Titlul principal
-        g.setColor(titleColor);
-        g.setFont(titleFont);
-        FontMetrics titleFm = g.getFontMetrics();
+        buffer.SetLayer(DrawCommandBuffer.LAYER_UI + 1);
+        buffer.SetColor(titleColor);
+        buffer.SetFont(titleFont);
+        FontMetrics titleFm = buffer.GetFontMetrics();
         String title = "SETARI";
         int titleWidth = titleFm.stringWidth(title);
-        g.drawString(title, (refLink.GetWidth() - titleWidth) / 2, 80);
+        buffer.DrawString(title, (refLink.GetWidth() - titleWidth) / 2, 80);
 
         // Desenarea optiunilor
-        g.setFont(optionFont);
-        FontMetrics optionFm = g.getFontMetrics();
+        buffer.SetFont(optionFont);
+        FontMetrics optionFm = buffer.GetFontMetrics();
 
         int startY = 150;
         int gap = 60;
@@ -220,40 +238,42 @@ public class SettingsState extends State
             int y = startY + i * gap;
 
             // Desenarea fundalului optiunii
+            buffer.SetLayer(DrawCommandBuffer.LAYER_UI);
             if(i == selectedOption)
             {
-                g.setColor(selectedColor);
+                buffer.SetColor(selectedColor);
             }
             else
             {
-                g.setColor(buttonColor);
+                buffer.SetColor(buttonColor);
             }
-            g.fillRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
+            buffer.FillRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
 
             // Desenarea textului optiunii
-            g.setColor(i == selectedOption ? Color.WHITE : textColor);
+            buffer.SetLayer(DrawCommandBuffer.LAYER_UI + 1);
+            buffer.SetColor(i == selectedOption ? Color.WHITE : textColor);
             int textWidth = optionFm.stringWidth(settingOptions[i]);
             int textX = x + (buttonWidth - textWidth) / 2;
             int textY = y + optionFm.getAscent() / 2;
-            g.drawString(settingOptions[i], textX, textY);
+            buffer.DrawString(settingOptions[i], textX, textY);
 
             // Desenarea bordurii
-            g.setColor(textColor);
-            g.drawRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
+            buffer.SetColor(textColor);
+            buffer.DrawRect(x, y - buttonHeight / 2, buttonWidth, buttonHeight);
 
             // Indicatori pentru setarile modificabile
             if(i < 3) // Primele 3 optiuni sunt modificabile
             {
-                g.setColor(textColor);
-                g.drawString("<", x - 30, textY);
-                g.drawString(">", x + buttonWidth + 10, textY);
+                buffer.SetColor(textColor);
+                buffer.DrawString("<", x - 30, textY);
+                buffer.DrawString(">", x + buttonWidth + 10, textY);
             }
         }
 
         // Instructiuni
-        g.setFont(instructionFont);
-        g.setColor(titleColor);
-        FontMetrics instrFm = g.getFontMetrics();
+        buffer.SetFont(instructionFont);
+        buffer.SetColor(titleColor);
+        FontMetrics instrFm = buffer.GetFontMetrics();
 
         String[] instructions = {
                 "W/S - Navigare sus/jos",
@@ -266,12 +286,12 @@ public class SettingsState extends State
         for(String instruction : instructions)
         {
             int instrWidth = instrFm.stringWidth(instruction);
-            g.drawString(instruction, (refLink.GetWidth() - instrWidth) / 2, instrY);
+            buffer.DrawString(instruction, (refLink.GetWidth() - instrWidth) / 2, instrY);
             instrY += 15;
         }
 
         // Bordura decorativa
-        g.setColor(textColor);
-        g.drawRect(20, 20, refLink.GetWidth() - 40, refLink.GetHeight() - 40);
+        buffer.SetColor(textColor);
+        buffer.DrawRect(20, 20, refLink.GetWidth() - 40, refLink.GetHeight() - 40);
     }
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package PaooGame.States;
 
+import PaooGame.Graphics.DrawCommandBuffer;
 import PaooGame.RefLinks;
 
-import java.awt.*;
-
 /*! \class State
     \brief Implementeaza notiunea abstracta de stare a jocului/programului.
 
@@ -14,8 +13,9 @@ import java.awt.*;
 public abstract class State
 {
         ///Urmatoarele atribute sunt statice pentru a evita dealocarea spatiului de memorie la trecerea dintr-o stare in alta.
-    private static State previousState  = null; /*!< Referinta catre starea anterioara a jocului.*/
-    private static State currentState   = null; /*!< Referinta catre starea curenta a jocului: game, meniu, settings, about etc.*/
+    ///Volatile: starea este schimbata de thread-ul de actualizare si citita de cel de desenare.
+    private static volatile State previousState  = null; /*!< Referinta catre starea anterioara a jocului.*/
+    private static volatile State currentState   = null; /*!< Referinta catre starea curenta a jocului: game, meniu, settings, about etc.*/
     protected RefLinks refLink;
     public State(RefLinks refLink)
     {
@@ -38,8 +38,24 @@ public abstract class State
         return currentState;
     }
 
+    /*! \fn public void OnEnter()
+        \brief Apelata de StateManager chiar inainte ca starea sa devina starea curenta (instanta este refolosita intre intrari).
+
+        Starea nu poate fi inca desenata in timpul apelului; aici se publica primul instantaneu pentru desenare.
+     */
+    public void OnEnter()
+    {
+    }
+
+    /*! \fn public void OnExit()
+        \brief Apelata de StateManager cand starea inceteaza sa fie starea curenta.
+     */
+    public void OnExit()
+    {
+    }
+
         ///Metoda abstracta destinata actualizarii starii curente
     public abstract void Update();
-        ///Metoda abstracta destinata desenarii starii curente
-    public abstract void Draw(Graphics g);
+        ///Metoda abstracta destinata desenarii starii curente: adauga comenzile in lista frame-ului (redata de Game)
+    public abstract void Draw(DrawCommandBuffer buffer);
 }
@@ -0,0 +1,168 @@
+package PaooGame.States;
+
+import PaooGame.RefLinks;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/*! \class public class StateManager
+    \brief Registrul starilor jocului: fiecare stare este construita o singura data si apoi refolosita.
+
+    Starile sunt inregistrate cu o functie de constructie si identificate prin clasa lor. O stare este construita
+    la prima cerere (Get / Switch) sau dinainte, pe un fir de fundal (Preload), ceea ce conteaza pentru starile
+    grele: PlayState citeste harta TMX si asteapta toate elementele grafice.
+
+    Switch() nu blocheaza firul jocului: daca starea ceruta inca se construieste, trecerea este amanata si
+    efectuata de Update() in primul tick in care starea este gata (starea curenta continua sa ruleze intre timp).
+    In modul blocant (rulari headless si redari de input, unde conteaza ca trecerea sa aiba loc intotdeauna in
+    acelasi tick) Switch() asteapta starea.
+
+    La fiecare trecere starea parasita primeste OnExit(), iar cea noua OnEnter(), inainte de a deveni starea curenta.
+ */
+public class StateManager
+{
+    private final RefLinks refLink;
+    private final HashMap<Class<? extends State>, Function<RefLinks, ? extends State>> factories = new HashMap<>();
+    private final HashMap<Class<? extends State>, CompletableFuture<State>> instances = new HashMap<>();
+    private final ExecutorService loader;       /*!< Firul pe care sunt construite starile preincarcate.*/
+    private boolean blocking;                   /*!< Switch() asteapta starea in loc sa amane trecerea.*/
+    private CompletableFuture<State> pending;   /*!< Starea la care se va trece cand este gata (sau null).*/
+
+    /*! \fn public StateManager(RefLinks refLink)
+        \brief Constructorul clasei.
+
+        \param refLink Referinta transmisa starilor la construire.
+     */
+    public StateManager(RefLinks refLink)
+    {
+        this.refLink = refLink;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "state-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*! \fn public <T extends State> void Register(Class<T> type, Function<RefLinks, T> factory)
+        \brief Inregistreaza o stare; nu o construieste.
+     */
+    public <T extends State> void Register(Class<T> type, Function<RefLinks, T> factory)
+    {
+        factories.put(type, factory);
+    }
+
+    /*! \fn public void SetBlocking(boolean blocking)
+        \brief In modul blocant Switch() asteapta construirea starii (trecerea are loc mereu in acelasi tick).
+     */
+    public void SetBlocking(boolean blocking)
+    {
+        this.blocking = blocking;
+    }
+
+    /*! \fn public CompletableFuture<State> Preload(Class<? extends State> type)
+        \brief Porneste construirea starii pe firul de fundal (daca nu a fost deja ceruta) si revine imediat.
+     */
+    public CompletableFuture<State> Preload(Class<? extends State> type)
+    {
+        CompletableFuture<State> instance = instances.get(type);
+        if (instance == null)
+        {
+            Function<RefLinks, ? extends State> factory = Factory(type);
+            instance = CompletableFuture.supplyAsync(() -> Construct(type, factory), loader);
+            instances.put(type, instance);
+        }
+        return instance;
+    }
+
+    /*! \fn public <T extends State> T Get(Class<T> type)
+        \brief Returneaza instanta starii, construind-o pe firul curent daca nu a fost ceruta inca.
+
+        Daca starea se construieste in fundal, asteapta terminarea.
+     */
+    public <T extends State> T Get(Class<T> type)
+    {
+        CompletableFuture<State> instance = instances.get(type);
+        if (instance == null)
+        {
+            instance = CompletableFuture.completedFuture(Construct(type, Factory(type)));
+            instances.put(type, instance);
+        }
+        return type.cast(instance.join());
+    }
+
+    /*! \fn public void Switch(Class<? extends State> type)
+        \brief Trece la starea data, imediat daca este construita (sau in modul blocant), altfel cand devine gata.
+     */
+    public void Switch(Class<? extends State> type)
+    {
+        CompletableFuture<State> instance = instances.get(type);
+        if (blocking || instance == null || instance.isDone())
+        {
+            pending = null;
+            Enter(Get(type));
+            return;
+        }
+        System.out.println("⏳ " + type.getSimpleName() + " se incarca, trecerea va avea loc cand este gata");
+        pending = instance;
+    }
+
+    /*! \fn public void Update()
+        \brief Efectueaza o trecere amanata daca starea ceruta a fost construita. Se apeleaza o data pe tick.
+     */
+    public void Update()
+    {
+        if (pending != null && pending.isDone())
+        {
+            State next = pending.join();
+            pending = null;
+            Enter(next);
+        }
+    }
+
+    /*! \fn public boolean IsSwitchPending()
+        \brief Returneaza true daca se asteapta construirea starii la care s-a cerut trecerea.
+     */
+    public boolean IsSwitchPending()
+    {
+        return pending != null;
+    }
+
+    private void Enter(State next)
+    {
+        State current = State.GetState();
+        if (next == current)
+        {
+            return;
+        }
+        if (current != null)
+        {
+            current.OnExit();
+        }
+        ///Starea este publicata abia dupa OnEnter(): thread-ul de desenare poate desena starea curenta oricand,
+        ///deci trebuie sa gaseasca deja instantaneele si referintele (harta) pregatite de OnEnter().
+        next.OnEnter();
+        State.SetState(next);
+    }
+
+    private Function<RefLinks, ? extends State> Factory(Class<? extends State> type)
+    {
+        Function<RefLinks, ? extends State> factory = factories.get(type);
+        if (factory == null)
+        {
+            throw new IllegalArgumentException("Starea " + type.getSimpleName() + " nu este inregistrata");
+        }
+        return factory;
+    }
+
+    private State Construct(Class<? extends State> type, Function<RefLinks, ? extends State> factory)
+    {
+        long start = System.nanoTime();
+        State state = factory.apply(refLink);
+        System.out.printf("✓ %s construita in %.1f ms [%s]%n", type.getSimpleName(),
+                (System.nanoTime() - start) / 1e6, Thread.currentThread().getName());
+        return state;
+    }
+}
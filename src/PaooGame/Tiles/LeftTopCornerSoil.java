@@ -1,28 +0,0 @@
-package PaooGame.Tiles;
-
-import PaooGame.Graphics.Assets;
-
-/*! \class public class TreeTile extends Tile
-    \brief Abstractizeaza notiunea de dala de tip tree.
- */
-public class LeftTopCornerSoil extends Tile
-{
-    /*! \fn public TreeTile(int id)
-        \brief Constructorul de initializare al clasei
-
-        \param id Id-ul dalei util in desenarea hartii.
-     */
-    public LeftTopCornerSoil(int id)
-    {
-        super(Assets.grass, id);
-    }
-
-    /*! \fn public boolean IsSolid()
-        \brief Suprascrie metoda IsSolid() din clasa de baza in sensul ca va fi luat in calcul in caz de coliziune.
-     */
-    @Override
-    public boolean IsSolid()
-    {
-        return true;
-    }
-}
\ No newline at end of file
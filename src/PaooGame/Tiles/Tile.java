@@ -1,52 +1,46 @@
 package PaooGame.Tiles;
 
+import PaooGame.Graphics.SpriteCache;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
 /*! \class public class Tile
-    \brief Retine toate dalele intr-un vector si ofera posibilitatea regasirii dupa un id.
+    \brief Tipul de dala corespunzator unui GID din tileset-urile hartii.
+
+    Dalele sunt create de TilesetRegistry, cate una pentru fiecare GID, si sunt partajate de toate pozitiile
+    din harta care folosesc acel GID. Proprietatile dalei (solida, animata) sunt citite din fisierele .tsx si
+    retinute ca flaguri, nu prin subclase.
  */
 public class Tile
 {
-    private static final int NO_TILES   = 200;
-    public static Tile[] tiles          = new Tile[NO_TILES];       /*!< Vector de referinte de tipuri de dale.*/
-
-    /// De remarcat ca urmatoarele dale sunt statice si publice. Acest lucru imi permite sa le am incarcate
-    /// o singura data in memorie
-
-
-
-    public static Tile grassTile         = new GrassTile(82);
-    public static Tile grassTile2         = new GrassTile2(98);
-    public static Tile soilTile         = new SoilTile(17);
-    public static Tile waterTile         = new WaterTile(145);
-    public static Tile deepWaterTile       = new DeepWaterTile(180);
-    public static Tile rigthMarginSoil      = new RigthMarginSoilTile(83);
-    public static Tile rigthMarginSoil2   =new RigthMarginSoilTile2(99);
-    public static Tile leftTopCornerSoil = new LeftTopCornerSoil(0);
-
     public static final int TILE_WIDTH  = 16;                       /*!< Latimea unei dale.*/
     public static final int TILE_HEIGHT = 16;                       /*!< Inaltimea unei dale.*/
 
     protected BufferedImage img;                                    /*!< Imaginea aferenta tipului de dala.*/
-    protected final int id;                                         /*!< Id-ul unic aferent tipului de dala.*/
+    protected final int id;                                         /*!< Id-ul unic aferent tipului de dala (GID-ul din harta).*/
+    protected final int flags;                                      /*!< Flagurile dalei (vezi TilesetRegistry.FLAG_*).*/
 
-    /*! \fn public Tile(BufferedImage texture, int id)
+    /*! \fn public Tile(BufferedImage image, int id, int flags)
         \brief Constructorul aferent clasei.
 
-        \param image Imaginea corespunzatoare dalei.
-        \param id Id-ul dalei.
+        \param image Imaginea corespunzatoare dalei (scalata la TILE_WIDTH x TILE_HEIGHT daca are alta dimensiune).
+        \param id Id-ul dalei (GID-ul din harta).
+        \param flags Flagurile dalei (solida, animata).
      */
-    public Tile(BufferedImage image, int idd)
+    public Tile(BufferedImage image, int id, int flags)
     {
-        img = image;
-        id = idd;
-
-        tiles[id] = this;
+        /// Imaginile din tileset-uri cu alta dimensiune a dalei sunt scalate o singura data aici
+        img = SpriteCache.Get(image, TILE_WIDTH, TILE_HEIGHT, SpriteCache.Interpolation.NEAREST);
+        this.id = id;
+        this.flags = flags;
     }
 
     /*! \fn public void Update()
         \brief Actualizeaza proprietatile dalei.
+
+        Animatiile nu sunt actualizate per dala: cadrul curent al fiecarui GID animat este rezolvat o data pe frame
+        de TilesetRegistry.UpdateAnimations() (apelat din Map.Draw(), pe thread-ul de desenare).
      */
     public void Update()
     {
@@ -62,8 +56,8 @@ public class Tile
      */
     public void Draw(Graphics g, int x, int y)
     {
-        /// Desenare dala
-        g.drawImage(img, x, y, TILE_WIDTH, TILE_HEIGHT, null);
+        /// Desenare dala (imaginea are deja dimensiunea dalei, copiere 1:1 fara scalare)
+        g.drawImage(img, x, y, null);
     }
 
     /*! \fn public boolean IsSolid()
@@ -71,7 +65,15 @@ public class Tile
      */
     public boolean IsSolid()
     {
-        return false;
+        return (flags & TilesetRegistry.FLAG_SOLID) != 0;
+    }
+
+    /*! \fn public boolean IsAnimated()
+        \brief Returneaza true daca dala are o animatie definita in tileset.
+     */
+    public boolean IsAnimated()
+    {
+        return (flags & TilesetRegistry.FLAG_ANIMATED) != 0;
     }
 
     /*! \fn public int GetId()
@@ -82,5 +84,11 @@ public class Tile
         return id;
     }
 
-
-}
\ No newline at end of file
+    /*! \fn public BufferedImage GetImage()
+        \brief Returneaza imaginea dalei.
+     */
+    public BufferedImage GetImage()
+    {
+        return img;
+    }
+}
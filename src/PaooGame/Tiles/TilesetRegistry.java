@@ -0,0 +1,564 @@
+package PaooGame.Tiles;
+
+import PaooGame.Graphics.CompatibleImages;
+import PaooGame.Graphics.ImageLoader;
+import PaooGame.Graphics.SpriteSheet;
+import PaooGame.Maps.TilesetRef;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*! \class public class TilesetRegistry
+    \brief Registrul dalelor unei harti, construit din elementele <tileset firstgid source> si fisierele .tsx.
+
+    Fiecare GID este rezolvat printr-un vector plat indexat direct cu GID-ul (acces O(1), fara exceptii):
+    GID-urile necunoscute sau goale intorc null. Proprietatile dalelor (solida, animata) sunt impachetate
+    intr-un vector de flaguri pe un octet per GID, ca sa poata fi consultate fara a accesa obiectul Tile.
+
+    Animatiile din .tsx (<animation><frame tileid duration/></animation>) sunt rezolvate central: tabela frames
+    indica, pentru fiecare GID, GID-ul cadrului afisat acum. UpdateAnimations() o actualizeaza o data pe frame,
+    parcurgand doar GID-urile animate, iar desenarea foloseste GetFrameTile(). Toate aparitiile unui GID animat
+    sunt sincronizate (ca in Tiled), deci o suprafata mare de apa costa o singura intrare in tabela.
+ */
+public class TilesetRegistry
+{
+    public static final int FLAG_SOLID      = 1;            /*!< Dala participa la coliziuni (proprietatea "solid" din .tsx).*/
+    public static final int FLAG_ANIMATED   = 1 << 1;       /*!< Dala are o animatie (<animation> in .tsx).*/
+
+    public static final int GID_MASK        = 0x0FFFFFFF;   /*!< Elimina bitii de oglindire/rotire pe care Tiled ii scrie in GID.*/
+
+    private final Tile[] tiles;     /*!< Dala pentru fiecare GID (null pentru GID-uri fara imagine).*/
+    private final byte[] flags;     /*!< Flagurile pentru fiecare GID.*/
+
+    private final int[] frames;             /*!< GID-ul cadrului curent pentru fiecare GID (identitate pentru dalele statice).*/
+    private final boolean[] frameChanged;   /*!< GID-urile al caror cadru s-a schimbat la ultimul UpdateAnimations().*/
+    private final int[] animatedGids;       /*!< GID-urile care au animatie.*/
+    private final int[] animationStart;     /*!< Pentru fiecare GID animat, indicele primului cadru in frameGids/frameDurations.*/
+    private final int[] animationLength;    /*!< Pentru fiecare GID animat, numarul de cadre.*/
+    private final int[] animationCycle;     /*!< Pentru fiecare GID animat, durata totala a ciclului, in milisecunde.*/
+    private final int[] frameGids;          /*!< Cadrele tuturor animatiilor, concatenate (GID-uri).*/
+    private final int[] frameDurations;     /*!< Durata fiecarui cadru, in milisecunde.*/
+
+    /*! \class private static class TsxInfo
+        \brief Informatiile citite dintr-un fisier .tsx.
+     */
+    private static class TsxInfo
+    {
+        int tileWidth   = Tile.TILE_WIDTH;
+        int tileHeight  = Tile.TILE_HEIGHT;
+        int tileCount;
+        int columns;
+        int spacing;
+        int margin;
+        String imagePath;           /*!< Calea imaginii, relativa la directorul de lucru.*/
+        byte[] localFlags;          /*!< Flagurile indexate dupa id-ul local al dalei.*/
+        HashMap<Integer, int[][]> animations = new HashMap<>();    /*!< Id local -> {id-urile locale ale cadrelor, duratele}.*/
+    }
+
+    private TilesetRegistry(Tile[] tiles, byte[] flags, List<int[][]> animations, List<Integer> gids)
+    {
+        this.tiles = tiles;
+        this.flags = flags;
+
+        frames = new int[tiles.length];
+        for (int gid = 0; gid < frames.length; gid++)
+        {
+            frames[gid] = gid;
+        }
+        frameChanged = new boolean[tiles.length];
+
+        int animationCount = gids.size();
+        int totalFrames = 0;
+        for (int[][] animation : animations)
+        {
+            totalFrames += animation[0].length;
+        }
+        animatedGids = new int[animationCount];
+        animationStart = new int[animationCount];
+        animationLength = new int[animationCount];
+        animationCycle = new int[animationCount];
+        frameGids = new int[totalFrames];
+        frameDurations = new int[totalFrames];
+
+        int next = 0;
+        for (int i = 0; i < animationCount; i++)
+        {
+            int[][] animation = animations.get(i);
+            animatedGids[i] = gids.get(i);
+            animationStart[i] = next;
+            animationLength[i] = animation[0].length;
+            for (int f = 0; f < animation[0].length; f++)
+            {
+                frameGids[next] = animation[0][f];
+                frameDurations[next] = animation[1][f];
+                animationCycle[i] += animation[1][f];
+                next++;
+            }
+        }
+    }
+
+    /*! \fn public static TilesetRegistry Load(File mapDirectory, List<TilesetRef> tilesets)
+        \brief Construieste registrul pentru tileset-urile unei harti.
+
+        Tileset-urile lipsa sunt semnalate si ignorate (GID-urile lor vor fi desenate ca goale). Daca o cale
+        nu exista (de exemplu o cale absoluta din calculatorul autorului hartii), se cauta un fisier cu acelasi
+        nume in directorul hartii.
+
+        \param mapDirectory Directorul fisierului .tmx.
+        \param tilesets Referintele catre tileset-uri, asa cum apar in harta.
+     */
+    public static TilesetRegistry Load(File mapDirectory, List<TilesetRef> tilesets)
+    {
+        TsxInfo[] infos = ParseTilesets(mapDirectory, tilesets);
+
+        /// Toate imaginile tileset-urilor sunt decodificate in paralel, inainte de decupare.
+        HashMap<String, CompletableFuture<BufferedImage>> images = StartImageLoads(infos);
+
+        int maxGid = 0;
+        for (int i = 0; i < tilesets.size(); i++)
+        {
+            if (infos[i] != null)
+            {
+                maxGid = Math.max(maxGid, tilesets.get(i).GetFirstGid() + infos[i].tileCount - 1);
+            }
+        }
+
+        Tile[] tiles = new Tile[maxGid + 1];
+        byte[] flags = new byte[maxGid + 1];
+        List<int[][]> animations = new ArrayList<>();
+        List<Integer> animatedGids = new ArrayList<>();
+
+        for (int i = 0; i < tilesets.size(); i++)
+        {
+            TsxInfo info = infos[i];
+            if (info == null || info.imagePath == null)
+            {
+                continue;
+            }
+
+            BufferedImage image;
+            try
+            {
+                image = images.get(info.imagePath).join();
+            }
+            catch (CompletionException | CancellationException e)
+            {
+                /// Dalele tileset-ului raman fara imagine (si fara proprietati); harta se incarca in continuare.
+                System.err.println("✗ Imaginea tileset-ului nu a putut fi decodificata: " + info.imagePath + " (" + e.getCause() + ")");
+                continue;
+            }
+            SpriteSheet sheet = new SpriteSheet(image);
+            int firstGid = tilesets.get(i).GetFirstGid();
+            int columns = info.columns > 0 ? info.columns : Math.max(1, (image.getWidth() - 2 * info.margin + info.spacing) / (info.tileWidth + info.spacing));
+            for (int local = 0; local < info.tileCount; local++)
+            {
+                int px = info.margin + (local % columns) * (info.tileWidth + info.spacing);
+                int py = info.margin + (local / columns) * (info.tileHeight + info.spacing);
+                int gid = firstGid + local;
+                flags[gid] = info.localFlags[local];
+
+                /// Dalele care ies din imagine (tilecount mai mare decat imaginea) raman fara imagine.
+                if (px + info.tileWidth <= image.getWidth() && py + info.tileHeight <= image.getHeight())
+                {
+                    tiles[gid] = new Tile(sheet.crop(px, py, info.tileWidth, info.tileHeight), gid, flags[gid]);
+                }
+            }
+
+            /// Cadrele animatiilor sunt id-uri locale ale aceluiasi tileset; se transforma in GID-uri.
+            for (Map.Entry<Integer, int[][]> entry : info.animations.entrySet())
+            {
+                int[][] local = entry.getValue();
+                int[] gids = new int[local[0].length];
+                for (int f = 0; f < gids.length; f++)
+                {
+                    gids[f] = firstGid + local[0][f];
+                }
+                animatedGids.add(firstGid + entry.getKey());
+                animations.add(new int[][] { gids, local[1] });
+            }
+        }
+
+        System.out.println("✓ Registru de dale construit: " + tilesets.size() + " tileset-uri, GID maxim " + maxGid
+                + ", " + animatedGids.size() + " dale animate");
+        return new TilesetRegistry(tiles, flags, animations, animatedGids);
+    }
+
+    /*! \fn public static CompletableFuture<Void> Prefetch(File mapDirectory, List<TilesetRef> tilesets)
+        \brief Porneste decodificarea imaginilor tileset-urilor in fundal, fara a construi registrul.
+
+        Imaginile raman in cache-ul ImageLoader, astfel incat un Load ulterior pentru aceeasi harta doar le decupeaza.
+
+        \return Un rezultat viitor completat cand toate imaginile sunt decodificate.
+     */
+    public static CompletableFuture<Void> Prefetch(File mapDirectory, List<TilesetRef> tilesets)
+    {
+        HashMap<String, CompletableFuture<BufferedImage>> images = StartImageLoads(ParseTilesets(mapDirectory, tilesets));
+        return CompletableFuture.allOf(images.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /*! \fn private static TsxInfo[] ParseTilesets(File mapDirectory, List<TilesetRef> tilesets)
+        \brief Citeste fisierele .tsx ale hartii (fiecare fisier o singura data); null pentru cele lipsa sau invalide.
+     */
+    private static TsxInfo[] ParseTilesets(File mapDirectory, List<TilesetRef> tilesets)
+    {
+        HashMap<String, TsxInfo> parsed = new HashMap<>();
+        TsxInfo[] infos = new TsxInfo[tilesets.size()];
+        for (int i = 0; i < tilesets.size(); i++)
+        {
+            TilesetRef ref = tilesets.get(i);
+            File tsx = ResolveTsx(mapDirectory, ref.GetSource());
+            if (tsx == null)
+            {
+                System.err.println("✗ Tileset-ul nu a fost gasit: " + ref.GetSource() + " (firstgid " + ref.GetFirstGid() + ")");
+                continue;
+            }
+
+            String key = tsx.getAbsolutePath();
+            TsxInfo info = parsed.get(key);
+            if (info == null)
+            {
+                try
+                {
+                    info = ParseTsx(tsx);
+                }
+                catch (Exception e)
+                {
+                    System.err.println("✗ Tileset-ul nu a putut fi citit: " + tsx.getPath() + " - " + e.getMessage());
+                    continue;
+                }
+                parsed.put(key, info);
+            }
+            infos[i] = info;
+        }
+        return infos;
+    }
+
+    /*! \fn private static HashMap<String, CompletableFuture<BufferedImage>> StartImageLoads(TsxInfo[] infos)
+        \brief Porneste decodificarea asincrona a fiecarei imagini distincte a tileset-urilor.
+     */
+    private static HashMap<String, CompletableFuture<BufferedImage>> StartImageLoads(TsxInfo[] infos)
+    {
+        HashMap<String, CompletableFuture<BufferedImage>> images = new HashMap<>();
+        for (TsxInfo info : infos)
+        {
+            if (info != null && info.imagePath != null && !images.containsKey(info.imagePath))
+            {
+                images.put(info.imagePath, ImageLoader.LoadImageAsync(info.imagePath));
+            }
+        }
+        return images;
+    }
+
+    /*! \fn public Tile GetTile(int gid)
+        \brief Returneaza dala pentru un GID sau null daca GID-ul este gol sau necunoscut.
+     */
+    public Tile GetTile(int gid)
+    {
+        gid &= GID_MASK;
+        return gid < tiles.length ? tiles[gid] : null;
+    }
+
+    /*! \fn public Tile GetFrameTile(int gid)
+        \brief Returneaza dala afisata acum pentru un GID (cadrul curent, daca GID-ul este animat).
+     */
+    public Tile GetFrameTile(int gid)
+    {
+        gid &= GID_MASK;
+        return gid < tiles.length ? tiles[frames[gid]] : null;
+    }
+
+    /*! \fn public boolean UpdateAnimations(long timeMillis)
+        \brief Actualizeaza tabela GID -> cadru curent pentru momentul dat al ceasului jocului.
+
+        Sunt parcurse doar GID-urile animate; nu se aloca nimic.
+
+        \param timeMillis Timpul jocului, in milisecunde (GameClock).
+        \return true daca cel putin un GID si-a schimbat cadrul (vezi IsFrameChanged()).
+     */
+    public boolean UpdateAnimations(long timeMillis)
+    {
+        boolean anyChanged = false;
+        for (int i = 0; i < animatedGids.length; i++)
+        {
+            int gid = animatedGids[i];
+            int frame = frameGids[animationStart[i]];
+            if (animationCycle[i] > 0)
+            {
+                long t = timeMillis % animationCycle[i];
+                int f = animationStart[i];
+                while (t >= frameDurations[f])
+                {
+                    t -= frameDurations[f];
+                    f++;
+                }
+                frame = frameGids[f];
+            }
+
+            boolean changed = frames[gid] != frame;
+            frameChanged[gid] = changed;
+            if (changed)
+            {
+                frames[gid] = frame;
+                anyChanged = true;
+            }
+        }
+        return anyChanged;
+    }
+
+    /*! \fn public boolean IsFrameChanged(int gid)
+        \brief Returneaza true daca GID-ul si-a schimbat cadrul la ultimul UpdateAnimations().
+     */
+    public boolean IsFrameChanged(int gid)
+    {
+        gid &= GID_MASK;
+        return gid < frameChanged.length && frameChanged[gid];
+    }
+
+    /*! \fn public boolean IsAnimated(int gid)
+        \brief Returneaza true daca dala cu GID-ul dat are o animatie.
+     */
+    public boolean IsAnimated(int gid)
+    {
+        return (GetFlags(gid) & FLAG_ANIMATED) != 0;
+    }
+
+    /*! \fn public int GetAnimatedCount()
+        \brief Returneaza numarul de GID-uri animate.
+     */
+    public int GetAnimatedCount()
+    {
+        return animatedGids.length;
+    }
+
+    /*! \fn public int GetFlags(int gid)
+        \brief Returneaza flagurile unui GID (0 pentru GID-uri necunoscute).
+     */
+    public int GetFlags(int gid)
+    {
+        gid &= GID_MASK;
+        return gid < flags.length ? flags[gid] : 0;
+    }
+
+    /*! \fn public boolean IsSolid(int gid)
+        \brief Returneaza true daca dala cu GID-ul dat este solida.
+     */
+    public boolean IsSolid(int gid)
+    {
+        return (GetFlags(gid) & FLAG_SOLID) != 0;
+    }
+
+    /*! \fn public int CountTiles()
+        \brief Returneaza numarul de GID-uri care au o dala (imagine).
+     */
+    public int CountTiles()
+    {
+        int count = 0;
+        for (Tile tile : tiles)
+        {
+            if (tile != null)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*! \fn public int CountAccelerated()
+        \brief Returneaza numarul de dale ale caror imagini sunt accelerate (tinute in memoria video).
+     */
+    public int CountAccelerated()
+    {
+        int count = 0;
+        for (Tile tile : tiles)
+        {
+            if (tile != null && CompatibleImages.IsAccelerated(tile.GetImage()))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*! \fn public int GetMaxGid()
+        \brief Returneaza cel mai mare GID acoperit de registru.
+     */
+    public int GetMaxGid()
+    {
+        return tiles.length - 1;
+    }
+
+    /*! \fn private static File ResolveTsx(File mapDirectory, String source)
+        \brief Rezolva calea unui fisier .tsx relativ la directorul hartii, cu cautare dupa nume ca rezerva.
+     */
+    private static File ResolveTsx(File mapDirectory, String source)
+    {
+        File file = new File(mapDirectory, source);
+        if (file.isFile())
+        {
+            return file;
+        }
+
+        File byName = new File(mapDirectory, new File(source).getName());
+        if (byName.isFile())
+        {
+            System.out.println("⚠ Tileset-ul " + source + " lipseste, se foloseste " + byName.getPath());
+            return byName;
+        }
+        return null;
+    }
+
+    /*! \fn private static TsxInfo ParseTsx(File tsx)
+        \brief Citeste un fisier .tsx: dimensiunile, imaginea si proprietatile dalelor.
+     */
+    private static TsxInfo ParseTsx(File tsx) throws Exception
+    {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        TsxInfo info = new TsxInfo();
+        File directory = tsx.getParentFile();
+        int currentTile = -1;
+        List<Integer> frameIds = new ArrayList<>();
+        List<Integer> durations = new ArrayList<>();
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(tsx)))
+        {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try
+            {
+                while (reader.hasNext())
+                {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT && "tile".equals(reader.getLocalName()))
+                    {
+                        currentTile = -1;
+                        continue;
+                    }
+                    if (event == XMLStreamConstants.END_ELEMENT && "animation".equals(reader.getLocalName()))
+                    {
+                        AddAnimation(info, currentTile, frameIds, durations);
+                        continue;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT)
+                    {
+                        continue;
+                    }
+
+                    switch (reader.getLocalName())
+                    {
+                        case "tileset":
+                            info.tileWidth  = IntAttribute(reader, "tilewidth", Tile.TILE_WIDTH);
+                            info.tileHeight = IntAttribute(reader, "tileheight", Tile.TILE_HEIGHT);
+                            info.tileCount  = IntAttribute(reader, "tilecount", 0);
+                            info.columns    = IntAttribute(reader, "columns", 0);
+                            info.spacing    = IntAttribute(reader, "spacing", 0);
+                            info.margin     = IntAttribute(reader, "margin", 0);
+                            info.localFlags = new byte[info.tileCount];
+                            break;
+                        case "image":
+                            /// Doar imaginea tileset-ului; imaginile individuale ale dalelor nu sunt suportate.
+                            if (currentTile < 0 && info.imagePath == null)
+                            {
+                                info.imagePath = new File(directory, reader.getAttributeValue(null, "source")).getPath();
+                            }
+                            break;
+                        case "tile":
+                            currentTile = IntAttribute(reader, "id", -1);
+                            break;
+                        case "property":
+                            if (IsLocalTile(info, currentTile) && "solid".equals(reader.getAttributeValue(null, "name"))
+                                    && "true".equals(reader.getAttributeValue(null, "value")))
+                            {
+                                info.localFlags[currentTile] |= FLAG_SOLID;
+                            }
+                            break;
+                        case "animation":
+                            frameIds.clear();
+                            durations.clear();
+                            break;
+                        case "frame":
+                            frameIds.add(IntAttribute(reader, "tileid", 0));
+                            durations.add(Math.max(0, IntAttribute(reader, "duration", 0)));
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new Exception("Eroare la citirea fisierului " + tsx.getPath(), e);
+        }
+
+        if (info.localFlags == null)
+        {
+            throw new Exception("Fisierul " + tsx.getPath() + " nu contine elementul tileset");
+        }
+        return info;
+    }
+
+    /*! \fn private static void AddAnimation(TsxInfo info, int localId, List<Integer> frameIds, List<Integer> durations)
+        \brief Retine animatia citita pentru dala locala data; cadrele din afara tileset-ului sunt ignorate.
+     */
+    private static void AddAnimation(TsxInfo info, int localId, List<Integer> frameIds, List<Integer> durations)
+    {
+        if (!IsLocalTile(info, localId))
+        {
+            return;
+        }
+        List<Integer> validIds = new ArrayList<>();
+        List<Integer> validDurations = new ArrayList<>();
+        for (int i = 0; i < frameIds.size(); i++)
+        {
+            if (IsLocalTile(info, frameIds.get(i)))
+            {
+                validIds.add(frameIds.get(i));
+                validDurations.add(durations.get(i));
+            }
+        }
+        if (validIds.isEmpty())
+        {
+            return;
+        }
+
+        int[][] animation = new int[2][validIds.size()];
+        for (int i = 0; i < validIds.size(); i++)
+        {
+            animation[0][i] = validIds.get(i);
+            animation[1][i] = validDurations.get(i);
+        }
+        info.animations.put(localId, animation);
+        info.localFlags[localId] |= FLAG_ANIMATED;
+    }
+
+    private static boolean IsLocalTile(TsxInfo info, int localId)
+    {
+        return localId >= 0 && localId < info.localFlags.length;
+    }
+
+    private static int IntAttribute(XMLStreamReader reader, String name, int defaultValue)
+    {
+        String value = reader.getAttributeValue(null, name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,333 @@
+package PaooGame.Timing;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/*! \class public class FrameScheduler
+    \brief Planificator de frame-uri cu pas fix de actualizare (fixed timestep).
+
+    Actualizarile (Update) sunt executate cu un pas fix de timp folosind un acumulator, iar desenarea (Draw)
+    are propria frecventa, independenta de cea a actualizarilor. Intre doua termene thread-ul nu mai face
+    busy-spin: este "parcat" (LockSupport.parkNanos) si doar ultima fractiune de timp este asteptata activ,
+    pentru precizie. Planificatorul masoara si frecventa reala de actualizare/desenare (tick-uri si frame-uri pe secunda).
+
+    Run() executa ambele activitati pe acelasi thread. RunThreaded() muta desenarea pe un thread separat ("render"),
+    astfel incat un flip lent al buffer-ului nu mai intarzie simularea si o actualizare grea nu mai pierde frame-uri;
+    cele doua thread-uri comunica doar prin instantanee publicate de actualizare (vezi SnapshotExchange).
+ */
+public class FrameScheduler
+{
+    public static final int DEFAULT_UPDATE_RATE    = 60;        /*!< Numarul implicit de actualizari pe secunda.*/
+    public static final int DEFAULT_RENDER_RATE    = 60;        /*!< Numarul implicit de desenari pe secunda.*/
+
+    private static final long NANOS_PER_SECOND     = 1000000000L;
+    private static final long MAX_FRAME_TIME       = 250000000L; /*!< Timpul maxim (250 ms) adaugat in acumulator intr-o iteratie, pentru a evita "spirala mortii".*/
+    private static final int  MAX_UPDATES_PER_LOOP = 5;          /*!< Numarul maxim de actualizari recuperate intr-o singura iteratie.*/
+    private static final long MIN_SPIN_NANOS       = 200000L;    /*!< Pragul minim (0.2 ms) sub care se asteapta activ.*/
+    private static final long MAX_SPIN_NANOS       = 2000000L;   /*!< Pragul maxim (2 ms) sub care se asteapta activ.*/
+
+    private volatile long updateStep;   /*!< Durata unui pas de actualizare in nanosecunde.*/
+    private volatile long renderStep;   /*!< Durata dintre doua desenari in nanosecunde (0 = fara limita).*/
+
+    private volatile boolean threaded;  /*!< Desenarea ruleaza pe un thread separat (RunThreaded).*/
+
+    private volatile int measuredTicks;     /*!< Numarul de actualizari masurate in ultima secunda.*/
+    private volatile int measuredFrames;    /*!< Numarul de desenari masurate in ultima secunda.*/
+    private volatile long tickCount;        /*!< Numarul total de actualizari executate.*/
+
+    /*! \fn public FrameScheduler(int updateRate, int renderRate)
+        \brief Constructorul de initializare al clasei.
+
+        \param updateRate Numarul de actualizari pe secunda (pasul fix al simularii).
+        \param renderRate Numarul de desenari pe secunda; o valoare <= 0 inseamna desenare fara limita.
+     */
+    public FrameScheduler(int updateRate, int renderRate)
+    {
+        SetUpdateRate(updateRate);
+        SetRenderRate(renderRate);
+    }
+
+    /*! \fn public void Run(BooleanSupplier running, Runnable update, Runnable render)
+        \brief Executa bucla jocului atat timp cat running intoarce true.
+
+        \param running Conditia de continuare a buclei.
+        \param update Actiunea executata la fiecare pas fix de actualizare.
+        \param render Actiunea executata la fiecare desenare.
+     */
+    public void Run(BooleanSupplier running, Runnable update, Runnable render)
+    {
+        long previous       = System.nanoTime();
+        long accumulator    = 0;
+        long nextRender     = previous;
+        long secondStart    = previous;
+        int ticks           = 0;
+        int frames          = 0;
+        Pacer pacer         = new Pacer();
+
+        while (running.getAsBoolean())
+        {
+            long now = System.nanoTime();
+            long elapsed = now - previous;
+            previous = now;
+
+            /// Daca thread-ul a fost blocat mult timp nu se incearca recuperarea tuturor pasilor pierduti.
+            if (elapsed > MAX_FRAME_TIME)
+            {
+                elapsed = MAX_FRAME_TIME;
+            }
+            accumulator += elapsed;
+
+            long step = updateStep;
+            int updates = 0;
+            while (accumulator >= step && updates < MAX_UPDATES_PER_LOOP)
+            {
+                update.run();
+                accumulator -= step;
+                ++updates;
+                ++ticks;
+                ++tickCount;
+            }
+            if (accumulator >= step)
+            {
+                /// Simularea nu tine pasul; restul timpului este abandonat in loc sa se acumuleze la infinit.
+                accumulator %= step;
+            }
+
+            long frameStep = renderStep;
+            if (frameStep == 0 || now - nextRender >= 0)
+            {
+                render.run();
+                ++frames;
+                nextRender += frameStep;
+                if (now - nextRender > frameStep)
+                {
+                    /// Desenarea a ramas in urma, se reseteaza termenul in loc sa se deseneze in rafala.
+                    nextRender = now + frameStep;
+                }
+            }
+
+            if (now - secondStart >= NANOS_PER_SECOND)
+            {
+                measuredTicks = ticks;
+                measuredFrames = frames;
+                ticks = 0;
+                frames = 0;
+                secondStart = now;
+            }
+
+            if (frameStep != 0)
+            {
+                long nextTick = now + (step - accumulator);
+                pacer.WaitUntil(nextTick - nextRender < 0 ? nextTick : nextRender);
+            }
+        }
+    }
+
+    /*! \fn public void RunThreaded(BooleanSupplier running, Runnable update, Runnable render)
+        \brief Executa actualizarile pe thread-ul curent si desenarile pe un thread nou, pana cand running intoarce false.
+
+        Metoda revine dupa ce thread-ul de desenare s-a oprit. Actiunea de desenare nu trebuie sa citeasca starea
+        modificata de actualizare decat prin instantanee publicate (vezi SnapshotExchange).
+
+        \param running Conditia de continuare a ambelor bucle.
+        \param update Actiunea executata la fiecare pas fix de actualizare (pe thread-ul curent).
+        \param render Actiunea executata la fiecare desenare (pe thread-ul "render").
+     */
+    public void RunThreaded(BooleanSupplier running, Runnable update, Runnable render)
+    {
+        Thread renderThread = new Thread(() -> RenderLoop(running, render), "render");
+        threaded = true;
+        renderThread.start();
+        try
+        {
+            UpdateLoop(running, update);
+        }
+        finally
+        {
+            try
+            {
+                renderThread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            threaded = false;
+        }
+    }
+
+    /*! \fn private void UpdateLoop(BooleanSupplier running, Runnable update)
+        \brief Bucla de actualizare cu pas fix a modului RunThreaded.
+     */
+    private void UpdateLoop(BooleanSupplier running, Runnable update)
+    {
+        long previous       = System.nanoTime();
+        long accumulator    = 0;
+        long secondStart    = previous;
+        int ticks           = 0;
+        Pacer pacer         = new Pacer();
+
+        while (running.getAsBoolean())
+        {
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_FRAME_TIME);
+            previous = now;
+
+            long step = updateStep;
+            int updates = 0;
+            while (accumulator >= step && updates < MAX_UPDATES_PER_LOOP)
+            {
+                update.run();
+                accumulator -= step;
+                ++updates;
+                ++ticks;
+                ++tickCount;
+            }
+            if (accumulator >= step)
+            {
+                accumulator %= step;
+            }
+
+            if (now - secondStart >= NANOS_PER_SECOND)
+            {
+                measuredTicks = ticks;
+                ticks = 0;
+                secondStart = now;
+            }
+
+            pacer.WaitUntil(now + (step - accumulator));
+        }
+    }
+
+    /*! \fn private void RenderLoop(BooleanSupplier running, Runnable render)
+        \brief Bucla de desenare a modului RunThreaded (frecventa renderStep sau fara limita).
+     */
+    private void RenderLoop(BooleanSupplier running, Runnable render)
+    {
+        long nextRender     = System.nanoTime();
+        long secondStart    = nextRender;
+        int frames          = 0;
+        Pacer pacer         = new Pacer();
+
+        while (running.getAsBoolean())
+        {
+            render.run();
+            ++frames;
+
+            long now = System.nanoTime();
+            if (now - secondStart >= NANOS_PER_SECOND)
+            {
+                measuredFrames = frames;
+                frames = 0;
+                secondStart = now;
+            }
+
+            long frameStep = renderStep;
+            if (frameStep != 0)
+            {
+                nextRender += frameStep;
+                if (now - nextRender > frameStep)
+                {
+                    nextRender = now + frameStep;
+                }
+                pacer.WaitUntil(nextRender);
+            }
+        }
+    }
+
+    /*! \class private static final class Pacer
+        \brief Asteptarea pana la un termen, cu pragul de spin adaptat; fiecare bucla (thread) are propria instanta.
+     */
+    private static final class Pacer
+    {
+        private long spinThreshold = MAX_SPIN_NANOS;    /*!< Estimarea curenta a intarzierii cu care se trezeste thread-ul dupa park.*/
+
+        /*! \fn void WaitUntil(long deadline)
+            \brief Asteapta pana la momentul deadline (in nanosecunde, relativ la System.nanoTime()).
+
+            Cea mai mare parte a timpului thread-ul este parcat; ultima portiune, mai mica decat intarzierea
+            estimata a sistemului de operare la trezire, este asteptata activ cu Thread.onSpinWait().
+         */
+        void WaitUntil(long deadline)
+        {
+            long remaining = deadline - System.nanoTime();
+            while (remaining > spinThreshold)
+            {
+                long parkFor = remaining - spinThreshold;
+                long before = System.nanoTime();
+                LockSupport.parkNanos(parkFor);
+                long overshoot = (System.nanoTime() - before) - parkFor;
+
+                /// Media mobila a intarzierii la trezire; pragul de spin se adapteaza la granularitatea planificatorului OS.
+                long estimate = spinThreshold + ((overshoot * 2 - spinThreshold) >> 3);
+                spinThreshold = Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, estimate));
+
+                remaining = deadline - System.nanoTime();
+            }
+            while (deadline - System.nanoTime() > 0)
+            {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /*! \fn public void SetUpdateRate(int updateRate)
+        \brief Seteaza numarul de actualizari pe secunda.
+     */
+    public void SetUpdateRate(int updateRate)
+    {
+        if (updateRate <= 0)
+        {
+            throw new IllegalArgumentException("Frecventa de actualizare trebuie sa fie pozitiva: " + updateRate);
+        }
+        updateStep = NANOS_PER_SECOND / updateRate;
+    }
+
+    /*! \fn public void SetRenderRate(int renderRate)
+        \brief Seteaza numarul de desenari pe secunda; o valoare <= 0 elimina limita.
+     */
+    public void SetRenderRate(int renderRate)
+    {
+        renderStep = renderRate > 0 ? NANOS_PER_SECOND / renderRate : 0;
+    }
+
+    /*! \fn public long GetUpdateStep()
+        \brief Returneaza durata unui pas de actualizare in nanosecunde.
+     */
+    public long GetUpdateStep()
+    {
+        return updateStep;
+    }
+
+    /*! \fn public boolean IsThreaded()
+        \brief Returneaza true cat timp desenarea ruleaza pe thread-ul separat (RunThreaded).
+     */
+    public boolean IsThreaded()
+    {
+        return threaded;
+    }
+
+    /*! \fn public int GetTicksPerSecond()
+        \brief Returneaza numarul de actualizari masurate in ultima secunda.
+     */
+    public int GetTicksPerSecond()
+    {
+        return measuredTicks;
+    }
+
+    /*! \fn public int GetFramesPerSecond()
+        \brief Returneaza numarul de desenari masurate in ultima secunda.
+     */
+    public int GetFramesPerSecond()
+    {
+        return measuredFrames;
+    }
+
+    /*! \fn public long GetTickCount()
+        \brief Returneaza numarul total de actualizari executate de la pornire.
+     */
+    public long GetTickCount()
+    {
+        return tickCount;
+    }
+}
@@ -0,0 +1,65 @@
+package PaooGame.Timing;
+
+/*! \class public class GameClock
+    \brief Ceasul comun al jocului: timpul simularii, avansat cu pasul fix la fiecare actualizare.
+
+    Animatiile (si orice alt efect dependent de timp) citesc acest ceas in loc sa tina propriile cronometre,
+    astfel incat sute de personaje animate nu adauga niciun contor de actualizat per frame. Timpul creste doar
+    cand jocul este actualizat, deci se opreste odata cu simularea si este acelasi la fiecare rulare headless
+    (nu depinde de ceasul sistemului).
+
+    Ceasul este avansat de un singur fir (cel care executa Game.Update); celelalte fire doar il citesc.
+ */
+public class GameClock
+{
+    private static volatile long tick;          /*!< Numarul de actualizari executate.*/
+    private static volatile long timeNanos;     /*!< Timpul simularii, in nanosecunde.*/
+
+    private GameClock()
+    {
+    }
+
+    /*! \fn public static void Advance(long stepNanos)
+        \brief Avanseaza ceasul cu un pas de actualizare.
+
+        \param stepNanos Durata pasului, in nanosecunde (vezi FrameScheduler.GetUpdateStep()).
+     */
+    public static void Advance(long stepNanos)
+    {
+        tick = tick + 1;
+        timeNanos = timeNanos + stepNanos;
+    }
+
+    /*! \fn public static void Reset()
+        \brief Readuce ceasul la zero.
+     */
+    public static void Reset()
+    {
+        tick = 0;
+        timeNanos = 0;
+    }
+
+    /*! \fn public static long GetTick()
+        \brief Returneaza numarul de actualizari executate de la pornire.
+     */
+    public static long GetTick()
+    {
+        return tick;
+    }
+
+    /*! \fn public static long GetTimeNanos()
+        \brief Returneaza timpul simularii, in nanosecunde.
+     */
+    public static long GetTimeNanos()
+    {
+        return timeNanos;
+    }
+
+    /*! \fn public static long GetTimeMillis()
+        \brief Returneaza timpul simularii, in milisecunde.
+     */
+    public static long GetTimeMillis()
+    {
+        return timeNanos / 1000000L;
+    }
+}
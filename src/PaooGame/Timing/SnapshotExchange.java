@@ -0,0 +1,76 @@
+package PaooGame.Timing;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*! \class public class SnapshotExchange<T>
+    \brief Predarea fara blocare a instantaneelor de desenare de la thread-ul de actualizare la cel de desenare.
+
+    Actualizarea publica la fiecare tick un instantaneu imutabil (Publish). Desenarea citeste ultima pereche
+    publicata (Get): instantaneul curent, cel anterior si momentul publicarii, din care calculeaza factorul de
+    interpolare (Pair.Alpha). Perechea este ea insasi imutabila si este inlocuita printr-o singura scriere
+    atomica, deci cititorul vede mereu doua instantanee consecutive, niciodata o stare partial actualizata.
+
+    Publish() trebuie apelata de un singur thread (producatorul); Get() poate fi apelata de oricate.
+ */
+public class SnapshotExchange<T>
+{
+    /*! \class public static final class Pair<T>
+        \brief Ultimele doua instantanee publicate si momentul (System.nanoTime) publicarii celui curent.
+     */
+    public static final class Pair<T>
+    {
+        public final T previous;            /*!< Instantaneul tick-ului anterior (egal cu current la prima publicare).*/
+        public final T current;             /*!< Ultimul instantaneu publicat.*/
+        public final long publishedNanos;   /*!< Momentul publicarii lui current.*/
+
+        Pair(T previous, T current, long publishedNanos)
+        {
+            this.previous = previous;
+            this.current = current;
+            this.publishedNanos = publishedNanos;
+        }
+
+        /*! \fn public float Alpha(long stepNanos, long nowNanos)
+            \brief Returneaza pozitia momentului nowNanos intre previous (0) si current (1), limitata la [0, 1].
+
+            Desenarea ramane astfel cu cel mult un tick in urma simularii, dar se misca uniform intre tick-uri
+            chiar daca frecventa de desenare difera de cea de actualizare.
+         */
+        public float Alpha(long stepNanos, long nowNanos)
+        {
+            if (stepNanos <= 0)
+            {
+                return 1f;
+            }
+            float alpha = (float)(nowNanos - publishedNanos) / stepNanos;
+            return Math.max(0f, Math.min(1f, alpha));
+        }
+    }
+
+    private final AtomicReference<Pair<T>> latest = new AtomicReference<>();
+
+    /*! \fn public void Publish(T snapshot)
+        \brief Publica instantaneul tick-ului curent; cel publicat anterior devine previous.
+     */
+    public void Publish(T snapshot)
+    {
+        Pair<T> last = latest.get();
+        latest.set(new Pair<>(last != null ? last.current : snapshot, snapshot, System.nanoTime()));
+    }
+
+    /*! \fn public Pair<T> Get()
+        \brief Returneaza ultima pereche publicata sau null daca nu s-a publicat nimic.
+     */
+    public Pair<T> Get()
+    {
+        return latest.get();
+    }
+
+    /*! \fn public void Clear()
+        \brief Renunta la instantaneele publicate (urmatoarea publicare nu va interpola cu cele vechi).
+     */
+    public void Clear()
+    {
+        latest.set(null);
+    }
+}